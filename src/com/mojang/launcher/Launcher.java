@@ -1,6 +1,7 @@
 package com.mojang.launcher;
 
 import com.mojang.authlib.Agent;
+import com.mojang.launcher.metrics.MetricRegistry;
 import com.mojang.launcher.updater.ExceptionalThreadPoolExecutor;
 import com.mojang.launcher.updater.VersionManager;
 import com.mojang.launcher.versions.ReleaseTypeFactory;
@@ -36,6 +37,7 @@ public class Launcher {
         this.releaseTypeFactory = releaseTypeFactory;
         this.launcherFormatVersion = launcherFormatVersion;
         this.downloaderExecutorService.allowCoreThreadTimeOut(true);
+        MetricRegistry.getDefault().monitorExecutor("downloader", this.downloaderExecutorService);
     }
 
     public ReleaseTypeFactory getReleaseTypeFactory() {
@@ -13,6 +13,7 @@ public enum OperatingSystem {
     OSX("OSX", 2, "osx", new String[]{"mac"}),
     UNKNOWN("UNKNOWN", 3, "unknown", new String[0]);
     private static final Logger LOGGER = LogManager.getLogger();
+    private static volatile OperatingSystem currentPlatform;
     private final String name;
     private final String[] aliases;
     // $FF: synthetic field
@@ -42,7 +43,17 @@ public enum OperatingSystem {
     }
 
     public static OperatingSystem getCurrentPlatform() {
-        String osName = System.getProperty("os.name").toLowerCase();
+        OperatingSystem result = currentPlatform;
+        if (result == null) {
+            result = detectPlatform(System.getProperty("os.name"));
+            currentPlatform = result;
+        }
+
+        return result;
+    }
+
+    public static OperatingSystem detectPlatform(String name) {
+        String osName = name == null ? "" : name.toLowerCase();
         OperatingSystem[] arr$ = values();
         int len$ = arr$.length;
 
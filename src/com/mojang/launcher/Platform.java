@@ -0,0 +1,56 @@
+package com.mojang.launcher;
+
+import com.google.common.base.Objects;
+
+public final class Platform {
+
+    private static final Platform CURRENT = new Platform(OperatingSystem.getCurrentPlatform(), System.getProperty("os.version"), System.getProperty("os.arch"));
+    private final OperatingSystem operatingSystem;
+    private final String version;
+    private final String arch;
+
+    public Platform(OperatingSystem operatingSystem, String version, String arch) {
+        if (operatingSystem == null) {
+            throw new IllegalArgumentException("Operating system cannot be null");
+        } else {
+            this.operatingSystem = operatingSystem;
+            this.version = version;
+            this.arch = arch;
+        }
+    }
+
+    public static Platform current() {
+        return CURRENT;
+    }
+
+    public OperatingSystem getOperatingSystem() {
+        return this.operatingSystem;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public String getArch() {
+        return this.arch;
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o != null && this.getClass() == o.getClass()) {
+            Platform that = (Platform) o;
+            return this.operatingSystem == that.operatingSystem && Objects.equal(this.version, that.version) && Objects.equal(this.arch, that.arch);
+        } else {
+            return false;
+        }
+    }
+
+    public int hashCode() {
+        return Objects.hashCode(new Object[]{this.operatingSystem, this.version, this.arch});
+    }
+
+    public String toString() {
+        return "Platform{operatingSystem=" + this.operatingSystem + ", version=\'" + this.version + '\'' + ", arch=\'" + this.arch + '\'' + '}';
+    }
+}
@@ -0,0 +1,673 @@
+package com.mojang.launcher.game.log;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class GameLogArchive {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ConcurrentMap<File, GameLogArchive> ARCHIVES = new ConcurrentHashMap();
+    private static final BlockingQueue<GameLogArchive.Entry> QUEUE = new ArrayBlockingQueue(65536);
+    private static final AtomicLong DROPPED_LINES = new AtomicLong();
+    private static final Object WRITER_LOCK = new Object();
+    private static final int BLOCK_SIZE = 16384;
+    private static final int BLOOM_BYTES = 1024;
+    private static final int INDEX_RECORD_SIZE = 48;
+    private static final long MAX_SEGMENT_SIZE = 33554432L;
+    private static final int MAX_SEGMENTS = 8;
+    private static final long IDLE_FLUSH_TIME = 2000L;
+    private static final long MAX_BLOCK_AGE = 10000L;
+    private static final long CLOSE_TIMEOUT = 5000L;
+    public static final int FLAG_WARNING = 1;
+    public static final int FLAG_ERROR = 2;
+    public static final int FLAG_SESSION_END = 4;
+    private static volatile Thread writerThread;
+    private final File directory;
+    private final Map<Long, GameLogArchive.Session> openSessions = Maps.newHashMap();
+    private final Map<Long, GameLogArchive.Session> lateSessions = Maps.newHashMap();
+    private long lastSessionId;
+    private File segment;
+
+    private GameLogArchive(File directory) {
+        this.directory = directory;
+    }
+
+    public static GameLogArchive forDirectory(File directory) {
+        File key = directory.getAbsoluteFile();
+        GameLogArchive archive = (GameLogArchive) ARCHIVES.get(key);
+        if (archive == null) {
+            archive = new GameLogArchive(key);
+            GameLogArchive existing = (GameLogArchive) ARCHIVES.putIfAbsent(key, archive);
+            if (existing != null) {
+                archive = existing;
+            }
+        }
+
+        return archive;
+    }
+
+    public File getDirectory() {
+        return this.directory;
+    }
+
+    public GameLogArchive.Session startSession() {
+        long sessionId;
+        synchronized (this) {
+            sessionId = Math.max(System.currentTimeMillis(), this.lastSessionId + 1L);
+            this.lastSessionId = sessionId;
+        }
+
+        return new GameLogArchive.Session(this, sessionId);
+    }
+
+    public List<GameLogArchive.SessionInfo> getSessions() throws IOException {
+        Map<Long, GameLogArchive.SessionInfo> sessions = Maps.newTreeMap();
+        Iterator i$ = this.getSegments().iterator();
+
+        while (i$.hasNext()) {
+            File segment = (File) i$.next();
+            Iterator j$ = readIndex(segment).iterator();
+
+            while (j$.hasNext()) {
+                GameLogArchive.BlockInfo block = (GameLogArchive.BlockInfo) j$.next();
+                GameLogArchive.SessionInfo session = (GameLogArchive.SessionInfo) sessions.get(Long.valueOf(block.sessionId));
+                if (session == null) {
+                    session = new GameLogArchive.SessionInfo(block.sessionId, block.firstTime);
+                    sessions.put(Long.valueOf(block.sessionId), session);
+                }
+
+                session.endTime = Math.max(session.endTime, block.lastTime);
+                session.lineCount += block.lineCount;
+                session.flags |= block.flags;
+            }
+        }
+
+        return Lists.newArrayList(sessions.values());
+    }
+
+    public List<String> readSession(long sessionId, boolean errorsOnly) throws IOException {
+        List<String> result = Lists.newArrayList();
+        Iterator i$ = this.getSegments().iterator();
+
+        while (i$.hasNext()) {
+            File segment = (File) i$.next();
+            RandomAccessFile data = null;
+            Iterator j$ = readIndex(segment).iterator();
+
+            try {
+                while (j$.hasNext()) {
+                    GameLogArchive.BlockInfo block = (GameLogArchive.BlockInfo) j$.next();
+                    if (block.sessionId == sessionId && (!errorsOnly || (block.flags & FLAG_ERROR) != 0)) {
+                        if (data == null) {
+                            data = new RandomAccessFile(segment, "r");
+                        }
+
+                        String[] lines = readBlock(data, block);
+                        for (int i = 0; i < lines.length; ++i) {
+                            if (!errorsOnly || (getFlags(lines[i]) & FLAG_ERROR) != 0) {
+                                result.add(lines[i]);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                if (data != null) {
+                    data.close();
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public List<GameLogArchive.Match> grep(String text) throws IOException {
+        String needle = text.toLowerCase();
+        byte[] wanted = new byte[BLOOM_BYTES];
+        addTrigrams(wanted, needle);
+        List<GameLogArchive.Match> result = Lists.newArrayList();
+        Iterator i$ = this.getSegments().iterator();
+
+        while (i$.hasNext()) {
+            File segment = (File) i$.next();
+            List<GameLogArchive.BlockInfo> blocks = readIndex(segment);
+            if (!blocks.isEmpty()) {
+                RandomAccessFile data = new RandomAccessFile(segment, "r");
+
+                try {
+                    byte[] bloom = new byte[BLOOM_BYTES];
+                    Iterator j$ = blocks.iterator();
+
+                    while (j$.hasNext()) {
+                        GameLogArchive.BlockInfo block = (GameLogArchive.BlockInfo) j$.next();
+                        data.seek(block.offset);
+                        data.readFully(bloom);
+                        if (containsAll(bloom, wanted)) {
+                            String[] lines = readBlock(data, block);
+                            for (int i = 0; i < lines.length; ++i) {
+                                if (lines[i].toLowerCase().contains(needle)) {
+                                    result.add(new GameLogArchive.Match(block.sessionId, block.firstTime, lines[i]));
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    data.close();
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public static long getDroppedLineCount() {
+        return DROPPED_LINES.get();
+    }
+
+    private List<File> getSegments() {
+        File[] files = this.directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(".dat");
+            }
+        });
+        if (files == null) {
+            return Collections.emptyList();
+        } else {
+            List<File> segments = Lists.newArrayList(Arrays.asList(files));
+            Collections.sort(segments);
+            return segments;
+        }
+    }
+
+    private static File getIndexFile(File segment) {
+        String name = segment.getName();
+        return new File(segment.getParentFile(), name.substring(0, name.length() - 4) + ".idx");
+    }
+
+    private static List<GameLogArchive.BlockInfo> readIndex(File segment) throws IOException {
+        File indexFile = getIndexFile(segment);
+        if (!indexFile.isFile()) {
+            return Collections.emptyList();
+        } else {
+            RandomAccessFile index = new RandomAccessFile(indexFile, "r");
+
+            try {
+                int count = (int) (index.length() / (long) INDEX_RECORD_SIZE);
+                List<GameLogArchive.BlockInfo> blocks = Lists.newArrayListWithCapacity(count);
+
+                for (int i = 0; i < count; ++i) {
+                    GameLogArchive.BlockInfo block = new GameLogArchive.BlockInfo();
+                    block.sessionId = index.readLong();
+                    block.firstTime = index.readLong();
+                    block.lastTime = index.readLong();
+                    block.offset = index.readLong();
+                    block.length = index.readInt();
+                    block.lineCount = index.readInt();
+                    block.flags = index.readInt();
+                    index.readInt();
+                    blocks.add(block);
+                }
+
+                return blocks;
+            } finally {
+                index.close();
+            }
+        }
+    }
+
+    private static String[] readBlock(RandomAccessFile data, GameLogArchive.BlockInfo block) throws IOException {
+        byte[] compressed = new byte[block.length - BLOOM_BYTES];
+        data.seek(block.offset + (long) BLOOM_BYTES);
+        data.readFully(compressed);
+        Inflater inflater = new Inflater();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 4);
+
+        try {
+            inflater.setInput(compressed);
+            byte[] buffer = new byte[8192];
+
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated log block at " + block.offset);
+                }
+
+                output.write(buffer, 0, count);
+            }
+        } catch (DataFormatException var9) {
+            throw new IOException("Corrupt log block at " + block.offset, var9);
+        } finally {
+            inflater.end();
+        }
+
+        return (new String(output.toByteArray(), Charsets.UTF_8)).split("\n", -1);
+    }
+
+    static int getFlags(String line) {
+        if (!line.contains("ERROR") && !line.contains("FATAL") && !line.contains("SEVERE") && !line.startsWith("Exception in thread")) {
+            return line.contains("WARN") ? FLAG_WARNING : 0;
+        } else {
+            return FLAG_ERROR;
+        }
+    }
+
+    private static void addTrigrams(byte[] bloom, String text) {
+        for (int i = 0; i + 3 <= text.length(); ++i) {
+            int bit = trigramBit(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+            bloom[bit >>> 3] = (byte) (bloom[bit >>> 3] | 1 << (bit & 7));
+        }
+
+    }
+
+    private static int trigramBit(char a, char b, char c) {
+        int hash = (a * 31 + b) * 31 + c;
+        return (hash * -1640531535) >>> 19;
+    }
+
+    private static boolean containsAll(byte[] bloom, byte[] wanted) {
+        for (int i = 0; i < wanted.length; ++i) {
+            if ((bloom[i] & wanted[i]) != wanted[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void enqueue(GameLogArchive.Entry entry) {
+        if (writerThread == null) {
+            startWriter();
+        }
+
+        if (!QUEUE.offer(entry)) {
+            if (entry.line == null) {
+                try {
+                    QUEUE.put(entry);
+                } catch (InterruptedException var2) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                DROPPED_LINES.incrementAndGet();
+            }
+        }
+
+    }
+
+    private static void startWriter() {
+        Object var0 = WRITER_LOCK;
+        synchronized (WRITER_LOCK) {
+            if (writerThread == null) {
+                writerThread = new Thread("Game log archive writer") {
+                    public void run() {
+                        GameLogArchive.runWriter();
+                    }
+                };
+                writerThread.setDaemon(true);
+                writerThread.start();
+            }
+
+        }
+    }
+
+    private static void runWriter() {
+        while (true) {
+            try {
+                GameLogArchive.Entry entry = (GameLogArchive.Entry) QUEUE.poll(IDLE_FLUSH_TIME, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    Iterator i$ = ARCHIVES.values().iterator();
+
+                    while (i$.hasNext()) {
+                        ((GameLogArchive) i$.next()).flushAll();
+                    }
+                } else {
+                    entry.session.archive.write(entry);
+                }
+            } catch (InterruptedException var3) {
+                return;
+            } catch (Throwable var4) {
+                LOGGER.error("Couldn\'t write game log archive", var4);
+            }
+        }
+    }
+
+    private void write(GameLogArchive.Entry entry) throws IOException {
+        GameLogArchive.Session session = entry.session;
+        if (session.ended) {
+            if (entry.line != null) {
+                this.lateSessions.put(Long.valueOf(session.id), session);
+                session.append(entry.time, entry.line);
+                if (session.pending.length() >= BLOCK_SIZE || entry.time - session.firstTime >= MAX_BLOCK_AGE) {
+                    this.flush(session, 0);
+                }
+            } else {
+                entry.written.countDown();
+            }
+
+            return;
+        }
+
+        GameLogArchive.Session open = (GameLogArchive.Session) this.openSessions.get(Long.valueOf(session.id));
+        if (open == null) {
+            this.openSessions.put(Long.valueOf(session.id), session);
+            if (this.segment == null || this.segment.length() > MAX_SEGMENT_SIZE) {
+                this.rollSegment(session.id);
+            }
+        }
+
+        if (entry.line == null) {
+            if (session.pendingLines == 0) {
+                session.firstTime = entry.time;
+                session.lastTime = entry.time;
+            }
+
+            try {
+                this.flush(session, FLAG_SESSION_END);
+            } finally {
+                session.ended = true;
+                this.openSessions.remove(Long.valueOf(session.id));
+                entry.written.countDown();
+            }
+        } else {
+            session.append(entry.time, entry.line);
+            if (session.pending.length() >= BLOCK_SIZE || entry.time - session.firstTime >= MAX_BLOCK_AGE) {
+                this.flush(session, 0);
+            }
+        }
+
+    }
+
+    private void flushAll() throws IOException {
+        Iterator i$ = this.openSessions.values().iterator();
+
+        while (i$.hasNext()) {
+            GameLogArchive.Session session = (GameLogArchive.Session) i$.next();
+            this.flush(session, 0);
+        }
+
+        i$ = this.lateSessions.values().iterator();
+
+        while (i$.hasNext()) {
+            GameLogArchive.Session session = (GameLogArchive.Session) i$.next();
+            this.flush(session, 0);
+            i$.remove();
+        }
+
+    }
+
+    private void rollSegment(long sessionId) throws IOException {
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            throw new IOException("Couldn\'t create " + this.directory);
+        } else {
+            List<File> segments = this.getSegments();
+            File last = segments.isEmpty() ? null : (File) segments.get(segments.size() - 1);
+            if (last != null && last.length() <= MAX_SEGMENT_SIZE) {
+                this.segment = last;
+            } else {
+                long segmentId = sessionId;
+                if (last != null) {
+                    try {
+                        segmentId = Math.max(segmentId, Long.parseLong(last.getName().substring(0, last.getName().length() - 4), 16) + 1L);
+                    } catch (NumberFormatException var8) {
+                        ;
+                    }
+                }
+
+                this.segment = new File(this.directory, String.format("%016x.dat", new Object[]{Long.valueOf(segmentId)}));
+                segments.add(this.segment);
+            }
+
+            for (int i = 0; i < segments.size() - MAX_SEGMENTS; ++i) {
+                File old = (File) segments.get(i);
+                LOGGER.info("Removing old game log archive segment " + old);
+                FileUtils.deleteQuietly(old);
+                FileUtils.deleteQuietly(getIndexFile(old));
+            }
+
+        }
+    }
+
+    private void flush(GameLogArchive.Session session, int extraFlags) throws IOException {
+        if (session.pending.length() != 0 || extraFlags != 0) {
+            if (this.segment == null) {
+                this.rollSegment(session.id);
+            }
+
+            byte[] raw = session.pending.toString().getBytes(Charsets.UTF_8);
+            Deflater deflater = new Deflater(6);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                byte[] buffer = new byte[8192];
+
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } finally {
+                deflater.end();
+            }
+
+            RandomAccessFile data = new RandomAccessFile(this.segment, "rw");
+            long offset;
+
+            try {
+                offset = data.length();
+                data.seek(offset);
+                data.write(session.bloom);
+                data.write(compressed.toByteArray());
+            } finally {
+                data.close();
+            }
+
+            RandomAccessFile index = new RandomAccessFile(getIndexFile(this.segment), "rw");
+
+            try {
+                index.seek(index.length() - index.length() % (long) INDEX_RECORD_SIZE);
+                index.writeLong(session.id);
+                index.writeLong(session.firstTime);
+                index.writeLong(session.lastTime);
+                index.writeLong(offset);
+                index.writeInt(BLOOM_BYTES + compressed.size());
+                index.writeInt(session.pendingLines);
+                index.writeInt(session.pendingFlags | extraFlags);
+                index.writeInt(0);
+            } finally {
+                index.close();
+            }
+
+            session.reset();
+            if (offset + (long) BLOOM_BYTES + (long) compressed.size() > MAX_SEGMENT_SIZE) {
+                this.rollSegment(session.id);
+            }
+
+        }
+    }
+
+    public static class Session {
+
+        private final GameLogArchive archive;
+        private final long id;
+        private final StringBuilder pending = new StringBuilder(BLOCK_SIZE + 256);
+        private final byte[] bloom = new byte[BLOOM_BYTES];
+        private int pendingLines;
+        private int pendingFlags;
+        private long firstTime;
+        private long lastTime;
+        private boolean ended;
+        private volatile boolean closed;
+
+        private Session(GameLogArchive archive, long id) {
+            this.archive = archive;
+            this.id = id;
+        }
+
+        public long getId() {
+            return this.id;
+        }
+
+        public GameLogArchive getArchive() {
+            return this.archive;
+        }
+
+        public void log(String line) {
+            GameLogArchive.enqueue(new GameLogArchive.Entry(this, System.currentTimeMillis(), line));
+        }
+
+        public void close() {
+            if (!this.closed) {
+                this.closed = true;
+                GameLogArchive.Entry entry = new GameLogArchive.Entry(this, System.currentTimeMillis(), (String) null);
+                GameLogArchive.enqueue(entry);
+
+                try {
+                    if (!entry.written.await(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                        GameLogArchive.LOGGER.warn("Timed out waiting for game log archive to be written");
+                    }
+                } catch (InterruptedException var3) {
+                    Thread.currentThread().interrupt();
+                }
+
+            }
+        }
+
+        private void append(long time, String line) {
+            if (this.pendingLines == 0) {
+                this.firstTime = time;
+            } else {
+                this.pending.append('\n');
+            }
+
+            this.lastTime = time;
+            this.pending.append(line);
+            ++this.pendingLines;
+            this.pendingFlags |= GameLogArchive.getFlags(line);
+            GameLogArchive.addTrigrams(this.bloom, line.toLowerCase());
+        }
+
+        private void reset() {
+            this.pending.setLength(0);
+            Arrays.fill(this.bloom, (byte) 0);
+            this.pendingLines = 0;
+            this.pendingFlags = 0;
+        }
+    }
+
+    public static class SessionInfo {
+
+        private final long id;
+        private final long startTime;
+        private long endTime;
+        private int lineCount;
+        private int flags;
+
+        private SessionInfo(long id, long startTime) {
+            this.id = id;
+            this.startTime = startTime;
+            this.endTime = startTime;
+        }
+
+        public long getId() {
+            return this.id;
+        }
+
+        public long getStartTime() {
+            return this.startTime;
+        }
+
+        public long getEndTime() {
+            return this.endTime;
+        }
+
+        public int getLineCount() {
+            return this.lineCount;
+        }
+
+        public boolean hasErrors() {
+            return (this.flags & FLAG_ERROR) != 0;
+        }
+
+        public boolean hasWarnings() {
+            return (this.flags & FLAG_WARNING) != 0;
+        }
+
+        public boolean isComplete() {
+            return (this.flags & FLAG_SESSION_END) != 0;
+        }
+    }
+
+    public static class Match {
+
+        private final long sessionId;
+        private final long time;
+        private final String line;
+
+        private Match(long sessionId, long time, String line) {
+            this.sessionId = sessionId;
+            this.time = time;
+            this.line = line;
+        }
+
+        public long getSessionId() {
+            return this.sessionId;
+        }
+
+        public long getTime() {
+            return this.time;
+        }
+
+        public String getLine() {
+            return this.line;
+        }
+    }
+
+    private static class BlockInfo {
+
+        private long sessionId;
+        private long firstTime;
+        private long lastTime;
+        private long offset;
+        private int length;
+        private int lineCount;
+        private int flags;
+
+        private BlockInfo() {}
+    }
+
+    private static class Entry {
+
+        private final GameLogArchive.Session session;
+        private final long time;
+        private final String line;
+        private final CountDownLatch written = new CountDownLatch(1);
+
+        private Entry(GameLogArchive.Session session, long time, String line) {
+            this.session = session;
+            this.time = time;
+            this.line = line;
+        }
+    }
+}
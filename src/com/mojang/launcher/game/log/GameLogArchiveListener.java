@@ -0,0 +1,6 @@
+package com.mojang.launcher.game.log;
+
+public interface GameLogArchiveListener {
+
+    void onLogSessionStarted(GameLogArchive.Session var1);
+}
@@ -0,0 +1,159 @@
+package com.mojang.launcher.game.log;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+public class GameOutputMatcher {
+
+    private final GameOutputSignature[] signatures;
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] failure;
+    private final int[] outputs;
+    private final int[] nextOutput;
+
+    public GameOutputMatcher(Collection<GameOutputSignature> signatures) {
+        this.signatures = (GameOutputSignature[]) signatures.toArray(new GameOutputSignature[signatures.size()]);
+        List<TreeMap<Character, Integer>> trie = Lists.newArrayList();
+        List<Integer> terminal = Lists.newArrayList();
+        trie.add(new TreeMap());
+        terminal.add(Integer.valueOf(-1));
+
+        for (int i = 0; i < this.signatures.length; ++i) {
+            String text = this.signatures[i].getText();
+            if (text == null || text.length() == 0) {
+                throw new IllegalArgumentException("Signature " + this.signatures[i].getId() + " has no text");
+            }
+
+            int state = 0;
+
+            for (int j = 0; j < text.length(); ++j) {
+                Character c = Character.valueOf(text.charAt(j));
+                Integer next = (Integer) ((TreeMap) trie.get(state)).get(c);
+                if (next == null) {
+                    next = Integer.valueOf(trie.size());
+                    ((TreeMap) trie.get(state)).put(c, next);
+                    trie.add(new TreeMap());
+                    terminal.add(Integer.valueOf(-1));
+                }
+
+                state = next.intValue();
+            }
+
+            if (((Integer) terminal.get(state)).intValue() < 0) {
+                terminal.set(state, Integer.valueOf(i));
+            }
+        }
+
+        int count = trie.size();
+        this.keys = new char[count][];
+        this.targets = new int[count][];
+        this.failure = new int[count];
+        this.outputs = new int[count];
+        this.nextOutput = new int[count];
+
+        for (int state = 0; state < count; ++state) {
+            TreeMap<Character, Integer> edges = (TreeMap) trie.get(state);
+            this.keys[state] = new char[edges.size()];
+            this.targets[state] = new int[edges.size()];
+            int index = 0;
+
+            for (Iterator i$ = edges.keySet().iterator(); i$.hasNext(); ++index) {
+                Character c = (Character) i$.next();
+                this.keys[state][index] = c.charValue();
+                this.targets[state][index] = ((Integer) edges.get(c)).intValue();
+            }
+
+            this.outputs[state] = ((Integer) terminal.get(state)).intValue();
+            this.nextOutput[state] = -1;
+        }
+
+        Queue<Integer> queue = new ArrayDeque();
+
+        for (int i = 0; i < this.targets[0].length; ++i) {
+            queue.add(Integer.valueOf(this.targets[0][i]));
+        }
+
+        while (!queue.isEmpty()) {
+            int state = ((Integer) queue.remove()).intValue();
+
+            for (int i = 0; i < this.keys[state].length; ++i) {
+                char c = this.keys[state][i];
+                int child = this.targets[state][i];
+                int fallback = this.failure[state];
+
+                while (true) {
+                    int next = this.step(fallback, c);
+                    if (next >= 0) {
+                        this.failure[child] = next;
+                        break;
+                    }
+
+                    if (fallback == 0) {
+                        this.failure[child] = 0;
+                        break;
+                    }
+
+                    fallback = this.failure[fallback];
+                }
+
+                int suffix = this.failure[child];
+                this.nextOutput[child] = this.outputs[suffix] >= 0 ? suffix : this.nextOutput[suffix];
+                queue.add(Integer.valueOf(child));
+            }
+        }
+
+    }
+
+    private int step(int state, char c) {
+        int index = Arrays.binarySearch(this.keys[state], c);
+        return index >= 0 ? this.targets[state][index] : -1;
+    }
+
+    public int getSignatureCount() {
+        return this.signatures.length;
+    }
+
+    public GameOutputSignature getSignature(int index) {
+        return this.signatures[index];
+    }
+
+    public int match(String line, boolean[] matched) {
+        int found = 0;
+        int state = 0;
+
+        for (int i = 0; i < line.length(); ++i) {
+            char c = line.charAt(i);
+
+            while (true) {
+                int next = this.step(state, c);
+                if (next >= 0) {
+                    state = next;
+                    break;
+                }
+
+                if (state == 0) {
+                    break;
+                }
+
+                state = this.failure[state];
+            }
+
+            for (int output = this.outputs[state] >= 0 ? state : this.nextOutput[state]; output >= 0; output = this.nextOutput[output]) {
+                int signature = this.outputs[output];
+                if (!matched[signature]) {
+                    matched[signature] = true;
+                    ++found;
+                }
+            }
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,8 @@
+package com.mojang.launcher.game.log;
+
+import com.mojang.launcher.game.process.GameProcess;
+
+public interface GameOutputScanListener {
+
+    void onSignatureMatched(GameProcess var1, GameOutputSignature var2, String var3, long var4);
+}
@@ -0,0 +1,77 @@
+package com.mojang.launcher.game.log;
+
+import com.google.common.collect.Maps;
+import com.mojang.launcher.events.GameOutputLogProcessor;
+import com.mojang.launcher.game.process.GameProcess;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class GameOutputScanner implements GameOutputLogProcessor {
+
+    private final GameOutputMatcher matcher;
+    private final AtomicLongArray counts;
+    private final List<GameOutputScanListener> listeners = new CopyOnWriteArrayList();
+
+    public GameOutputScanner(Collection<GameOutputSignature> signatures) {
+        this.matcher = new GameOutputMatcher(signatures);
+        this.counts = new AtomicLongArray(this.matcher.getSignatureCount());
+    }
+
+    public void addListener(GameOutputScanListener listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(GameOutputScanListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    public void onGameOutput(GameProcess process, String logLine) {
+        boolean[] matched = new boolean[this.matcher.getSignatureCount()];
+        if (this.matcher.match(logLine, matched) != 0) {
+            for (int i = 0; i < matched.length; ++i) {
+                if (matched[i]) {
+                    GameOutputSignature signature = this.matcher.getSignature(i);
+                    long count = this.counts.incrementAndGet(i);
+                    Iterator i$ = this.listeners.iterator();
+
+                    while (i$.hasNext()) {
+                        GameOutputScanListener listener = (GameOutputScanListener) i$.next();
+                        listener.onSignatureMatched(process, signature, logLine, count);
+                    }
+                }
+            }
+
+        }
+    }
+
+    public long getCount(String id) {
+        long total = 0L;
+
+        for (int i = 0; i < this.matcher.getSignatureCount(); ++i) {
+            if (this.matcher.getSignature(i).getId().equals(id)) {
+                total += this.counts.get(i);
+            }
+        }
+
+        return total;
+    }
+
+    public Map<String, Long> getCounts() {
+        Map<String, Long> result = Maps.newLinkedHashMap();
+
+        for (int i = 0; i < this.matcher.getSignatureCount(); ++i) {
+            long count = this.counts.get(i);
+            if (count > 0L) {
+                String id = this.matcher.getSignature(i).getId();
+                Long existing = (Long) result.get(id);
+                result.put(id, Long.valueOf(existing == null ? count : existing.longValue() + count));
+            }
+        }
+
+        return result;
+    }
+}
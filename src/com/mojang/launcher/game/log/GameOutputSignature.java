@@ -0,0 +1,50 @@
+package com.mojang.launcher.game.log;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
+public class GameOutputSignature {
+
+    public static final List<GameOutputSignature> DEFAULT_SIGNATURES = ImmutableList.of(new GameOutputSignature("crash-report", "#@!@#", GameOutputSignature.Severity.ERROR), new GameOutputSignature("out-of-memory", "java.lang.OutOfMemoryError", GameOutputSignature.Severity.ERROR), new GameOutputSignature("uncaught-exception", "Exception in thread \"", GameOutputSignature.Severity.ERROR), new GameOutputSignature("missing-natives", "java.lang.UnsatisfiedLinkError", GameOutputSignature.Severity.ERROR), new GameOutputSignature("pixel-format", "Pixel format not accelerated", GameOutputSignature.Severity.ERROR), new GameOutputSignature("gl-error", "GL ERROR", GameOutputSignature.Severity.WARNING), new GameOutputSignature("gl-error", "OpenGL Error", GameOutputSignature.Severity.WARNING), new GameOutputSignature("mod-loader", "Fatal errors were detected during the transition", GameOutputSignature.Severity.ERROR), new GameOutputSignature("mod-loader", "MissingModsException", GameOutputSignature.Severity.ERROR), new GameOutputSignature("mod-loader", "LoaderException", GameOutputSignature.Severity.ERROR), new GameOutputSignature("tick-lag", "Can\'t keep up!", GameOutputSignature.Severity.WARNING));
+    private String id;
+    private String text;
+    private GameOutputSignature.Severity severity;
+
+    public GameOutputSignature() {
+    }
+
+    public GameOutputSignature(String id, String text, GameOutputSignature.Severity severity) {
+        this.id = id;
+        this.text = text;
+        this.severity = severity;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public GameOutputSignature.Severity getSeverity() {
+        return this.severity == null ? GameOutputSignature.Severity.INFO : this.severity;
+    }
+
+    public String toString() {
+        return "GameOutputSignature{id=\'" + this.id + '\'' + ", text=\'" + this.text + '\'' + ", severity=" + this.severity + '}';
+    }
+
+    public static enum Severity {
+
+        INFO("INFO", 0),
+        WARNING("WARNING", 1),
+        ERROR("ERROR", 2);
+        // $FF: synthetic field
+        private static final GameOutputSignature.Severity[] $VALUES = new GameOutputSignature.Severity[]{INFO, WARNING, ERROR};
+
+        private Severity(String var1, int var2) {
+        }
+
+    }
+}
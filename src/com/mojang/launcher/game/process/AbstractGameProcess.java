@@ -2,12 +2,15 @@ package com.mojang.launcher.game.process;
 
 import com.google.common.base.Predicate;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class AbstractGameProcess implements GameProcess {
 
     protected final List<String> arguments;
     protected final Predicate<String> sysOutFilter;
-    private GameProcessRunnable onExit;
+    private final AtomicBoolean exitReported = new AtomicBoolean();
+    private volatile GameProcessRunnable onExit;
+    private final ProcessTelemetry telemetry = new ProcessTelemetry(this);
 
     public AbstractGameProcess(List<String> arguments, Predicate<String> sysOutFilter) {
         this.arguments = arguments;
@@ -24,12 +27,24 @@ public abstract class AbstractGameProcess implements GameProcess {
 
     public void setExitRunnable(GameProcessRunnable runnable) {
         this.onExit = runnable;
-        if (!this.isRunning() && runnable != null) {
+        if (!this.isRunning()) {
+            this.reportExit();
+        }
+
+    }
+
+    protected void reportExit() {
+        GameProcessRunnable runnable = this.onExit;
+        if (runnable != null && this.exitReported.compareAndSet(false, true)) {
             runnable.onGameProcessEnded(this);
         }
 
     }
 
+    public ProcessTelemetry getTelemetry() {
+        return this.telemetry;
+    }
+
     public GameProcessRunnable getExitRunnable() {
         return this.onExit;
     }
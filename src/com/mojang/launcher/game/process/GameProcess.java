@@ -20,5 +20,9 @@ public interface GameProcess {
 
     int getExitCode();
 
+    long getWallTime();
+
+    ProcessTelemetry getTelemetry();
+
     void stop();
 }
@@ -21,6 +21,8 @@ public class GameProcessBuilder {
         }
     };
     private File directory;
+    private long telemetryInterval;
+    private File telemetryFile;
 
     public GameProcessBuilder(String processPath) {
         if (processPath == null) {
@@ -64,6 +66,20 @@ public class GameProcessBuilder {
         return this;
     }
 
+    public GameProcessBuilder withTelemetry(long interval, File csvFile) {
+        this.telemetryInterval = interval;
+        this.telemetryFile = csvFile;
+        return this;
+    }
+
+    public long getTelemetryInterval() {
+        return this.telemetryInterval;
+    }
+
+    public File getTelemetryFile() {
+        return this.telemetryFile;
+    }
+
     public Predicate<String> getSysOutFilter() {
         return this.sysOutFilter;
     }
@@ -77,6 +93,6 @@ public class GameProcessBuilder {
     }
 
     public String toString() {
-        return Objects.toStringHelper((Object) this).add("processPath", this.processPath).add("arguments", this.arguments).add("sysOutFilter", this.sysOutFilter).add("directory", this.directory).add("logProcessor", this.logProcessor).toString();
+        return Objects.toStringHelper((Object) this).add("processPath", this.processPath).add("arguments", this.arguments).add("sysOutFilter", this.sysOutFilter).add("directory", this.directory).add("logProcessor", this.logProcessor).add("telemetryInterval", this.telemetryInterval).toString();
     }
 }
@@ -0,0 +1,54 @@
+package com.mojang.launcher.game.process;
+
+public class ProcessSample {
+
+    private final long time;
+    private final double cpuPercent;
+    private final long residentBytes;
+    private final int threads;
+    private final long majorFaults;
+    private final long readBytes;
+    private final long writeBytes;
+
+    public ProcessSample(long time, double cpuPercent, long residentBytes, int threads, long majorFaults, long readBytes, long writeBytes) {
+        this.time = time;
+        this.cpuPercent = cpuPercent;
+        this.residentBytes = residentBytes;
+        this.threads = threads;
+        this.majorFaults = majorFaults;
+        this.readBytes = readBytes;
+        this.writeBytes = writeBytes;
+    }
+
+    public long getTime() {
+        return this.time;
+    }
+
+    public double getCpuPercent() {
+        return this.cpuPercent;
+    }
+
+    public long getResidentBytes() {
+        return this.residentBytes;
+    }
+
+    public int getThreads() {
+        return this.threads;
+    }
+
+    public long getMajorFaults() {
+        return this.majorFaults;
+    }
+
+    public long getReadBytes() {
+        return this.readBytes;
+    }
+
+    public long getWriteBytes() {
+        return this.writeBytes;
+    }
+
+    public String toString() {
+        return "ProcessSample{time=" + this.time + ", cpuPercent=" + this.cpuPercent + ", residentBytes=" + this.residentBytes + ", threads=" + this.threads + ", majorFaults=" + this.majorFaults + ", readBytes=" + this.readBytes + ", writeBytes=" + this.writeBytes + '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.mojang.launcher.game.process;
+
+import com.google.common.collect.EvictingQueue;
+import com.google.common.collect.Lists;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ProcessTelemetry {
+
+    private static final int MAX_SAMPLES = 3600;
+    private final GameProcess process;
+    private final EvictingQueue<ProcessSample> samples = EvictingQueue.create(MAX_SAMPLES);
+    private final List<ProcessTelemetryListener> listeners = new CopyOnWriteArrayList();
+    private volatile ProcessSample latestSample;
+
+    public ProcessTelemetry(GameProcess process) {
+        this.process = process;
+    }
+
+    public void addSample(ProcessSample sample) {
+        synchronized (this.samples) {
+            this.samples.add(sample);
+        }
+
+        this.latestSample = sample;
+        Iterator i$ = this.listeners.iterator();
+
+        while (i$.hasNext()) {
+            ProcessTelemetryListener listener = (ProcessTelemetryListener) i$.next();
+            listener.onProcessSample(this.process, sample);
+        }
+
+    }
+
+    public List<ProcessSample> getSamples() {
+        synchronized (this.samples) {
+            return Lists.newArrayList((Iterable) this.samples);
+        }
+    }
+
+    public ProcessSample getLatestSample() {
+        return this.latestSample;
+    }
+
+    public void addListener(ProcessTelemetryListener listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(ProcessTelemetryListener listener) {
+        this.listeners.remove(listener);
+    }
+}
@@ -0,0 +1,6 @@
+package com.mojang.launcher.game.process;
+
+public interface ProcessTelemetryListener {
+
+    void onProcessSample(GameProcess var1, ProcessSample var2);
+}
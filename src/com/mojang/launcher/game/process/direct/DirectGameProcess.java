@@ -5,21 +5,37 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.EvictingQueue;
 import com.mojang.launcher.events.GameOutputLogProcessor;
 import com.mojang.launcher.game.process.AbstractGameProcess;
+import java.io.File;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class DirectGameProcess extends AbstractGameProcess {
 
+    private static final Logger LOGGER = LogManager.getLogger();
     private static final int MAX_SYSOUT_LINES = 5;
     private final Process process;
     protected final DirectProcessInputMonitor monitor;
-    private final Collection<String> sysOutLines = EvictingQueue.create(5);
+    protected final DirectProcessExitMonitor exitMonitor;
+    private final Collection<String> sysOutLines = Collections.synchronizedCollection((Collection) EvictingQueue.create(5));
+    private final long startTime = System.nanoTime();
+    private final long pid;
+    private volatile boolean running = true;
+    private volatile int exitCode;
+    private volatile long wallTime = -1L;
+    private LinuxProcessSampler sampler;
 
     public DirectGameProcess(List<String> commands, Process process, Predicate<String> sysOutFilter, GameOutputLogProcessor logProcessor) {
         super(commands, sysOutFilter);
         this.process = process;
+        this.pid = ProcessIds.getPid(process);
         this.monitor = new DirectProcessInputMonitor(this, logProcessor);
+        this.exitMonitor = new DirectProcessExitMonitor(this);
         this.monitor.start();
+        this.exitMonitor.start();
     }
 
     public Process getRawProcess() {
@@ -31,25 +47,52 @@ public class DirectGameProcess extends AbstractGameProcess {
     }
 
     public boolean isRunning() {
-        try {
-            this.process.exitValue();
-            return false;
-        } catch (IllegalThreadStateException var2) {
-            return true;
-        }
+        return this.running;
     }
 
     public int getExitCode() {
-        try {
-            return this.process.exitValue();
-        } catch (IllegalThreadStateException var2) {
-            var2.fillInStackTrace();
-            throw var2;
+        if (this.running) {
+            throw new IllegalThreadStateException("Game process has not exited");
+        } else {
+            return this.exitCode;
+        }
+    }
+
+    public long getWallTime() {
+        return this.running ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startTime) : this.wallTime;
+    }
+
+    synchronized void startSampling(long interval, File csvFile) {
+        if (this.sampler == null && this.running) {
+            if (!LinuxProcessSampler.isSupported()) {
+                LOGGER.debug("Process telemetry is only available on Linux");
+            } else {
+                if (this.pid < 0L) {
+                    LOGGER.warn("Couldn't determine game process id; not recording telemetry");
+                } else {
+                    this.sampler = new LinuxProcessSampler(this, this.pid, csvFile);
+                    this.sampler.start(interval);
+                }
+            }
         }
     }
 
+    void onProcessExited(int exitCode, long endTime) {
+        this.exitCode = exitCode;
+        this.wallTime = TimeUnit.NANOSECONDS.toMillis(endTime - this.startTime);
+
+        synchronized (this) {
+            this.running = false;
+            if (this.sampler != null) {
+                this.sampler.stop();
+            }
+        }
+
+        this.reportExit();
+    }
+
     public String toString() {
-        return Objects.toStringHelper((Object) this).add("process", this.process).add("monitor", this.monitor).toString();
+        return Objects.toStringHelper((Object) this).add("process", this.process).add("monitor", this.monitor).add("running", this.running).toString();
     }
 
     public void stop() {
@@ -10,6 +10,15 @@ public class DirectGameProcessFactory implements GameProcessFactory {
 
     public GameProcess startGame(GameProcessBuilder builder) throws IOException {
         List full = builder.getFullCommands();
-        return new DirectGameProcess(full, (new ProcessBuilder(full)).directory(builder.getDirectory()).redirectErrorStream(true).start(), builder.getSysOutFilter(), builder.getLogProcessor());
+        return adopt(full, (new ProcessBuilder(full)).directory(builder.getDirectory()).redirectErrorStream(true).start(), builder);
+    }
+
+    static GameProcess adopt(List<String> commands, Process raw, GameProcessBuilder builder) {
+        DirectGameProcess process = new DirectGameProcess(commands, raw, builder.getSysOutFilter(), builder.getLogProcessor());
+        if (builder.getTelemetryInterval() > 0L) {
+            process.startSampling(builder.getTelemetryInterval(), builder.getTelemetryFile());
+        }
+
+        return process;
     }
 }
@@ -0,0 +1,43 @@
+package com.mojang.launcher.game.process.direct;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class DirectProcessExitMonitor extends Thread {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long OUTPUT_DRAIN_TIMEOUT = 2000L;
+    private final DirectGameProcess process;
+
+    public DirectProcessExitMonitor(DirectGameProcess process) {
+        super("Game exit monitor");
+        this.process = process;
+    }
+
+    public void run() {
+        int exitCode;
+        while (true) {
+            try {
+                exitCode = this.process.getRawProcess().waitFor();
+                break;
+            } catch (InterruptedException var5) {
+                LOGGER.warn("Interrupted whilst waiting for game to exit; still waiting");
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        try {
+            this.process.monitor.join(OUTPUT_DRAIN_TIMEOUT);
+        } catch (InterruptedException var4) {
+            ;
+        }
+
+        if (this.process.monitor.isAlive()) {
+            LOGGER.warn("Game exited but its output is still open (held by a child process?); not waiting for it");
+        }
+
+        this.process.onProcessExited(exitCode, endTime);
+    }
+
+}
@@ -1,7 +1,6 @@
 package com.mojang.launcher.game.process.direct;
 
 import com.mojang.launcher.events.GameOutputLogProcessor;
-import com.mojang.launcher.game.process.GameProcessRunnable;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -17,6 +16,7 @@ public class DirectProcessInputMonitor extends Thread {
     private final GameOutputLogProcessor logProcessor;
 
     public DirectProcessInputMonitor(DirectGameProcess process, GameOutputLogProcessor logProcessor) {
+        super("Game output reader");
         this.process = process;
         this.logProcessor = logProcessor;
     }
@@ -24,26 +24,19 @@ public class DirectProcessInputMonitor extends Thread {
     public void run() {
         InputStreamReader reader = new InputStreamReader(this.process.getRawProcess().getInputStream());
         BufferedReader buf = new BufferedReader(reader);
-        String line = null;
-
-        while (this.process.isRunning()) {
-            try {
-                while ((line = buf.readLine()) != null) {
-                    this.logProcessor.onGameOutput(this.process, line);
-                    if (this.process.getSysOutFilter().apply(line) == Boolean.TRUE.booleanValue()) {
-                        this.process.getSysOutLines().add(line);
-                    }
+
+        try {
+            String line;
+            while ((line = buf.readLine()) != null) {
+                this.logProcessor.onGameOutput(this.process, line);
+                if (this.process.getSysOutFilter().apply(line) == Boolean.TRUE.booleanValue()) {
+                    this.process.getSysOutLines().add(line);
                 }
-            } catch (IOException var8) {
-                LOGGER.error((Object) var8);
-            } finally {
-                IOUtils.closeQuietly((Reader) reader);
             }
-        }
-
-        GameProcessRunnable onExit = this.process.getExitRunnable();
-        if (onExit != null) {
-            onExit.onGameProcessEnded(this.process);
+        } catch (IOException var7) {
+            LOGGER.error((Object) var7);
+        } finally {
+            IOUtils.closeQuietly((Reader) reader);
         }
 
     }
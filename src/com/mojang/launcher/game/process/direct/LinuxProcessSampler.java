@@ -0,0 +1,198 @@
+package com.mojang.launcher.game.process.direct;
+
+import com.mojang.launcher.OperatingSystem;
+import com.mojang.launcher.game.process.ProcessSample;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class LinuxProcessSampler implements Runnable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long DEFAULT_TICKS_PER_SECOND = 100L;
+    private static final String CSV_HEADER = "time,cpu_percent,resident_bytes,threads,major_faults,read_bytes,write_bytes\n";
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Game telemetry sampler");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private static long millisPerTick = -1L;
+    private final DirectGameProcess process;
+    private final File procDir;
+    private final File csvFile;
+    private Writer csvWriter;
+    private boolean csvFailed;
+    private long lastCpuTime = -1L;
+    private long lastSampleTime;
+    private ScheduledFuture<?> future;
+
+    public LinuxProcessSampler(DirectGameProcess process, long pid, File csvFile) {
+        this.process = process;
+        this.procDir = new File("/proc/" + pid);
+        this.csvFile = csvFile;
+    }
+
+    public static boolean isSupported() {
+        return OperatingSystem.getCurrentPlatform() == OperatingSystem.LINUX && (new File("/proc/self/stat")).isFile();
+    }
+
+    public synchronized void start(long interval) {
+        if (this.future == null) {
+            this.future = EXECUTOR.scheduleAtFixedRate(this, 0L, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stop() {
+        if (this.future != null) {
+            this.future.cancel(false);
+        }
+
+        EXECUTOR.execute(new Runnable() {
+            public void run() {
+                LinuxProcessSampler.this.closeCsv();
+            }
+        });
+    }
+
+    public void run() {
+        try {
+            ProcessSample sample = this.sample();
+            if (sample != null) {
+                this.process.getTelemetry().addSample(sample);
+                this.writeCsv(sample);
+            }
+        } catch (IOException var2) {
+            if (this.procDir.isDirectory()) {
+                LOGGER.warn("Couldn\'t sample game process; giving up", (Throwable) var2);
+            }
+
+            this.stop();
+        } catch (RuntimeException var3) {
+            LOGGER.warn("Couldn\'t sample game process; giving up", (Throwable) var3);
+            this.stop();
+        }
+
+    }
+
+    private ProcessSample sample() throws IOException {
+        String stat = FileUtils.readFileToString(new File(this.procDir, "stat"));
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        long majorFaults = Long.parseLong(fields[9]);
+        long cpuTime = (Long.parseLong(fields[11]) + Long.parseLong(fields[12])) * getMillisPerTick();
+        long residentBytes = -1L;
+        int threads = -1;
+        String[] status = FileUtils.readFileToString(new File(this.procDir, "status")).split("\n");
+
+        for (int i = 0; i < status.length; ++i) {
+            String line = status[i];
+            if (line.startsWith("VmRSS:")) {
+                residentBytes = Long.parseLong(line.substring(6).trim().split("\\s+")[0]) * 1024L;
+            } else if (line.startsWith("Threads:")) {
+                threads = Integer.parseInt(line.substring(8).trim());
+            }
+        }
+
+        long readBytes = -1L;
+        long writeBytes = -1L;
+
+        try {
+            String[] io = FileUtils.readFileToString(new File(this.procDir, "io")).split("\n");
+
+            for (int i = 0; i < io.length; ++i) {
+                String line = io[i];
+                if (line.startsWith("read_bytes:")) {
+                    readBytes = Long.parseLong(line.substring(11).trim());
+                } else if (line.startsWith("write_bytes:")) {
+                    writeBytes = Long.parseLong(line.substring(12).trim());
+                }
+            }
+        } catch (IOException var20) {
+            ;
+        }
+
+        long now = System.currentTimeMillis();
+        double cpuPercent = 0.0D;
+        if (this.lastCpuTime >= 0L && now > this.lastSampleTime) {
+            cpuPercent = (double) (cpuTime - this.lastCpuTime) * 100.0D / (double) (now - this.lastSampleTime);
+        }
+
+        boolean first = this.lastCpuTime < 0L;
+        this.lastCpuTime = cpuTime;
+        this.lastSampleTime = now;
+        return first ? null : new ProcessSample(now, cpuPercent, residentBytes, threads, majorFaults, readBytes, writeBytes);
+    }
+
+    private static synchronized long getMillisPerTick() {
+        if (millisPerTick < 0L) {
+            long ticksPerSecond = DEFAULT_TICKS_PER_SECOND;
+
+            try {
+                Process process = (new ProcessBuilder(new String[]{"getconf", "CLK_TCK"})).redirectErrorStream(true).start();
+                InputStream inputStream = process.getInputStream();
+
+                try {
+                    long value = Long.parseLong(IOUtils.toString(inputStream).trim());
+                    if (value > 0L) {
+                        ticksPerSecond = value;
+                    }
+                } finally {
+                    IOUtils.closeQuietly(inputStream);
+                    process.waitFor();
+                }
+            } catch (IOException var12) {
+                ;
+            } catch (InterruptedException var13) {
+                Thread.currentThread().interrupt();
+            } catch (NumberFormatException var14) {
+                ;
+            }
+
+            millisPerTick = Math.max(1L, 1000L / ticksPerSecond);
+        }
+
+        return millisPerTick;
+    }
+
+    private void writeCsv(ProcessSample sample) {
+        if (this.csvFile != null && !this.csvFailed) {
+            try {
+                if (this.csvWriter == null) {
+                    File parent = this.csvFile.getParentFile();
+                    if (parent != null) {
+                        parent.mkdirs();
+                    }
+
+                    this.csvWriter = new FileWriter(this.csvFile);
+                    this.csvWriter.write(CSV_HEADER);
+                }
+
+                this.csvWriter.write(sample.getTime() + "," + String.format(Locale.ROOT, "%.1f", new Object[]{Double.valueOf(sample.getCpuPercent())}) + "," + sample.getResidentBytes() + "," + sample.getThreads() + "," + sample.getMajorFaults() + "," + sample.getReadBytes() + "," + sample.getWriteBytes() + "\n");
+                this.csvWriter.flush();
+            } catch (IOException var3) {
+                LOGGER.warn("Couldn\'t write game telemetry to " + this.csvFile + "; no longer recording it", (Throwable) var3);
+                this.csvFailed = true;
+                this.closeCsv();
+            }
+
+        }
+    }
+
+    private void closeCsv() {
+        IOUtils.closeQuietly(this.csvWriter);
+        this.csvWriter = null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.mojang.launcher.game.process.direct;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+public class ProcessIds {
+
+    public static long getPid(Process process) {
+        try {
+            Method method = Process.class.getMethod("pid", new Class[0]);
+            return ((Long) method.invoke(process, new Object[0])).longValue();
+        } catch (Exception var4) {
+            try {
+                Field field = process.getClass().getDeclaredField("pid");
+                field.setAccessible(true);
+                return (long) field.getInt(process);
+            } catch (Exception var3) {
+                return -1L;
+            }
+        }
+    }
+}
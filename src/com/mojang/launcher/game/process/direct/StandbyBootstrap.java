@@ -0,0 +1,121 @@
+package com.mojang.launcher.game.process.direct;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+public final class StandbyBootstrap {
+
+    public static final String READY_MARKER = "#@standby-ready@#";
+    public static final String PROPERTY_PREFIX = "property ";
+    public static final String ARGUMENT_PREFIX = "argument ";
+    public static final String START = "start";
+
+    private StandbyBootstrap() {
+    }
+
+    public static void main(String[] args) throws Throwable {
+        if (args.length != 1) {
+            System.err.println("Usage: StandbyBootstrap <main class>");
+            System.exit(2);
+        }
+
+        long start = System.currentTimeMillis();
+        ClassLoader loader = StandbyBootstrap.class.getClassLoader();
+        int preloaded = preloadClassPath(loader);
+        Method main = Class.forName(args[0], false, loader).getMethod("main", new Class[]{String[].class});
+        System.out.println("Standby JVM preloaded " + preloaded + " classes in " + (System.currentTimeMillis() - start) + " ms");
+        System.out.println(READY_MARKER);
+        System.out.flush();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, "UTF-8"));
+        ArrayList arguments = new ArrayList();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(PROPERTY_PREFIX)) {
+                int separator = line.indexOf(61, PROPERTY_PREFIX.length());
+                if (separator > 0) {
+                    System.setProperty(line.substring(PROPERTY_PREFIX.length(), separator), line.substring(separator + 1));
+                }
+            } else if (line.startsWith(ARGUMENT_PREFIX)) {
+                arguments.add(line.substring(ARGUMENT_PREFIX.length()));
+            } else if (line.equals(START)) {
+                try {
+                    main.invoke((Object) null, new Object[]{arguments.toArray(new String[arguments.size()])});
+                    return;
+                } catch (InvocationTargetException var9) {
+                    throw var9.getCause();
+                }
+            }
+        }
+
+        System.exit(0);
+    }
+
+    private static int preloadClassPath(ClassLoader loader) {
+        String[] entries = System.getProperty("java.class.path", "").split(File.pathSeparator);
+        int count = 0;
+
+        for (int i = 0; i < entries.length; ++i) {
+            File file = new File(entries[i]);
+            if (file.isFile()) {
+                count += preloadJar(file, loader);
+            }
+        }
+
+        return count;
+    }
+
+    private static int preloadJar(File file, ClassLoader loader) {
+        List<String> names = new ArrayList();
+        JarFile jar = null;
+
+        try {
+            jar = new JarFile(file);
+            if (jar.getEntry(StandbyBootstrap.class.getName().replace('.', '/') + ".class") != null) {
+                return 0;
+            }
+
+            Enumeration entries = jar.entries();
+
+            while (entries.hasMoreElements()) {
+                String name = ((JarEntry) entries.nextElement()).getName();
+                if (name.endsWith(".class") && !name.startsWith("META-INF/") && !name.endsWith("module-info.class")) {
+                    names.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                }
+            }
+        } catch (IOException var16) {
+            return 0;
+        } finally {
+            if (jar != null) {
+                try {
+                    jar.close();
+                } catch (IOException var15) {
+                    ;
+                }
+            }
+
+        }
+
+        int count = 0;
+
+        for (int i = 0; i < names.size(); ++i) {
+            try {
+                Class.forName((String) names.get(i), false, loader);
+                ++count;
+            } catch (Throwable var14) {
+                ;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,414 @@
+package com.mojang.launcher.game.process.direct;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.mojang.launcher.game.process.GameProcess;
+import com.mojang.launcher.game.process.GameProcessBuilder;
+import com.mojang.launcher.metrics.Gauge;
+import com.mojang.launcher.metrics.MetricRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class StandbyJvmPool {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String BOOTSTRAP_JAR = "standby-bootstrap.jar";
+    private static final long DEFAULT_HEAP_MEGABYTES = 1024L;
+    private static final Pattern MAX_HEAP = Pattern.compile("-Xmx(\\d+)([kKmMgG]?)");
+    private static final String[] LIBRARY_PATH_PROPERTIES = new String[]{"org.lwjgl.librarypath", "net.java.games.input.librarypath"};
+    private final File directory;
+    private final long memoryCapMegabytes;
+    private final long idleTimeout;
+    private final Map<StandbyJvmPool.Key, StandbyJvmPool.Standby> standbys = new LinkedHashMap(16, 0.75F, true);
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Standby JVM pool");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private File bootstrapJar;
+
+    public StandbyJvmPool(File directory, long memoryCapMegabytes, long idleTimeout) {
+        this.directory = directory;
+        this.memoryCapMegabytes = memoryCapMegabytes;
+        this.idleTimeout = idleTimeout;
+        this.executor.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                StandbyJvmPool.this.discardIdle();
+            }
+        }, 1L, 1L, TimeUnit.MINUTES);
+        MetricRegistry.getDefault().gauge("launcher_standby_jvms", "Java processes kept ready for the next launch", new Gauge() {
+            public double getValue() {
+                StandbyJvmPool var1 = StandbyJvmPool.this;
+                synchronized (StandbyJvmPool.this) {
+                    return (double) StandbyJvmPool.this.standbys.size();
+                }
+            }
+        }, new String[0]);
+        Runtime.getRuntime().addShutdownHook(new Thread("Standby JVM shutdown") {
+            public void run() {
+                StandbyJvmPool.this.shutdown();
+            }
+        });
+    }
+
+    public void prepare(final StandbyJvmPool.Key key) {
+        synchronized (this) {
+            if (this.standbys.get(key) != null) {
+                return;
+            }
+        }
+
+        this.executor.execute(new Runnable() {
+            public void run() {
+                StandbyJvmPool.this.spawn(key);
+            }
+        });
+    }
+
+    public GameProcess launch(StandbyJvmPool.Key key, GameProcessBuilder builder, File nativesDirectory, List<String> gameArguments) {
+        Iterator i$ = gameArguments.iterator();
+
+        while (i$.hasNext()) {
+            String argument = (String) i$.next();
+            if (argument.indexOf(10) >= 0 || argument.indexOf(13) >= 0) {
+                LOGGER.info("Game arguments contain line breaks; not using a standby JVM");
+                return null;
+            }
+        }
+
+        StandbyJvmPool.Standby standby;
+        synchronized (this) {
+            standby = (StandbyJvmPool.Standby) this.standbys.remove(key);
+        }
+
+        if (standby == null) {
+            return null;
+        } else if (standby.isReady() && standby.isAlive()) {
+            Writer writer = new OutputStreamWriter(standby.process.getOutputStream(), Charsets.UTF_8);
+
+            try {
+                String nativesPath = nativesDirectory.getAbsolutePath();
+
+                for (int i = 0; i < LIBRARY_PATH_PROPERTIES.length; ++i) {
+                    writer.write(StandbyBootstrap.PROPERTY_PREFIX + LIBRARY_PATH_PROPERTIES[i] + "=" + nativesPath + "\n");
+                }
+
+                i$ = gameArguments.iterator();
+
+                while (i$.hasNext()) {
+                    writer.write(StandbyBootstrap.ARGUMENT_PREFIX + (String) i$.next() + "\n");
+                }
+
+                writer.write(StandbyBootstrap.START + "\n");
+                writer.close();
+            } catch (IOException var9) {
+                LOGGER.warn("Couldn\'t hand the launch over to the standby JVM for " + key.getVersionId(), (Throwable) var9);
+                standby.destroy();
+                return null;
+            }
+
+            LOGGER.info("Launching " + key.getVersionId() + " in a standby JVM that has been waiting for " + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - standby.readyTime) + " s");
+            return DirectGameProcessFactory.adopt(builder.getFullCommands(), standby.process, builder);
+        } else {
+            LOGGER.info("Standby JVM for " + key.getVersionId() + " isn\'t ready yet; discarding it and starting the game normally");
+            standby.destroy();
+            return null;
+        }
+    }
+
+    public void shutdown() {
+        List<StandbyJvmPool.Standby> discarded;
+        synchronized (this) {
+            discarded = Lists.newArrayList((Iterable) this.standbys.values());
+            this.standbys.clear();
+        }
+
+        this.executor.shutdownNow();
+        Iterator i$ = discarded.iterator();
+
+        while (i$.hasNext()) {
+            ((StandbyJvmPool.Standby) i$.next()).destroy();
+        }
+
+    }
+
+    private void spawn(StandbyJvmPool.Key key) {
+        long required = key.getMemoryMegabytes();
+        if (required > this.memoryCapMegabytes) {
+            LOGGER.info("Not keeping a standby JVM for " + key.getVersionId() + "; it may use " + required + "M of the " + this.memoryCapMegabytes + "M allowed");
+        } else {
+            List<StandbyJvmPool.Standby> evicted = Lists.newArrayList();
+            synchronized (this) {
+                if (this.standbys.containsKey(key)) {
+                    return;
+                }
+
+                long used = required;
+                Iterator i$ = this.standbys.values().iterator();
+
+                while (i$.hasNext()) {
+                    used += ((StandbyJvmPool.Standby) i$.next()).key.getMemoryMegabytes();
+                }
+
+                i$ = this.standbys.values().iterator();
+
+                while (used > this.memoryCapMegabytes && i$.hasNext()) {
+                    StandbyJvmPool.Standby standby = (StandbyJvmPool.Standby) i$.next();
+                    i$.remove();
+                    used -= standby.key.getMemoryMegabytes();
+                    evicted.add(standby);
+                }
+            }
+
+            Iterator i$ = evicted.iterator();
+
+            while (i$.hasNext()) {
+                StandbyJvmPool.Standby standby = (StandbyJvmPool.Standby) i$.next();
+                LOGGER.info("Discarding standby JVM for " + standby.key.getVersionId() + " to stay within " + this.memoryCapMegabytes + "M");
+                standby.destroy();
+            }
+
+            try {
+                List<String> command = key.getCommand(this.getBootstrapJar());
+                Process process = (new ProcessBuilder(command)).directory(key.getDirectory()).redirectErrorStream(true).start();
+                StandbyJvmPool.Standby standby = new StandbyJvmPool.Standby(key, process);
+                synchronized (this) {
+                    this.standbys.put(key, standby);
+                }
+
+                LOGGER.info("Started standby JVM for " + key.getVersionId());
+                standby.start();
+            } catch (IOException var9) {
+                LOGGER.warn("Couldn\'t start standby JVM for " + key.getVersionId(), (Throwable) var9);
+            }
+
+        }
+    }
+
+    private void discardIdle() {
+        List<StandbyJvmPool.Standby> discarded = Lists.newArrayList();
+        long now = System.nanoTime();
+        synchronized (this) {
+            Iterator i$ = this.standbys.values().iterator();
+
+            while (i$.hasNext()) {
+                StandbyJvmPool.Standby standby = (StandbyJvmPool.Standby) i$.next();
+                if (standby.isReady() && TimeUnit.NANOSECONDS.toMillis(now - standby.readyTime) > this.idleTimeout) {
+                    i$.remove();
+                    discarded.add(standby);
+                }
+            }
+        }
+
+        Iterator i$ = discarded.iterator();
+
+        while (i$.hasNext()) {
+            StandbyJvmPool.Standby standby = (StandbyJvmPool.Standby) i$.next();
+            LOGGER.info("Discarding standby JVM for " + standby.key.getVersionId() + " after " + TimeUnit.MILLISECONDS.toMinutes(this.idleTimeout) + " minutes unused");
+            standby.destroy();
+        }
+
+    }
+
+    private synchronized void remove(StandbyJvmPool.Standby standby) {
+        if (this.standbys.get(standby.key) == standby) {
+            this.standbys.remove(standby.key);
+        }
+
+    }
+
+    private synchronized File getBootstrapJar() throws IOException {
+        if (this.bootstrapJar == null) {
+            File file = new File(this.directory, BOOTSTRAP_JAR);
+            this.directory.mkdirs();
+            InputStream input = StandbyBootstrap.class.getResourceAsStream(StandbyBootstrap.class.getSimpleName() + ".class");
+            if (input == null) {
+                throw new IOException("Couldn\'t find standby bootstrap class");
+            }
+
+            JarOutputStream output = null;
+
+            try {
+                output = new JarOutputStream(new FileOutputStream(file));
+                output.putNextEntry(new JarEntry(StandbyBootstrap.class.getName().replace('.', '/') + ".class"));
+                IOUtils.copy(input, output);
+                output.closeEntry();
+            } finally {
+                IOUtils.closeQuietly(input);
+                IOUtils.closeQuietly(output);
+            }
+
+            this.bootstrapJar = file;
+        }
+
+        return this.bootstrapJar;
+    }
+
+    public static class Key {
+
+        private final String versionId;
+        private final String javaPath;
+        private final List<String> jvmArguments;
+        private final String classPath;
+        private final String mainClass;
+        private final File directory;
+
+        public Key(String versionId, String javaPath, List<String> jvmArguments, String classPath, String mainClass, File directory) {
+            this.versionId = versionId;
+            this.javaPath = javaPath;
+            this.jvmArguments = ImmutableList.copyOf((Collection) jvmArguments);
+            this.classPath = classPath;
+            this.mainClass = mainClass;
+            this.directory = directory.getAbsoluteFile();
+        }
+
+        public String getVersionId() {
+            return this.versionId;
+        }
+
+        public File getDirectory() {
+            return this.directory;
+        }
+
+        public long getMemoryMegabytes() {
+            long result = DEFAULT_HEAP_MEGABYTES;
+            Iterator i$ = this.jvmArguments.iterator();
+
+            while (i$.hasNext()) {
+                Matcher matcher = MAX_HEAP.matcher((String) i$.next());
+                if (matcher.matches()) {
+                    long value = Long.parseLong(matcher.group(1));
+                    char unit = matcher.group(2).length() == 0 ? 98 : Character.toLowerCase(matcher.group(2).charAt(0));
+                    result = unit == 103 ? value * 1024L : (unit == 109 ? value : (unit == 107 ? value / 1024L : value / 1048576L));
+                }
+            }
+
+            return result;
+        }
+
+        private List<String> getCommand(File bootstrapJar) {
+            List<String> command = Lists.newArrayList();
+            command.add(this.javaPath);
+            command.addAll(this.jvmArguments);
+            command.add("-cp");
+            command.add(this.classPath + File.pathSeparator + bootstrapJar.getAbsolutePath());
+            command.add(StandbyBootstrap.class.getName());
+            command.add(this.mainClass);
+            return command;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o != null && this.getClass() == o.getClass()) {
+                StandbyJvmPool.Key that = (StandbyJvmPool.Key) o;
+                return this.versionId.equals(that.versionId) && this.javaPath.equals(that.javaPath) && this.jvmArguments.equals(that.jvmArguments) && this.classPath.equals(that.classPath) && this.mainClass.equals(that.mainClass) && this.directory.equals(that.directory);
+            } else {
+                return false;
+            }
+        }
+
+        public int hashCode() {
+            return Objects.hashCode(new Object[]{this.versionId, this.javaPath, this.jvmArguments, this.classPath, this.mainClass, this.directory});
+        }
+    }
+
+    private class Standby implements Runnable {
+
+        private final StandbyJvmPool.Key key;
+        private final Process process;
+        private volatile boolean ready;
+        private volatile long readyTime;
+
+        private Standby(StandbyJvmPool.Key key, Process process) {
+            this.key = key;
+            this.process = process;
+        }
+
+        private void start() {
+            Thread thread = new Thread(this, "Standby JVM reader");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        public void run() {
+            InputStream input = this.process.getInputStream();
+
+            try {
+                String line;
+                while ((line = StandbyJvmPool.readLine(input)) != null) {
+                    if (line.equals(StandbyBootstrap.READY_MARKER)) {
+                        this.readyTime = System.nanoTime();
+                        this.ready = true;
+                        return;
+                    }
+
+                    StandbyJvmPool.LOGGER.debug("Standby JVM for " + this.key.getVersionId() + ": " + line);
+                }
+            } catch (IOException var3) {
+                ;
+            }
+
+            StandbyJvmPool.LOGGER.warn("Standby JVM for " + this.key.getVersionId() + " exited before it was ready");
+            StandbyJvmPool.this.remove(this);
+            this.destroy();
+        }
+
+        private boolean isReady() {
+            return this.ready;
+        }
+
+        private boolean isAlive() {
+            try {
+                this.process.exitValue();
+                return false;
+            } catch (IllegalThreadStateException var2) {
+                return true;
+            }
+        }
+
+        private void destroy() {
+            this.process.destroy();
+        }
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        int read;
+        while ((read = input.read()) >= 0) {
+            if (read == 10) {
+                return new String(line.toByteArray(), Charsets.UTF_8).trim();
+            }
+
+            line.write(read);
+        }
+
+        return line.size() > 0 ? new String(line.toByteArray(), Charsets.UTF_8).trim() : null;
+    }
+}
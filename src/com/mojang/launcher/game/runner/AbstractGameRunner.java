@@ -1,124 +1,280 @@
 package com.mojang.launcher.game.runner;
 
-import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import com.mojang.launcher.Launcher;
 import com.mojang.launcher.game.GameInstanceStatus;
+import com.mojang.launcher.trace.Trace;
 import com.mojang.launcher.updater.DownloadProgress;
 import com.mojang.launcher.updater.VersionSyncInfo;
 import com.mojang.launcher.updater.download.DownloadJob;
+import com.mojang.launcher.updater.download.DownloadJobFailedException;
 import com.mojang.launcher.updater.download.DownloadListener;
 import com.mojang.launcher.updater.download.Downloadable;
 import com.mojang.launcher.versions.CompleteVersion;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public abstract class AbstractGameRunner implements GameRunner, DownloadListener {
 
     protected static final Logger LOGGER = LogManager.getLogger();
+    private static final ExecutorService NOTIFIER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Game runner notifier");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
     protected final Object lock = new Object();
-    private final List<DownloadJob> jobs = new ArrayList();
-    protected CompleteVersion version;
-    private GameInstanceStatus status;
+    private final List<DownloadJob> jobs = new CopyOnWriteArrayList();
+    private final ConcurrentMap<DownloadJob, SettableFuture<DownloadJob>> jobResults = new ConcurrentHashMap();
+    private final AtomicReference<GameInstanceStatus> status;
     private final List<GameRunnerListener> listeners;
+    private final ThreadPoolExecutor eventLoop;
+    private final AtomicBoolean progressUpdatePending = new AtomicBoolean();
+    private final ConcurrentMap<DownloadJob, Trace.Span> jobSpans = new ConcurrentHashMap();
+    private volatile Trace trace;
+    protected volatile CompleteVersion version;
 
     public AbstractGameRunner() {
-        this.status = GameInstanceStatus.IDLE;
-        this.listeners = Lists.newArrayList();
+        this.status = new AtomicReference(GameInstanceStatus.IDLE);
+        this.listeners = new CopyOnWriteArrayList();
+        this.eventLoop = new ThreadPoolExecutor(1, 1, 10L, TimeUnit.SECONDS, new LinkedBlockingQueue(), new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Game runner");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.eventLoop.allowCoreThreadTimeOut(true);
+        this.trace = new Trace(this.getClass().getSimpleName());
+        this.trace.finish();
     }
 
     protected void setStatus(GameInstanceStatus status) {
-        Object var2 = this.lock;
-        synchronized (this.lock) {
-            this.status = status;
-            Iterator i$ = Lists.newArrayList((Iterable) this.listeners).iterator();
+        GameInstanceStatus current;
+        do {
+            current = (GameInstanceStatus) this.status.get();
+            if (current == status) {
+                return;
+            }
 
-            while (i$.hasNext()) {
-                GameRunnerListener listener = (GameRunnerListener) i$.next();
-                listener.onGameInstanceChangedState(this, status);
+            if (!isValidTransition(current, status)) {
+                LOGGER.warn("Ignoring invalid game state change " + current.name() + " -> " + status.name());
+                return;
             }
+        } while (!this.status.compareAndSet(current, status));
+
+        this.fireStatusChanged(status);
+    }
 
+    protected boolean changeStatus(GameInstanceStatus expected, GameInstanceStatus status) {
+        if (isValidTransition(expected, status) && this.status.compareAndSet(expected, status)) {
+            this.fireStatusChanged(status);
+            return true;
+        } else {
+            return false;
         }
     }
 
+    private void fireStatusChanged(final GameInstanceStatus status) {
+        this.trace.instant("status", status.name());
+        if (status == GameInstanceStatus.IDLE) {
+            this.finishTrace();
+        }
+
+        if (!this.listeners.isEmpty()) {
+            NOTIFIER.execute(new Runnable() {
+                public void run() {
+                    Iterator i$ = AbstractGameRunner.this.listeners.iterator();
+
+                    while (i$.hasNext()) {
+                        GameRunnerListener listener = (GameRunnerListener) i$.next();
+
+                        try {
+                            listener.onGameInstanceChangedState(AbstractGameRunner.this, status);
+                        } catch (Throwable var4) {
+                            AbstractGameRunner.LOGGER.error("Couldn't notify " + listener + " of state " + status.name(), var4);
+                        }
+                    }
+
+                }
+            });
+        }
+    }
+
+    private static boolean isValidTransition(GameInstanceStatus from, GameInstanceStatus to) {
+        if (to == GameInstanceStatus.IDLE) {
+            return true;
+        } else if (from == GameInstanceStatus.IDLE) {
+            return to == GameInstanceStatus.PREPARING;
+        } else if (from == GameInstanceStatus.PREPARING) {
+            return to == GameInstanceStatus.DOWNLOADING || to == GameInstanceStatus.LAUNCHING;
+        } else if (from != GameInstanceStatus.DOWNLOADING && from != GameInstanceStatus.INSTALLING) {
+            return from == GameInstanceStatus.LAUNCHING && to == GameInstanceStatus.PLAYING;
+        } else {
+            return to == GameInstanceStatus.INSTALLING || to == GameInstanceStatus.LAUNCHING;
+        }
+    }
+
+    protected Trace getTrace() {
+        return this.trace;
+    }
+
+    protected void beginTrace(String name) {
+        this.finishTrace();
+        this.trace = new Trace(name);
+    }
+
+    protected void finishTrace() {
+        Trace current = this.trace;
+        if (current.finish()) {
+            LOGGER.info("Launch trace " + current.summarise());
+            this.onTraceFinished(current);
+        }
+
+    }
+
+    protected void onTraceFinished(Trace trace) {
+    }
+
+    protected void execute(Runnable task) {
+        this.eventLoop.execute(task);
+    }
+
     protected abstract Launcher getLauncher();
 
     public GameInstanceStatus getStatus() {
-        return this.status;
+        return (GameInstanceStatus) this.status.get();
     }
 
-    public void playGame(VersionSyncInfo syncInfo) {
-        Object var2 = this.lock;
-        synchronized (this.lock) {
-            if (this.getStatus() != GameInstanceStatus.IDLE) {
-                LOGGER.warn("Tried to play game but game is already starting!");
-                return;
-            }
+    public void playGame(final VersionSyncInfo syncInfo) {
+        if (!this.changeStatus(GameInstanceStatus.IDLE, GameInstanceStatus.PREPARING)) {
+            LOGGER.warn("Tried to play game but game is already starting!");
+        } else {
+            this.beginTrace("Launch " + (syncInfo == null || syncInfo.getLatestVersion() == null ? "unknown version" : syncInfo.getLatestVersion().getId()));
+            this.trace.instant("status", GameInstanceStatus.PREPARING.name());
+            this.execute(new Runnable() {
+                public void run() {
+                    try {
+                        AbstractGameRunner.this.prepareVersion(syncInfo);
+                    } catch (Throwable var2) {
+                        AbstractGameRunner.LOGGER.fatal("Fatal error preparing game. Report this to http://bugs.mojang.com please!", var2);
+                        AbstractGameRunner.this.setStatus(GameInstanceStatus.IDLE);
+                    }
 
-            this.setStatus(GameInstanceStatus.PREPARING);
+                }
+            });
         }
+    }
 
+    private void prepareVersion(VersionSyncInfo syncInfo) {
         LOGGER.info("Getting syncinfo for selected version");
-        if (syncInfo == null) {
-            LOGGER.warn("Tried to launch a version without a version being selected...");
-            this.setStatus(GameInstanceStatus.IDLE);
-        } else {
-            var2 = this.lock;
-            synchronized (this.lock) {
-                LOGGER.info("Queueing library & version downloads");
+        if (syncInfo != null && syncInfo.getLatestVersion() != null) {
+            Trace.Span span = this.trace.begin("prepare", "install version").with("version", syncInfo.getLatestVersion().getId());
+            Lock versionLock = this.getPreparationLock("version:" + syncInfo.getLatestVersion().getId());
+            if (versionLock != null) {
+                versionLock.lock();
+            }
 
-                try {
-                    this.version = this.getLauncher().getVersionManager().getLatestCompleteVersion(syncInfo);
-                } catch (IOException var7) {
-                    LOGGER.error("Couldn\'t get complete version info for " + syncInfo.getLatestVersion(), (Throwable) var7);
-                    this.setStatus(GameInstanceStatus.IDLE);
-                    return;
+            try {
+                syncInfo = this.installVersion(syncInfo);
+            } finally {
+                if (versionLock != null) {
+                    versionLock.unlock();
                 }
 
-                if (syncInfo.getRemoteVersion() != null && syncInfo.getLatestSource() != VersionSyncInfo.VersionSource.REMOTE && !this.version.isSynced()) {
-                    try {
-                        syncInfo = this.getLauncher().getVersionManager().syncVersion(syncInfo);
-                        this.version = this.getLauncher().getVersionManager().getLatestCompleteVersion(syncInfo);
-                    } catch (IOException var6) {
-                        LOGGER.error("Couldn\'t sync local and remote versions", (Throwable) var6);
-                    }
+                span.end();
+            }
 
-                    this.version.setSynced(true);
+            if (syncInfo != null && this.changeStatus(GameInstanceStatus.PREPARING, GameInstanceStatus.DOWNLOADING)) {
+                span = this.trace.begin("prepare", "download required files");
+
+                try {
+                    this.downloadRequiredFiles(syncInfo);
+                } finally {
+                    span.end();
                 }
+            }
 
-                if (!this.version.appliesToCurrentEnvironment()) {
-                    String e = this.version.getIncompatibilityReason();
-                    if (e == null) {
-                        e = "This version is incompatible with your computer. Please try another one by going into Edit Profile and selecting one through the dropdown. Sorry!";
-                    }
+        } else {
+            LOGGER.warn("Tried to launch a version without a version being selected...");
+            this.setStatus(GameInstanceStatus.IDLE);
+        }
+    }
 
-                    LOGGER.error("Version " + this.version.getId() + " is incompatible with current environment: " + e);
-                    this.getLauncher().getUserInterface().gameLaunchFailure(e);
-                    this.setStatus(GameInstanceStatus.IDLE);
-                } else if (this.version.getMinimumLauncherVersion() > this.getLauncher().getLauncherFormatVersion()) {
-                    LOGGER.error("An update to your launcher is available and is required to play " + this.version.getId() + ". Please restart your launcher.");
-                    this.setStatus(GameInstanceStatus.IDLE);
-                } else {
-                    if (!syncInfo.isUpToDate()) {
-                        try {
-                            this.getLauncher().getVersionManager().installVersion(this.version);
-                        } catch (IOException var5) {
-                            LOGGER.error("Couldn\'t save version info to install " + syncInfo.getLatestVersion(), (Throwable) var5);
-                            this.setStatus(GameInstanceStatus.IDLE);
-                            return;
-                        }
-                    }
+    private VersionSyncInfo installVersion(VersionSyncInfo syncInfo) {
+        LOGGER.info("Queueing library & version downloads");
 
-                    this.setStatus(GameInstanceStatus.DOWNLOADING);
-                    this.downloadRequiredFiles(syncInfo);
+        try {
+            this.version = this.getLauncher().getVersionManager().getLatestCompleteVersion(syncInfo);
+        } catch (IOException var5) {
+            LOGGER.error("Couldn\'t get complete version info for " + syncInfo.getLatestVersion(), (Throwable) var5);
+            this.setStatus(GameInstanceStatus.IDLE);
+            return null;
+        }
+
+        if (syncInfo.getRemoteVersion() != null && syncInfo.getLatestSource() != VersionSyncInfo.VersionSource.REMOTE && !this.version.isSynced()) {
+            try {
+                syncInfo = this.getLauncher().getVersionManager().syncVersion(syncInfo);
+                this.version = this.getLauncher().getVersionManager().getLatestCompleteVersion(syncInfo);
+            } catch (IOException var4) {
+                LOGGER.error("Couldn\'t sync local and remote versions", (Throwable) var4);
+            }
+
+            this.version.setSynced(true);
+        }
+
+        if (!this.version.appliesToCurrentEnvironment()) {
+            String e = this.version.getIncompatibilityReason();
+            if (e == null) {
+                e = "This version is incompatible with your computer. Please try another one by going into Edit Profile and selecting one through the dropdown. Sorry!";
+            }
+
+            LOGGER.error("Version " + this.version.getId() + " is incompatible with current environment: " + e);
+            this.getLauncher().getUserInterface().gameLaunchFailure(e);
+            this.setStatus(GameInstanceStatus.IDLE);
+            return null;
+        } else if (this.version.getMinimumLauncherVersion() > this.getLauncher().getLauncherFormatVersion()) {
+            LOGGER.error("An update to your launcher is available and is required to play " + this.version.getId() + ". Please restart your launcher.");
+            this.setStatus(GameInstanceStatus.IDLE);
+            return null;
+        } else {
+            if (!syncInfo.isUpToDate()) {
+                try {
+                    this.getLauncher().getVersionManager().installVersion(this.version);
+                } catch (IOException var3) {
+                    LOGGER.error("Couldn\'t save version info to install " + syncInfo.getLatestVersion(), (Throwable) var3);
+                    this.setStatus(GameInstanceStatus.IDLE);
+                    return null;
                 }
             }
+
+            return syncInfo;
         }
     }
 
+    protected Lock getPreparationLock(String key) {
+        return null;
+    }
+
     protected void downloadRequiredFiles(VersionSyncInfo syncInfo) {
         try {
             DownloadJob e = new DownloadJob("Version & Libraries", false, this);
@@ -128,6 +284,7 @@ public abstract class AbstractGameRunner implements GameRunner, DownloadListener
             DownloadJob resourceJob = new DownloadJob("Resources", true, this);
             this.addJob(resourceJob);
             this.getLauncher().getVersionManager().downloadResources(resourceJob, this.version);
+            this.prepareLaunch(e, resourceJob);
             resourceJob.startDownloading(this.getLauncher().getDownloaderExecutorService());
         } catch (IOException var4) {
             LOGGER.error("Couldn\'t get version info for " + syncInfo.getLatestVersion(), (Throwable) var4);
@@ -137,30 +294,39 @@ public abstract class AbstractGameRunner implements GameRunner, DownloadListener
     }
 
     protected void updateProgressBar() {
+        if (this.progressUpdatePending.compareAndSet(false, true)) {
+            NOTIFIER.execute(new Runnable() {
+                public void run() {
+                    AbstractGameRunner.this.progressUpdatePending.set(false);
+                    AbstractGameRunner.this.refreshProgressBar();
+                }
+            });
+        }
+
+    }
+
+    private void refreshProgressBar() {
         if (this.hasRemainingJobs()) {
-            Object var1 = this.lock;
-            synchronized (this.lock) {
-                long total = 0L;
-                long current = 0L;
-                Downloadable longestRunning = null;
-                Iterator i$ = this.jobs.iterator();
-
-                while (i$.hasNext()) {
-                    DownloadJob job = (DownloadJob) i$.next();
-                    Iterator i$1 = job.getAllFiles().iterator();
-
-                    while (i$1.hasNext()) {
-                        Downloadable file = (Downloadable) i$1.next();
-                        total += file.getMonitor().getTotal();
-                        current += file.getMonitor().getCurrent();
-                        if (longestRunning == null || longestRunning.getEndTime() > 0L || file.getStartTime() < longestRunning.getStartTime() && file.getEndTime() == 0L) {
-                            longestRunning = file;
-                        }
+            long total = 0L;
+            long current = 0L;
+            Downloadable longestRunning = null;
+            Iterator i$ = this.jobs.iterator();
+
+            while (i$.hasNext()) {
+                DownloadJob job = (DownloadJob) i$.next();
+                Iterator i$1 = job.getAllFiles().iterator();
+
+                while (i$1.hasNext()) {
+                    Downloadable file = (Downloadable) i$1.next();
+                    total += file.getMonitor().getTotal();
+                    current += file.getMonitor().getCurrent();
+                    if (longestRunning == null || longestRunning.getEndTime() > 0L || file.getStartTime() < longestRunning.getStartTime() && file.getEndTime() == 0L) {
+                        longestRunning = file;
                     }
                 }
-
-                this.getLauncher().getUserInterface().setDownloadProgress(new DownloadProgress(current, total, longestRunning == null ? null : longestRunning.getStatus()));
             }
+
+            this.getLauncher().getUserInterface().setDownloadProgress(new DownloadProgress(current, total, longestRunning == null ? null : longestRunning.getStatus()));
         } else {
             this.getLauncher().getUserInterface().hideDownloadProgress();
         }
@@ -168,50 +334,82 @@ public abstract class AbstractGameRunner implements GameRunner, DownloadListener
     }
 
     public boolean hasRemainingJobs() {
-        Object var1 = this.lock;
-        synchronized (this.lock) {
-            Iterator i$ = this.jobs.iterator();
+        Iterator i$ = this.jobs.iterator();
 
-            DownloadJob job;
-            do {
-                if (!i$.hasNext()) {
-                    return false;
-                }
+        DownloadJob job;
+        do {
+            if (!i$.hasNext()) {
+                return false;
+            }
 
-                job = (DownloadJob) i$.next();
-            } while (job.isComplete());
+            job = (DownloadJob) i$.next();
+        } while (job.isComplete());
 
-            return true;
-        }
+        return true;
     }
 
     public void addJob(DownloadJob job) {
-        Object var2 = this.lock;
-        synchronized (this.lock) {
-            this.jobs.add(job);
-        }
+        this.jobSpans.put(job, this.trace.begin("download", job.getName()));
+        this.jobResults.put(job, SettableFuture.<DownloadJob>create());
+        this.jobs.add(job);
     }
 
-    public void onDownloadJobFinished(DownloadJob job) {
-        this.updateProgressBar();
-        Object var2 = this.lock;
-        synchronized (this.lock) {
-            if (job.getFailures() > 0) {
-                LOGGER.error("Job \'" + job.getName() + "\' finished with " + job.getFailures() + " failure(s)! (took " + job.getStopWatch().toString() + ")");
-                this.setStatus(GameInstanceStatus.IDLE);
-            } else {
-                LOGGER.info("Job \'" + job.getName() + "\' finished successfully (took " + job.getStopWatch().toString() + ")");
-                if (this.getStatus() != GameInstanceStatus.IDLE && !this.hasRemainingJobs()) {
+    protected ListenableFuture<DownloadJob> getJobResult(DownloadJob job) {
+        return (ListenableFuture) this.jobResults.get(job);
+    }
+
+    protected void prepareLaunch(DownloadJob versionJob, DownloadJob resourceJob) {
+        this.launchWhenReady(new ListenableFuture[]{this.getJobResult(versionJob), this.getJobResult(resourceJob)});
+    }
+
+    protected void launchWhenReady(ListenableFuture<?>... inputs) {
+        Futures.addCallback(Futures.allAsList(inputs), new FutureCallback<List<Object>>() {
+            public void onSuccess(List<Object> result) {
+                if (AbstractGameRunner.this.changeStatus(GameInstanceStatus.DOWNLOADING, GameInstanceStatus.LAUNCHING)) {
+                    Trace.Span span = AbstractGameRunner.this.trace.begin("launch", "launch game");
+
                     try {
-                        this.setStatus(GameInstanceStatus.LAUNCHING);
-                        this.launchGame();
-                    } catch (Throwable var5) {
-                        LOGGER.fatal("Fatal error launching game. Report this to http://bugs.mojang.com please!", var5);
+                        AbstractGameRunner.this.launchGame();
+                    } catch (Throwable var7) {
+                        AbstractGameRunner.LOGGER.fatal("Fatal error launching game. Report this to http://bugs.mojang.com please!", var7);
+                        span.end();
+                        AbstractGameRunner.this.setStatus(GameInstanceStatus.IDLE);
+                    } finally {
+                        span.end();
                     }
+
                 }
             }
 
+            public void onFailure(Throwable t) {
+                AbstractGameRunner.LOGGER.error("Aborting launch; " + t);
+                AbstractGameRunner.this.setStatus(GameInstanceStatus.IDLE);
+            }
+        }, this.eventLoop);
+    }
+
+    public void onDownloadJobFinished(DownloadJob job) {
+        this.updateProgressBar();
+        Trace.Span span = (Trace.Span) this.jobSpans.remove(job);
+        if (span != null) {
+            span.with("files", Integer.valueOf(job.getAllFiles().size())).with("failures", Integer.valueOf(job.getFailures())).end();
+        }
+
+        SettableFuture result = (SettableFuture) this.getJobResult(job);
+        if (job.getFailures() > 0) {
+            LOGGER.error("Job \'" + job.getName() + "\' finished with " + job.getFailures() + " failure(s)! (took " + job.getStopWatch().toString() + ")");
+            if (result != null) {
+                result.setException(new DownloadJobFailedException(job));
+            } else {
+                this.setStatus(GameInstanceStatus.IDLE);
+            }
+        } else {
+            LOGGER.info("Job \'" + job.getName() + "\' finished successfully (took " + job.getStopWatch().toString() + ")");
+            if (result != null) {
+                result.set(job);
+            }
         }
+
     }
 
     protected abstract void launchGame() throws IOException;
@@ -221,10 +419,7 @@ public abstract class AbstractGameRunner implements GameRunner, DownloadListener
     }
 
     public void addListener(GameRunnerListener listener) {
-        Object var2 = this.lock;
-        synchronized (this.lock) {
-            this.listeners.add(listener);
-        }
+        this.listeners.add(listener);
     }
 
 }
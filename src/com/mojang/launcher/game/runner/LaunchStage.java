@@ -0,0 +1,97 @@
+package com.mojang.launcher.game.runner;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.mojang.launcher.trace.Trace;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class LaunchStage<T> {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final String name;
+    private final Callable<T> work;
+    private final List<ListenableFuture<?>> inputs;
+    private final SettableFuture<T> result = SettableFuture.create();
+    private Trace trace;
+
+    public LaunchStage(String name, Callable<T> work, ListenableFuture<?>... inputs) {
+        this.name = name;
+        this.work = work;
+        this.inputs = ImmutableList.copyOf(inputs);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public ListenableFuture<T> getResult() {
+        return this.result;
+    }
+
+    public T get() {
+        return Futures.getUnchecked(this.result);
+    }
+
+    public LaunchStage<T> withTrace(Trace trace) {
+        this.trace = trace;
+        return this;
+    }
+
+    public LaunchStage<T> start(final Executor executor) {
+        Futures.addCallback(Futures.allAsList(this.inputs), new FutureCallback<List<Object>>() {
+            public void onSuccess(List<Object> ignored) {
+                try {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            LaunchStage.this.run();
+                        }
+                    });
+                } catch (RejectedExecutionException var3) {
+                    LaunchStage.this.result.setException(var3);
+                }
+
+            }
+
+            public void onFailure(Throwable t) {
+                LaunchStage.this.result.setException(t);
+            }
+        });
+        return this;
+    }
+
+    private void run() {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Trace.Span span = this.trace == null ? null : this.trace.begin("stage", this.name);
+
+        try {
+            T value = this.work.call();
+            LOGGER.debug("Launch stage \'" + this.name + "\' finished in " + stopwatch);
+            if (span != null) {
+                span.end();
+            }
+
+            this.result.set(value);
+        } catch (Throwable var4) {
+            LOGGER.error("Launch stage \'" + this.name + "\' failed after " + stopwatch, var4);
+            if (span != null) {
+                span.with("error", var4).end();
+            }
+
+            this.result.setException(var4);
+        }
+
+    }
+
+    public String toString() {
+        return "LaunchStage{name=\'" + this.name + '\'' + ", done=" + this.result.isDone() + '}';
+    }
+}
@@ -0,0 +1,117 @@
+package com.mojang.launcher.game.runtime;
+
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.FileFilter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class ClassDataSharing {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MIN_DYNAMIC_ARCHIVE_VERSION = 13;
+    private static final int MIN_AUTO_ARCHIVE_VERSION = 19;
+    private static final long MAX_UNUSED_AGE = TimeUnit.DAYS.toMillis(30L);
+    private final File directory;
+
+    public ClassDataSharing(File directory) {
+        this.directory = directory;
+    }
+
+    public ClassDataSharing.Archive prepare(String versionId, JavaRuntime runtime, String classPath, String mainClass) {
+        if (runtime.getFeatureVersion() < MIN_DYNAMIC_ARCHIVE_VERSION) {
+            LOGGER.info("Class data sharing needs Java " + MIN_DYNAMIC_ARCHIVE_VERSION + " or newer; " + runtime.getPath() + " is " + runtime.getVersion());
+            return null;
+        } else {
+            String prefix = versionId.replaceAll("[^\\w.-]", "_") + "_" + DigestUtils.sha1Hex(runtime.getPath() + "\n" + runtime.getVersion() + "\n" + runtime.getVendor()).substring(0, 8) + "_";
+            File file = new File(this.directory, prefix + this.getClassPathFingerprint(classPath, mainClass) + ".jsa");
+            this.deleteStaleArchives(prefix, file);
+            boolean training = !file.isFile();
+            List<String> arguments;
+            if (runtime.getFeatureVersion() >= MIN_AUTO_ARCHIVE_VERSION) {
+                arguments = ImmutableList.of("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + file.getAbsolutePath());
+            } else if (training) {
+                arguments = ImmutableList.of("-XX:ArchiveClassesAtExit=" + file.getAbsolutePath());
+            } else {
+                arguments = ImmutableList.of("-XX:SharedArchiveFile=" + file.getAbsolutePath());
+            }
+
+            if (training) {
+                this.directory.mkdirs();
+            } else {
+                file.setLastModified(System.currentTimeMillis());
+            }
+
+            return new ClassDataSharing.Archive(file, training, arguments);
+        }
+    }
+
+    private String getClassPathFingerprint(String classPath, String mainClass) {
+        StringBuilder builder = new StringBuilder(mainClass);
+        String[] entries = classPath.split(File.pathSeparator);
+
+        for (int i = 0; i < entries.length; ++i) {
+            File entry = new File(entries[i]);
+            builder.append('\n').append(entry.getAbsolutePath()).append('|').append(entry.length()).append('|').append(entry.lastModified());
+        }
+
+        return DigestUtils.sha1Hex(builder.toString()).substring(0, 16);
+    }
+
+    private void deleteStaleArchives(final String prefix, final File current) {
+        final long cutoff = System.currentTimeMillis() - MAX_UNUSED_AGE;
+        File[] stale = this.directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(".jsa") && !file.equals(current) && (file.getName().startsWith(prefix) || file.lastModified() < cutoff);
+            }
+        });
+        if (stale != null) {
+            for (int i = 0; i < stale.length; ++i) {
+                LOGGER.info("Deleting stale class data archive " + stale[i]);
+                FileUtils.deleteQuietly(stale[i]);
+            }
+        }
+
+    }
+
+    public static class Archive {
+
+        private final File file;
+        private final boolean training;
+        private final List<String> arguments;
+
+        public Archive(File file, boolean training, List<String> arguments) {
+            this.file = file;
+            this.training = training;
+            this.arguments = arguments;
+        }
+
+        public File getFile() {
+            return this.file;
+        }
+
+        public boolean isTraining() {
+            return this.training;
+        }
+
+        public List<String> getArguments() {
+            return this.arguments;
+        }
+
+        public void discard() {
+            if (this.file.isFile()) {
+                ClassDataSharing.LOGGER.info("Discarding class data archive " + this.file);
+                FileUtils.deleteQuietly(this.file);
+            }
+
+        }
+
+        public String toString() {
+            return "Archive{file=" + this.file + ", training=" + this.training + '}';
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.mojang.launcher.game.runtime;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+
+public class DefaultJvmArguments {
+
+    private static final int MIN_HEAP = 1024;
+    private static final int MAX_HEAP = 4096;
+    private static final int MAX_HEAP_32BIT = 512;
+    private static final int HEAP_STEP = 512;
+    private final int maxHeap;
+    private final String garbageCollector;
+    private final List<String> arguments;
+
+    private DefaultJvmArguments(int maxHeap, String garbageCollector, List<String> arguments) {
+        this.maxHeap = maxHeap;
+        this.garbageCollector = garbageCollector;
+        this.arguments = Collections.unmodifiableList(arguments);
+    }
+
+    public static DefaultJvmArguments choose(JavaRuntime runtime, HardwareInfo hardware) {
+        boolean is64Bit = runtime == null ? "64".equals(System.getProperty("sun.arch.data.model")) : runtime.is64Bit();
+        int maxHeap;
+        if (!is64Bit) {
+            maxHeap = MAX_HEAP_32BIT;
+        } else {
+            long quarter = hardware.getTotalMemoryMegabytes() / 4L;
+            maxHeap = (int) Math.max((long) MIN_HEAP, Math.min((long) MAX_HEAP, quarter / (long) HEAP_STEP * (long) HEAP_STEP));
+        }
+
+        List<String> arguments = Lists.newArrayList();
+        arguments.add("-Xmx" + maxHeap + "M");
+        String garbageCollector = null;
+        if (runtime != null) {
+            if (hardware.getProcessors() < 2 && runtime.supportsGarbageCollector("Serial")) {
+                garbageCollector = "Serial";
+                arguments.add("-XX:+UseSerialGC");
+            } else if (runtime.supportsGarbageCollector("G1") && runtime.getFeatureVersion() >= 8) {
+                garbageCollector = "G1";
+                arguments.add("-XX:+UseG1GC");
+                arguments.add("-XX:MaxGCPauseMillis=50");
+            } else if (runtime.supportsGarbageCollector("ConcMarkSweep")) {
+                garbageCollector = "ConcMarkSweep";
+                arguments.add("-XX:+UseConcMarkSweepGC");
+                arguments.add("-XX:-UseAdaptiveSizePolicy");
+                arguments.add("-Xmn128M");
+            }
+        }
+
+        return new DefaultJvmArguments(maxHeap, garbageCollector, arguments);
+    }
+
+    public int getMaxHeap() {
+        return this.maxHeap;
+    }
+
+    public String getGarbageCollector() {
+        return this.garbageCollector;
+    }
+
+    public List<String> getArguments() {
+        return this.arguments;
+    }
+
+    public String toCommandLine() {
+        return StringUtils.join((Iterable) this.arguments, " ");
+    }
+
+    public String toString() {
+        return "DefaultJvmArguments{maxHeap=" + this.maxHeap + "M, garbageCollector=" + this.garbageCollector + ", arguments=" + this.arguments + '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.mojang.launcher.game.runtime;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Method;
+import org.apache.commons.io.IOUtils;
+
+public class HardwareInfo {
+
+    private static volatile HardwareInfo current;
+    private final long totalMemory;
+    private final int processors;
+
+    public HardwareInfo(long totalMemory, int processors) {
+        this.totalMemory = totalMemory;
+        this.processors = processors;
+    }
+
+    public static HardwareInfo current() {
+        HardwareInfo result = current;
+        if (result == null) {
+            result = new HardwareInfo(detectTotalMemory(), Runtime.getRuntime().availableProcessors());
+            current = result;
+        }
+
+        return result;
+    }
+
+    public long getTotalMemory() {
+        return this.totalMemory;
+    }
+
+    public long getTotalMemoryMegabytes() {
+        return this.totalMemory / 1048576L;
+    }
+
+    public int getProcessors() {
+        return this.processors;
+    }
+
+    private static long detectTotalMemory() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+
+        try {
+            Method method = Class.forName("com.sun.management.OperatingSystemMXBean").getMethod("getTotalPhysicalMemorySize", new Class[0]);
+            if (method.getDeclaringClass().isInstance(bean)) {
+                return ((Long) method.invoke(bean, new Object[0])).longValue();
+            }
+        } catch (Exception var11) {
+            ;
+        }
+
+        File meminfo = new File("/proc/meminfo");
+        if (meminfo.isFile()) {
+            BufferedReader reader = null;
+
+            try {
+                reader = new BufferedReader(new FileReader(meminfo));
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("MemTotal:")) {
+                        return Long.parseLong(line.substring("MemTotal:".length()).replace("kB", "").trim()) * 1024L;
+                    }
+                }
+            } catch (IOException var9) {
+                ;
+            } catch (NumberFormatException var10) {
+                ;
+            } finally {
+                IOUtils.closeQuietly(reader);
+            }
+        }
+
+        return 0L;
+    }
+
+    public String toString() {
+        return "HardwareInfo{totalMemory=" + this.getTotalMemoryMegabytes() + "M, processors=" + this.processors + '}';
+    }
+}
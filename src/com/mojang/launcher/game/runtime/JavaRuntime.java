@@ -0,0 +1,74 @@
+package com.mojang.launcher.game.runtime;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+
+public class JavaRuntime {
+
+    private final String path;
+    private final String version;
+    private final String vendor;
+    private final int featureVersion;
+    private final int dataModel;
+    private final Set<String> garbageCollectors;
+
+    public JavaRuntime(String path, String version, String vendor, int featureVersion, int dataModel, Set<String> garbageCollectors) {
+        this.path = path;
+        this.version = version;
+        this.vendor = vendor;
+        this.featureVersion = featureVersion;
+        this.dataModel = dataModel;
+        this.garbageCollectors = ImmutableSet.copyOf(garbageCollectors);
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public String getVendor() {
+        return this.vendor;
+    }
+
+    public int getFeatureVersion() {
+        return this.featureVersion;
+    }
+
+    public int getDataModel() {
+        return this.dataModel;
+    }
+
+    public boolean is64Bit() {
+        return this.dataModel == 64;
+    }
+
+    public Set<String> getGarbageCollectors() {
+        return this.garbageCollectors == null ? ImmutableSet.<String>of() : this.garbageCollectors;
+    }
+
+    public boolean supportsGarbageCollector(String name) {
+        return this.getGarbageCollectors().contains(name);
+    }
+
+    public static int parseFeatureVersion(String version) {
+        if (version == null) {
+            return 0;
+        } else {
+            String[] parts = version.split("[._+-]");
+
+            try {
+                int first = Integer.parseInt(parts[0]);
+                return first == 1 && parts.length > 1 ? Integer.parseInt(parts[1]) : first;
+            } catch (NumberFormatException var3) {
+                return 0;
+            }
+        }
+    }
+
+    public String toString() {
+        return "JavaRuntime{path=\'" + this.path + '\'' + ", version=\'" + this.version + '\'' + ", vendor=\'" + this.vendor + '\'' + ", dataModel=" + this.dataModel + ", garbageCollectors=" + this.getGarbageCollectors() + '}';
+    }
+}
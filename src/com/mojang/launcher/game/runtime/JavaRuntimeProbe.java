@@ -0,0 +1,181 @@
+package com.mojang.launcher.game.runtime;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.mojang.launcher.OperatingSystem;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class JavaRuntimeProbe {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Gson GSON = (new GsonBuilder()).setPrettyPrinting().create();
+    private static final long TIMEOUT = 10000L;
+    private static final Pattern PROPERTY = Pattern.compile("^\\s+([\\w.]+) = (.*)$");
+    private static final Pattern VERSION_LINE = Pattern.compile("version \"([^\"]+)\"");
+    private static final Pattern GC_FLAG = Pattern.compile("^\\s*bool\\s+Use(Serial|Parallel|ConcMarkSweep|G1|Z|Shenandoah|Epsilon)GC\\s+:?=.*$");
+    private final File cacheFile;
+    private Map<String, JavaRuntimeProbe.Entry> entries;
+
+    public JavaRuntimeProbe(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public JavaRuntime probe(String javaPath) throws IOException {
+        JavaRuntime cached = this.getCached(javaPath);
+        if (cached != null) {
+            return cached;
+        } else {
+            File executable = (new File(javaPath)).getCanonicalFile();
+            long lastModified = executable.lastModified();
+            JavaRuntime runtime = run(javaPath);
+            synchronized (this) {
+                this.getEntries().put(executable.getPath(), new JavaRuntimeProbe.Entry(lastModified, runtime));
+                this.save();
+            }
+
+            return runtime;
+        }
+    }
+
+    public synchronized JavaRuntime getCached(String javaPath) {
+        try {
+            File executable = (new File(javaPath)).getCanonicalFile();
+            JavaRuntimeProbe.Entry entry = (JavaRuntimeProbe.Entry) this.getEntries().get(executable.getPath());
+            return entry != null && entry.runtime != null && entry.lastModified == executable.lastModified() && executable.isFile() ? entry.runtime : null;
+        } catch (IOException var4) {
+            return null;
+        }
+    }
+
+    private Map<String, JavaRuntimeProbe.Entry> getEntries() {
+        if (this.entries == null) {
+            this.entries = Maps.newHashMap();
+            if (this.cacheFile.isFile()) {
+                try {
+                    Map<String, JavaRuntimeProbe.Entry> loaded = (Map) GSON.fromJson(FileUtils.readFileToString(this.cacheFile, Charsets.UTF_8), (new TypeToken<Map<String, JavaRuntimeProbe.Entry>>() {
+                    }).getType());
+                    if (loaded != null) {
+                        this.entries.putAll(loaded);
+                    }
+                } catch (IOException var2) {
+                    LOGGER.warn("Couldn\'t read Java runtime cache " + this.cacheFile, (Throwable) var2);
+                } catch (JsonParseException var3) {
+                    LOGGER.warn("Couldn\'t parse Java runtime cache " + this.cacheFile + "; probing again", (Throwable) var3);
+                }
+            }
+        }
+
+        return this.entries;
+    }
+
+    private void save() {
+        try {
+            FileUtils.writeStringToFile(this.cacheFile, GSON.toJson((Object) this.entries), Charsets.UTF_8);
+        } catch (IOException var2) {
+            LOGGER.warn("Couldn\'t save Java runtime cache " + this.cacheFile, (Throwable) var2);
+        }
+
+    }
+
+    private static JavaRuntime run(String javaPath) throws IOException {
+        long start = System.currentTimeMillis();
+        final Process process = (new ProcessBuilder(new String[]{getConsoleExecutable(javaPath), "-XshowSettings:properties", "-XX:+PrintFlagsFinal", "-version"})).redirectErrorStream(true).start();
+        Thread watchdog = new Thread("Java runtime probe watchdog") {
+            public void run() {
+                try {
+                    Thread.sleep(JavaRuntimeProbe.TIMEOUT);
+                    process.destroy();
+                } catch (InterruptedException var2) {
+                    ;
+                }
+
+            }
+        };
+        watchdog.setDaemon(true);
+        watchdog.start();
+        Map<String, String> properties = Maps.newHashMap();
+        Set<String> garbageCollectors = Sets.newTreeSet();
+        String version = null;
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charsets.UTF_8));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher flag = GC_FLAG.matcher(line);
+                if (flag.matches()) {
+                    garbageCollectors.add(flag.group(1));
+                } else {
+                    Matcher property = PROPERTY.matcher(line);
+                    if (property.matches()) {
+                        properties.put(property.group(1), property.group(2).trim());
+                    } else if (version == null) {
+                        Matcher versionLine = VERSION_LINE.matcher(line);
+                        if (versionLine.find()) {
+                            version = versionLine.group(1);
+                        }
+                    }
+                }
+            }
+        } finally {
+            watchdog.interrupt();
+            process.getInputStream().close();
+        }
+
+        if (properties.containsKey("java.version")) {
+            version = (String) properties.get("java.version");
+        }
+
+        if (version == null) {
+            throw new IOException("Couldn\'t determine version of Java runtime " + javaPath);
+        } else {
+            String specification = (String) properties.get("java.specification.version");
+            String dataModel = (String) properties.get("sun.arch.data.model");
+            String arch = (String) properties.get("os.arch");
+            int bits = "64".equals(dataModel) || dataModel == null && arch != null && arch.contains("64") ? 64 : 32;
+            JavaRuntime runtime = new JavaRuntime(javaPath, version, (String) properties.get("java.vendor"), JavaRuntime.parseFeatureVersion(specification == null ? version : specification), bits, garbageCollectors);
+            LOGGER.info("Probed " + runtime + " in " + (System.currentTimeMillis() - start) + " ms");
+            return runtime;
+        }
+    }
+
+    private static String getConsoleExecutable(String javaPath) {
+        if (OperatingSystem.getCurrentPlatform() == OperatingSystem.WINDOWS && javaPath.endsWith("javaw.exe")) {
+            File console = new File(javaPath.substring(0, javaPath.length() - "javaw.exe".length()) + "java.exe");
+            if (console.isFile()) {
+                return console.getPath();
+            }
+        }
+
+        return javaPath;
+    }
+
+    private static class Entry {
+
+        private long lastModified;
+        private JavaRuntime runtime;
+
+        public Entry() {
+        }
+
+        public Entry(long lastModified, JavaRuntime runtime) {
+            this.lastModified = lastModified;
+            this.runtime = runtime;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.mojang.launcher.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Counter {
+
+    private final AtomicLong value = new AtomicLong();
+
+    public void increment() {
+        this.value.incrementAndGet();
+    }
+
+    public void add(long amount) {
+        if (amount < 0L) {
+            throw new IllegalArgumentException("Counters can only increase");
+        } else {
+            this.value.addAndGet(amount);
+        }
+    }
+
+    public long get() {
+        return this.value.get();
+    }
+
+    public String toString() {
+        return "Counter{value=" + this.value.get() + '}';
+    }
+}
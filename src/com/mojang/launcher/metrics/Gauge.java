@@ -0,0 +1,6 @@
+package com.mojang.launcher.metrics;
+
+public interface Gauge {
+
+    double getValue();
+}
@@ -0,0 +1,103 @@
+package com.mojang.launcher.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class Histogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private final long[] bounds;
+    private final AtomicLongArray counts;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+
+    public Histogram(long highestTrackableValue) {
+        this.bounds = getBounds(highestTrackableValue);
+        this.counts = new AtomicLongArray(this.bounds.length + 1);
+    }
+
+    private static long[] getBounds(long highestTrackableValue) {
+        long[] bounds = new long[64 * SUB_BUCKETS];
+        int size = 0;
+        long previous = 0L;
+
+        for (int power = 0; previous < highestTrackableValue && power < 62; ++power) {
+            long base = 1L << power;
+
+            for (int i = 0; i < SUB_BUCKETS; ++i) {
+                long bound = base + base * (long) i / SUB_BUCKETS;
+                if (bound > previous) {
+                    bounds[size++] = bound;
+                    previous = bound;
+                }
+            }
+        }
+
+        return Arrays.copyOf(bounds, size);
+    }
+
+    public void record(long value) {
+        long clamped = Math.max(0L, value);
+        int index = Arrays.binarySearch(this.bounds, clamped);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        this.counts.incrementAndGet(index);
+        this.count.incrementAndGet();
+        this.sum.addAndGet(clamped);
+    }
+
+    public void recordSince(long startNanos) {
+        this.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    public long getCount() {
+        return this.count.get();
+    }
+
+    public long getSum() {
+        return this.sum.get();
+    }
+
+    public long getPercentile(double percentile) {
+        long total = this.count.get();
+        if (total == 0L) {
+            return 0L;
+        } else {
+            long wanted = Math.max(1L, (long) Math.ceil((double) total * percentile / 100.0D));
+            long seen = 0L;
+
+            for (int i = 0; i < this.bounds.length; ++i) {
+                seen += this.counts.get(i);
+                if (seen >= wanted) {
+                    return this.bounds[i];
+                }
+            }
+
+            return Long.MAX_VALUE;
+        }
+    }
+
+    long[] getBounds() {
+        return this.bounds;
+    }
+
+    long[] getCumulativeCounts() {
+        long[] result = new long[this.bounds.length + 1];
+        long total = 0L;
+
+        for (int i = 0; i < result.length; ++i) {
+            total += this.counts.get(i);
+            result[i] = total;
+        }
+
+        return result;
+    }
+
+    public String toString() {
+        return "Histogram{count=" + this.getCount() + ", p50=" + this.getPercentile(50.0D) + ", p99=" + this.getPercentile(99.0D) + '}';
+    }
+}
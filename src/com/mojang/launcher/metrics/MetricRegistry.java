@@ -0,0 +1,168 @@
+package com.mojang.launcher.metrics;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+public class MetricRegistry {
+
+    private static final MetricRegistry DEFAULT = new MetricRegistry();
+    private final ConcurrentMap<String, MetricRegistry.Family> families = new ConcurrentSkipListMap();
+
+    public static MetricRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) this.getFamily(name, help, MetricRegistry.Type.COUNTER).get(labels, new Counter());
+    }
+
+    public Histogram histogram(String name, String help, long highestTrackableValue, String... labels) {
+        return (Histogram) this.getFamily(name, help, MetricRegistry.Type.HISTOGRAM).get(labels, new Histogram(highestTrackableValue));
+    }
+
+    public void gauge(String name, String help, Gauge gauge, String... labels) {
+        this.getFamily(name, help, MetricRegistry.Type.GAUGE).metrics.put(formatLabels(labels), gauge);
+    }
+
+    public void monitorExecutor(String name, final ThreadPoolExecutor executor) {
+        this.gauge("launcher_executor_queued_tasks", "Tasks waiting for a thread in each executor", new Gauge() {
+            public double getValue() {
+                return (double) executor.getQueue().size();
+            }
+        }, new String[]{"executor", name});
+        this.gauge("launcher_executor_active_threads", "Threads running a task in each executor", new Gauge() {
+            public double getValue() {
+                return (double) executor.getActiveCount();
+            }
+        }, new String[]{"executor", name});
+        this.gauge("launcher_executor_completed_tasks", "Tasks each executor has finished", new Gauge() {
+            public double getValue() {
+                return (double) executor.getCompletedTaskCount();
+            }
+        }, new String[]{"executor", name});
+    }
+
+    private MetricRegistry.Family getFamily(String name, String help, MetricRegistry.Type type) {
+        MetricRegistry.Family family = (MetricRegistry.Family) this.families.get(name);
+        if (family == null) {
+            MetricRegistry.Family created = new MetricRegistry.Family(help, type);
+            family = (MetricRegistry.Family) this.families.putIfAbsent(name, created);
+            if (family == null) {
+                family = created;
+            }
+        }
+
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type.name().toLowerCase(Locale.ROOT));
+        } else {
+            return family;
+        }
+    }
+
+    public String expose() {
+        StringBuilder result = new StringBuilder();
+        Iterator i$ = this.families.entrySet().iterator();
+
+        while (i$.hasNext()) {
+            Entry<String, MetricRegistry.Family> entry = (Entry) i$.next();
+            String name = (String) entry.getKey();
+            MetricRegistry.Family family = (MetricRegistry.Family) entry.getValue();
+            result.append("# HELP ").append(name).append(' ').append(family.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            result.append("# TYPE ").append(name).append(' ').append(family.type.name().toLowerCase(Locale.ROOT)).append('\n');
+            Iterator i$1 = family.metrics.entrySet().iterator();
+
+            while (i$1.hasNext()) {
+                Entry<String, Object> metric = (Entry) i$1.next();
+                String labels = (String) metric.getKey();
+                Object value = metric.getValue();
+                if (value instanceof Counter) {
+                    appendSample(result, name, labels, (double) ((Counter) value).get());
+                } else if (value instanceof Gauge) {
+                    double sample;
+                    try {
+                        sample = ((Gauge) value).getValue();
+                    } catch (RuntimeException var15) {
+                        sample = Double.NaN;
+                    }
+
+                    appendSample(result, name, labels, sample);
+                } else if (value instanceof Histogram) {
+                    Histogram histogram = (Histogram) value;
+                    long[] bounds = histogram.getBounds();
+                    long[] cumulative = histogram.getCumulativeCounts();
+
+                    for (int i = 0; i < bounds.length; ++i) {
+                        appendSample(result, name + "_bucket", addLabel(labels, "le", Long.toString(bounds[i])), (double) cumulative[i]);
+                    }
+
+                    appendSample(result, name + "_bucket", addLabel(labels, "le", "+Inf"), (double) cumulative[bounds.length]);
+                    appendSample(result, name + "_sum", labels, (double) histogram.getSum());
+                    appendSample(result, name + "_count", labels, (double) cumulative[bounds.length]);
+                }
+            }
+        }
+
+        return result.toString();
+    }
+
+    private static void appendSample(StringBuilder result, String name, String labels, double value) {
+        result.append(name).append(labels).append(' ');
+        if (Double.isNaN(value)) {
+            result.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            result.append(value > 0.0D ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 9.007199254740992E15D) {
+            result.append((long) value);
+        } else {
+            result.append(value);
+        }
+
+        result.append('\n');
+    }
+
+    private static String formatLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as name, value pairs");
+        } else {
+            String result = "";
+
+            for (int i = 0; i < labels.length; i += 2) {
+                result = addLabel(result, labels[i], labels[i + 1]);
+            }
+
+            return result;
+        }
+    }
+
+    private static String addLabel(String labels, String name, String value) {
+        String escaped = String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return labels.length() == 0 ? "{" + name + "=\"" + escaped + "\"}" : labels.substring(0, labels.length() - 1) + "," + name + "=\"" + escaped + "\"}";
+    }
+
+    static enum Type {
+
+        COUNTER, GAUGE, HISTOGRAM;
+    }
+
+    static class Family {
+
+        private final String help;
+        private final MetricRegistry.Type type;
+        private final ConcurrentMap<String, Object> metrics = new ConcurrentSkipListMap();
+
+        private Family(String help, MetricRegistry.Type type) {
+            this.help = help;
+            this.type = type;
+        }
+
+        private Object get(String[] labels, Object created) {
+            String key = MetricRegistry.formatLabels(labels);
+            Object existing = this.metrics.putIfAbsent(key, created);
+            return existing == null ? created : existing;
+        }
+    }
+}
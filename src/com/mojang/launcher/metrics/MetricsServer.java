@@ -0,0 +1,85 @@
+package com.mojang.launcher.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.apache.commons.io.Charsets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class MetricsServer {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final MetricRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public MetricsServer(MetricRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), port), 0);
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Metrics server");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/metrics", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                MetricsServer.this.handle(exchange);
+            }
+        });
+    }
+
+    public void start() {
+        this.server.start();
+        LOGGER.info("Serving metrics on http://127.0.0.1:" + this.getPort() + "/metrics");
+    }
+
+    public void stop() {
+        this.server.stop(0);
+        this.executor.shutdown();
+    }
+
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1L);
+            } else {
+                byte[] body = this.registry.expose().getBytes(Charsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(200, -1L);
+                } else {
+                    exchange.sendResponseHeaders(200, (long) body.length);
+                    OutputStream outputStream = exchange.getResponseBody();
+
+                    try {
+                        outputStream.write(body);
+                    } finally {
+                        outputStream.close();
+                    }
+                }
+            }
+        } catch (RuntimeException var8) {
+            LOGGER.error("Couldn\'t serve metrics", (Throwable) var8);
+            exchange.sendResponseHeaders(500, -1L);
+        } finally {
+            exchange.close();
+        }
+
+    }
+}
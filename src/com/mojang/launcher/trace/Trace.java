@@ -0,0 +1,194 @@
+package com.mojang.launcher.trace;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.GsonBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class Trace {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final String name;
+    private final long startTime = System.nanoTime();
+    private final long startTimestamp = System.currentTimeMillis();
+    private final List<Trace.Event> events = Lists.newArrayList();
+    private final Map<Long, String> threads = Maps.newLinkedHashMap();
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    public Trace(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Trace.Span begin(String category, String name) {
+        return new Trace.Span(category, name);
+    }
+
+    public void instant(String category, String name) {
+        Thread thread = Thread.currentThread();
+        this.record(new Trace.Event(category, name, "i", this.getElapsedMicros(), 0L, thread), thread);
+    }
+
+    public boolean finish() {
+        return this.finished.compareAndSet(false, true);
+    }
+
+    public boolean isFinished() {
+        return this.finished.get();
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startTime);
+    }
+
+    private long getElapsedMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - this.startTime);
+    }
+
+    private void record(Trace.Event event, Thread thread) {
+        List var2 = this.events;
+        synchronized (this.events) {
+            this.events.add(event);
+            if (!this.threads.containsKey(Long.valueOf(event.tid))) {
+                this.threads.put(Long.valueOf(event.tid), thread.getName());
+            }
+
+        }
+    }
+
+    public String summarise() {
+        StringBuilder result = new StringBuilder();
+        List var2 = this.events;
+        synchronized (this.events) {
+            Iterator i$ = this.events.iterator();
+
+            while (i$.hasNext()) {
+                Trace.Event event = (Trace.Event) i$.next();
+                if (result.length() > 0) {
+                    result.append(", ");
+                }
+
+                result.append(event.name).append(" @").append(event.ts / 1000L).append(" ms");
+                if (event.ph.equals("X")) {
+                    result.append(" for ").append(event.dur / 1000L).append(" ms");
+                }
+            }
+        }
+
+        return this.name + " (" + this.getElapsedMillis() + " ms): " + result;
+    }
+
+    public void writeChromeTrace(File file) throws IOException {
+        Map<String, Object> trace = new LinkedHashMap();
+        List<Object> traceEvents = Lists.newArrayList();
+        List var4 = this.events;
+        synchronized (this.events) {
+            Iterator i$ = this.threads.entrySet().iterator();
+
+            while (i$.hasNext()) {
+                Entry<Long, String> thread = (Entry) i$.next();
+                Map<String, Object> metadata = new LinkedHashMap();
+                metadata.put("name", "thread_name");
+                metadata.put("ph", "M");
+                metadata.put("pid", Integer.valueOf(1));
+                metadata.put("tid", thread.getKey());
+                metadata.put("args", Collections.singletonMap("name", thread.getValue()));
+                traceEvents.add(metadata);
+            }
+
+            traceEvents.addAll(this.events);
+        }
+
+        Map<String, Object> otherData = new LinkedHashMap();
+        otherData.put("name", this.name);
+        otherData.put("startTimestamp", Long.valueOf(this.startTimestamp));
+        otherData.put("os.name", System.getProperty("os.name"));
+        otherData.put("os.arch", System.getProperty("os.arch"));
+        otherData.put("java.version", System.getProperty("java.version"));
+        trace.put("traceEvents", traceEvents);
+        trace.put("displayTimeUnit", "ms");
+        trace.put("otherData", otherData);
+        FileUtils.writeStringToFile(file, (new GsonBuilder()).disableHtmlEscaping().create().toJson((Object) trace), Charsets.UTF_8);
+    }
+
+    public String toString() {
+        return "Trace{name=\'" + this.name + '\'' + ", elapsed=" + this.getElapsedMillis() + " ms}";
+    }
+
+    static class Event {
+
+        private final String cat;
+        private final String name;
+        private final String ph;
+        private final long ts;
+        private final Long dur;
+        private final int pid = 1;
+        private final long tid;
+        private final String s;
+        private final Map<String, String> args;
+
+        private Event(String cat, String name, String ph, long ts, long dur, Thread thread) {
+            this(cat, name, ph, ts, dur, thread, (Map) null);
+        }
+
+        private Event(String cat, String name, String ph, long ts, long dur, Thread thread, Map<String, String> args) {
+            this.cat = cat;
+            this.name = name;
+            this.ph = ph;
+            this.ts = ts;
+            this.dur = ph.equals("X") ? Long.valueOf(dur) : null;
+            this.tid = thread.getId();
+            this.s = ph.equals("i") ? "p" : null;
+            this.args = args;
+        }
+    }
+
+    public class Span {
+
+        private final String category;
+        private final String name;
+        private final long start;
+        private final Thread thread = Thread.currentThread();
+        private final AtomicBoolean ended = new AtomicBoolean();
+        private Map<String, String> args;
+
+        private Span(String category, String name) {
+            this.category = category;
+            this.name = name;
+            this.start = Trace.this.getElapsedMicros();
+        }
+
+        public Trace.Span with(String key, Object value) {
+            if (this.args == null) {
+                this.args = new LinkedHashMap();
+            }
+
+            this.args.put(key, String.valueOf(value));
+            return this;
+        }
+
+        public void end() {
+            if (this.ended.compareAndSet(false, true)) {
+                long duration = Trace.this.getElapsedMicros() - this.start;
+                Trace.this.record(new Trace.Event(this.category, this.name, "X", this.start, duration, this.thread, this.args), this.thread);
+                Trace.LOGGER.debug("Span \'" + this.name + "\' of " + Trace.this.name + " took " + duration / 1000L + " ms");
+            }
+        }
+    }
+}
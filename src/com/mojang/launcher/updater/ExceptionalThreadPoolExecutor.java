@@ -1,5 +1,7 @@
 package com.mojang.launcher.updater;
 
+import com.mojang.launcher.metrics.Counter;
+import com.mojang.launcher.metrics.MetricRegistry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
@@ -15,6 +17,7 @@ import org.apache.logging.log4j.Logger;
 public class ExceptionalThreadPoolExecutor extends ThreadPoolExecutor {
 
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final Counter UNHANDLED_EXCEPTIONS = MetricRegistry.getDefault().counter("launcher_executor_unhandled_exceptions_total", "Tasks that ended with an exception nobody handled", new String[0]);
 
     public ExceptionalThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit) {
         super(corePoolSize, maximumPoolSize, keepAliveTime, unit, new LinkedBlockingQueue());
@@ -61,6 +64,7 @@ public class ExceptionalThreadPoolExecutor extends ThreadPoolExecutor {
             try {
                 this.get();
             } catch (Throwable var2) {
+                ExceptionalThreadPoolExecutor.UNHANDLED_EXCEPTIONS.increment();
                 ExceptionalThreadPoolExecutor.LOGGER.error("Unhandled exception in executor " + this, var2);
             }
 
@@ -1,13 +1,25 @@
 package com.mojang.launcher.updater.download;
 
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.mojang.launcher.metrics.Counter;
+import com.mojang.launcher.metrics.Histogram;
+import com.mojang.launcher.metrics.MetricRegistry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.logging.log4j.LogManager;
@@ -18,6 +30,13 @@ public class DownloadJob {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int MAX_ATTEMPTS_PER_FILE = 5;
     private static final int ASSUMED_AVERAGE_FILE_SIZE = 5242880;
+    private static final Counter DOWNLOADED_FILES = MetricRegistry.getDefault().counter("launcher_download_files_total", "Files finished by download jobs, by whether they were fetched or already present", new String[]{"result", "downloaded"});
+    private static final Counter CACHED_FILES = MetricRegistry.getDefault().counter("launcher_download_files_total", "Files finished by download jobs, by whether they were fetched or already present", new String[]{"result", "cached"});
+    private static final Counter FAILED_FILES = MetricRegistry.getDefault().counter("launcher_download_files_total", "Files finished by download jobs, by whether they were fetched or already present", new String[]{"result", "failed"});
+    private static final Counter RETRIES = MetricRegistry.getDefault().counter("launcher_download_retries_total", "Download attempts that failed and were queued again", new String[0]);
+    private static final Histogram FILE_DURATION = MetricRegistry.getDefault().histogram("launcher_download_file_duration_milliseconds", "Time taken by each successful download attempt", 600000L, new String[0]);
+    private static final Histogram JOB_DURATION = MetricRegistry.getDefault().histogram("launcher_download_job_duration_milliseconds", "Time from starting a download job until it finished", 3600000L, new String[0]);
+    private final Queue<Downloadable> priorityQueue;
     private final Queue<Downloadable> remainingFiles;
     private final List<Downloadable> allFiles;
     private final List<Downloadable> failures;
@@ -27,15 +46,29 @@ public class DownloadJob {
     private final boolean ignoreFailures;
     private final AtomicInteger remainingThreads;
     private final StopWatch stopWatch;
-    private boolean started;
+    private final Set<Downloadable> priorityFiles;
+    private final SettableFuture<DownloadJob> priorityResult;
+    private final AtomicBoolean finished;
+    private volatile Predicate<Downloadable> priorityPredicate;
+    private volatile int maximumThreads;
+    private volatile boolean streaming;
+    private volatile Throwable streamingError;
+    private ThreadPoolExecutor executorService;
+    private int threads;
+    private volatile boolean started;
 
     public DownloadJob(String name, boolean ignoreFailures, DownloadListener listener, Collection<Downloadable> files) {
+        this.priorityQueue = new ConcurrentLinkedQueue();
         this.remainingFiles = new ConcurrentLinkedQueue();
-        this.allFiles = Collections.synchronizedList(new ArrayList());
+        this.allFiles = new CopyOnWriteArrayList();
         this.failures = Collections.synchronizedList(new ArrayList());
         this.successful = Collections.synchronizedList(new ArrayList());
         this.remainingThreads = new AtomicInteger();
         this.stopWatch = new StopWatch();
+        this.priorityFiles = Collections.synchronizedSet(Sets.<Downloadable>newIdentityHashSet());
+        this.priorityResult = SettableFuture.create();
+        this.finished = new AtomicBoolean();
+        this.maximumThreads = Integer.MAX_VALUE;
         this.name = name;
         this.ignoreFailures = ignoreFailures;
         this.listener = listener;
@@ -50,12 +83,9 @@ public class DownloadJob {
     }
 
     public void addDownloadables(Collection<Downloadable> downloadables) {
-        if (this.started) {
+        if (this.started && !this.streaming) {
             throw new IllegalStateException("Cannot add to download job that has already started");
         } else {
-            this.allFiles.addAll(downloadables);
-            this.remainingFiles.addAll(downloadables);
-
             Downloadable downloadable;
             for (Iterator i$ = downloadables.iterator(); i$.hasNext(); downloadable.getMonitor().setJob(this)) {
                 downloadable = (Downloadable) i$.next();
@@ -66,53 +96,86 @@ public class DownloadJob {
                 }
             }
 
+            this.allFiles.addAll(downloadables);
+            Iterator i$ = downloadables.iterator();
+
+            while (i$.hasNext()) {
+                this.enqueue((Downloadable) i$.next());
+            }
+
+            if (this.started) {
+                this.spawnWorkers();
+            }
+
         }
     }
 
     public void addDownloadables(Downloadable... downloadables) {
+        this.addDownloadables((Collection) Arrays.asList(downloadables));
+    }
+
+    public void beginStreaming() {
         if (this.started) {
-            throw new IllegalStateException("Cannot add to download job that has already started");
+            throw new IllegalStateException("Cannot stream into download job that has already started");
         } else {
-            Downloadable[] arr$ = downloadables;
-            int len$ = downloadables.length;
+            this.streaming = true;
+        }
+    }
 
-            for (int i$ = 0; i$ < len$; ++i$) {
-                Downloadable downloadable = arr$[i$];
-                this.allFiles.add(downloadable);
-                this.remainingFiles.add(downloadable);
-                if (downloadable.getExpectedSize() == 0L) {
-                    downloadable.getMonitor().setTotal(5242880L);
-                } else {
-                    downloadable.getMonitor().setTotal(downloadable.getExpectedSize());
-                }
+    public void finishStreaming() {
+        this.streaming = false;
+        this.checkPriorityFinished();
+        this.checkFinished();
+    }
 
-                downloadable.getMonitor().setJob(this);
+    public boolean isStreaming() {
+        return this.streaming;
+    }
+
+    public void setStreamingError(Throwable streamingError) {
+        this.streamingError = streamingError;
+    }
+
+    public Throwable getStreamingError() {
+        return this.streamingError;
+    }
+
+    public ListenableFuture<DownloadJob> prioritise(Predicate<Downloadable> predicate) {
+        if (this.started) {
+            throw new IllegalStateException("Cannot reorder download job that has already started");
+        } else {
+            this.priorityPredicate = predicate;
+            List<Downloadable> queued = Lists.newArrayList((Iterable) this.remainingFiles);
+            this.remainingFiles.clear();
+            Iterator i$ = queued.iterator();
+
+            while (i$.hasNext()) {
+                this.enqueue((Downloadable) i$.next());
             }
 
+            this.checkPriorityFinished();
+            return this.priorityResult;
         }
     }
 
+    public void setMaximumThreads(int maximumThreads) {
+        this.maximumThreads = Math.max(1, maximumThreads);
+    }
+
     public void startDownloading(ThreadPoolExecutor executorService) {
         if (this.started) {
             throw new IllegalStateException("Cannot start download job that has already started");
         } else {
+            this.executorService = executorService;
+            this.threads = executorService.getMaximumPoolSize();
             this.started = true;
             this.stopWatch.start();
-            if (this.allFiles.isEmpty()) {
+            if (this.allFiles.isEmpty() && !this.streaming) {
                 LOGGER.info("Download job \'" + this.name + "\' skipped as there are no files to download");
-                this.listener.onDownloadJobFinished(this);
+                this.checkFinished();
             } else {
-                int threads = executorService.getMaximumPoolSize();
-                this.remainingThreads.set(threads);
-                LOGGER.info("Download job \'" + this.name + "\' started (" + threads + " threads, " + this.allFiles.size() + " files)");
-
-                for (int i = 0; i < threads; ++i) {
-                    executorService.submit(new Runnable() {
-                        public void run() {
-                            DownloadJob.this.popAndDownload();
-                        }
-                    });
-                }
+                LOGGER.info("Download job \'" + this.name + "\' started (" + Math.min(this.threads, this.maximumThreads) + " threads, " + this.allFiles.size() + " files" + (this.streaming ? " so far" : "") + ")");
+                this.spawnWorkers();
             }
 
         }
@@ -120,7 +183,16 @@ public class DownloadJob {
 
     private void popAndDownload() {
         Downloadable downloadable;
-        while ((downloadable = (Downloadable) this.remainingFiles.poll()) != null) {
+        while (true) {
+            int running = this.remainingThreads.get();
+            if (running > this.maximumThreads && this.remainingThreads.compareAndSet(running, running - 1)) {
+                return;
+            }
+
+            if ((downloadable = this.poll()) == null) {
+                break;
+            }
+
             if (downloadable.getStartTime() == 0L) {
                 downloadable.setStartTime(System.currentTimeMillis());
             }
@@ -130,29 +202,110 @@ public class DownloadJob {
                     this.failures.add(downloadable);
                 }
 
+                FAILED_FILES.increment();
+
                 LOGGER.error("Gave up trying to download " + downloadable.getUrl() + " for job \'" + this.name + "\'");
+                this.onFileFinished(downloadable);
             } else {
                 try {
                     LOGGER.info("Attempting to download " + downloadable.getTarget() + " for job \'" + this.name + "\'... (try " + downloadable.getNumAttempts() + ")");
-                    String t = downloadable.download();
+                    long started = System.nanoTime();
+                    String t = InFlightDownloads.download(downloadable);
+                    FILE_DURATION.recordSince(started);
+                    if (downloadable.getMonitor().getCurrent() == 0L) {
+                        CACHED_FILES.increment();
+                    } else {
+                        DOWNLOADED_FILES.increment();
+                    }
+
                     this.successful.add(downloadable);
                     downloadable.setEndTime(System.currentTimeMillis());
                     downloadable.getMonitor().setCurrent(downloadable.getMonitor().getTotal());
                     LOGGER.info("Finished downloading " + downloadable.getTarget() + " for job \'" + this.name + "\'" + ": " + t);
+                    this.onFileFinished(downloadable);
                 } catch (Throwable var3) {
                     LOGGER.warn("Couldn\'t download " + downloadable.getUrl() + " for job \'" + this.name + "\'", var3);
                     downloadable.getMonitor().setCurrent(downloadable.getMonitor().getTotal());
-                    this.remainingFiles.add(downloadable);
+                    RETRIES.increment();
+                    if (this.priorityFiles.contains(downloadable)) {
+                        this.priorityQueue.add(downloadable);
+                    } else {
+                        this.remainingFiles.add(downloadable);
+                    }
                 }
             }
         }
 
-        if (this.remainingThreads.decrementAndGet() <= 0) {
+        this.remainingThreads.decrementAndGet();
+        if (this.hasQueuedFiles()) {
+            this.spawnWorkers();
+        } else {
+            this.checkFinished();
+        }
+
+    }
+
+    private void enqueue(Downloadable downloadable) {
+        Predicate<Downloadable> predicate = this.priorityPredicate;
+        if (predicate != null && predicate.apply(downloadable)) {
+            this.priorityFiles.add(downloadable);
+            this.priorityQueue.add(downloadable);
+        } else {
+            this.remainingFiles.add(downloadable);
+        }
+
+    }
+
+    private Downloadable poll() {
+        Downloadable downloadable = (Downloadable) this.priorityQueue.poll();
+        return downloadable == null ? (Downloadable) this.remainingFiles.poll() : downloadable;
+    }
+
+    private boolean hasQueuedFiles() {
+        return !this.priorityQueue.isEmpty() || !this.remainingFiles.isEmpty();
+    }
+
+    private void spawnWorkers() {
+        while (this.hasQueuedFiles()) {
+            int running = this.remainingThreads.get();
+            if (running >= Math.min(this.threads, this.maximumThreads)) {
+                break;
+            }
+
+            if (this.remainingThreads.compareAndSet(running, running + 1)) {
+                this.executorService.submit(new Runnable() {
+                    public void run() {
+                        DownloadJob.this.popAndDownload();
+                    }
+                });
+            }
+        }
+
+    }
+
+    private void checkFinished() {
+        if (this.started && !this.streaming && this.remainingThreads.get() <= 0 && !this.hasQueuedFiles() && this.finished.compareAndSet(false, true)) {
+            this.priorityResult.set(this);
+            JOB_DURATION.record(this.stopWatch.getTime());
             this.listener.onDownloadJobFinished(this);
         }
 
     }
 
+    private void checkPriorityFinished() {
+        if (!this.streaming && this.priorityFiles.isEmpty() && this.priorityResult.set(this) && this.priorityPredicate != null) {
+            LOGGER.info("Priority files for job \'" + this.name + "\' finished (took " + this.stopWatch.toString() + ")");
+        }
+
+    }
+
+    private void onFileFinished(Downloadable downloadable) {
+        if (this.priorityFiles.remove(downloadable)) {
+            this.checkPriorityFinished();
+        }
+
+    }
+
     public boolean shouldIgnoreFailures() {
         return this.ignoreFailures;
     }
@@ -162,13 +315,17 @@ public class DownloadJob {
     }
 
     public boolean isComplete() {
-        return this.started && this.remainingFiles.isEmpty() && this.remainingThreads.get() == 0;
+        return this.finished.get();
     }
 
     public int getFailures() {
         return this.failures.size();
     }
 
+    public List<Downloadable> getFailedFiles() {
+        return new ArrayList(this.failures);
+    }
+
     public int getSuccessful() {
         return this.successful.size();
     }
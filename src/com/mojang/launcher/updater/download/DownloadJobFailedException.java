@@ -0,0 +1,17 @@
+package com.mojang.launcher.updater.download;
+
+import java.io.IOException;
+
+public class DownloadJobFailedException extends IOException {
+
+    private final DownloadJob job;
+
+    public DownloadJobFailedException(DownloadJob job) {
+        super("Job \'" + job.getName() + "\' finished with " + job.getFailures() + " failure(s)");
+        this.job = job;
+    }
+
+    public DownloadJob getJob() {
+        return this.job;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mojang.launcher.updater.download;
+
+import com.google.common.util.concurrent.SettableFuture;
+import com.mojang.launcher.metrics.Counter;
+import com.mojang.launcher.metrics.Gauge;
+import com.mojang.launcher.metrics.MetricRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public final class InFlightDownloads {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ConcurrentMap<File, SettableFuture<String>> DOWNLOADS = new ConcurrentHashMap();
+    private static final Counter SHARED = MetricRegistry.getDefault().counter("launcher_download_shared_total", "Downloads that waited for another job fetching the same file", new String[0]);
+
+    private InFlightDownloads() {
+    }
+
+    public static String download(Downloadable downloadable) throws IOException {
+        File key = downloadable.getTarget().getAbsoluteFile();
+        SettableFuture<String> own = SettableFuture.<String>create();
+        SettableFuture<String> existing = (SettableFuture) DOWNLOADS.putIfAbsent(key, own);
+        if (existing != null) {
+            LOGGER.debug("Waiting for another job to finish downloading " + key);
+            SHARED.increment();
+
+            try {
+                return "Shared with another job (" + (String) existing.get() + ")";
+            } catch (InterruptedException var9) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted whilst waiting for " + key, var9);
+            } catch (ExecutionException var10) {
+                throw new IOException("Another job couldn\'t download " + key, var10.getCause());
+            }
+        } else {
+            try {
+                String result = downloadable.download();
+                own.set(result);
+                return result;
+            } catch (IOException var11) {
+                own.setException(var11);
+                throw var11;
+            } catch (RuntimeException var12) {
+                own.setException(var12);
+                throw var12;
+            } catch (Error var13) {
+                own.setException(var13);
+                throw var13;
+            } finally {
+                DOWNLOADS.remove(key, own);
+            }
+        }
+    }
+
+    static {
+        MetricRegistry.getDefault().gauge("launcher_download_in_flight_files", "Files currently being downloaded", new Gauge() {
+            public double getValue() {
+                return (double) InFlightDownloads.DOWNLOADS.size();
+            }
+        }, new String[0]);
+    }
+}
@@ -1,11 +1,14 @@
 package com.mojang.launcher.updater.download;
 
+import com.mojang.launcher.metrics.Counter;
+import com.mojang.launcher.metrics.MetricRegistry;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
 public class MonitoringInputStream extends FilterInputStream {
 
+    private static final Counter RECEIVED_BYTES = MetricRegistry.getDefault().counter("launcher_download_received_bytes_total", "Bytes read from the network by downloads", new String[0]);
     private final ProgressContainer monitor;
 
     public MonitoringInputStream(InputStream in, ProgressContainer monitor) {
@@ -16,6 +19,7 @@ public class MonitoringInputStream extends FilterInputStream {
     public int read() throws IOException {
         int result = this.in.read();
         if (result >= 0) {
+            RECEIVED_BYTES.increment();
             this.monitor.addProgress(1L);
         }
 
@@ -25,6 +29,7 @@ public class MonitoringInputStream extends FilterInputStream {
     public int read(byte[] buffer) throws IOException {
         int size = this.in.read(buffer);
         if (size >= 0) {
+            RECEIVED_BYTES.add((long) size);
             this.monitor.addProgress((long) size);
         }
 
@@ -34,6 +39,7 @@ public class MonitoringInputStream extends FilterInputStream {
     public int read(byte[] buffer, int off, int len) throws IOException {
         int size = this.in.read(buffer, off, len);
         if (size > 0) {
+            RECEIVED_BYTES.add((long) size);
             this.monitor.addProgress((long) size);
         }
 
@@ -43,6 +49,7 @@ public class MonitoringInputStream extends FilterInputStream {
     public long skip(long size) throws IOException {
         long skipped = super.skip(size);
         if (skipped > 0L) {
+            RECEIVED_BYTES.add(skipped);
             this.monitor.addProgress(skipped);
         }
 
@@ -117,6 +117,14 @@ public class AssetDownloadable extends Downloadable {
         return this.status.name + " " + this.name;
     }
 
+    public String getName() {
+        return this.name;
+    }
+
+    public AssetIndex.AssetObject getAsset() {
+        return this.asset;
+    }
+
     protected String decompressAsset(File localAsset, File localCompressed) throws IOException {
         this.status = AssetDownloadable.Status.EXTRACTING;
         FileOutputStream outputStream = FileUtils.openOutputStream(localAsset);
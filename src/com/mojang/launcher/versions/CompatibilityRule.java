@@ -1,7 +1,10 @@
 package com.mojang.launcher.versions;
 
+import com.google.common.base.Objects;
 import com.mojang.launcher.OperatingSystem;
-import java.util.regex.Matcher;
+import com.mojang.launcher.Platform;
+import java.util.Iterator;
+import java.util.List;
 import java.util.regex.Pattern;
 
 public class CompatibilityRule {
@@ -26,6 +29,29 @@ public class CompatibilityRule {
         return this.os != null && !this.os.isCurrentOperatingSystem() ? null : this.action;
     }
 
+    public CompatibilityRule.Action getAppliedAction(Platform platform) {
+        return this.os != null && !this.os.matches(platform) ? null : this.action;
+    }
+
+    public static boolean isAllowed(List<CompatibilityRule> rules, Platform platform) {
+        if (rules == null) {
+            return true;
+        } else {
+            CompatibilityRule.Action lastAction = CompatibilityRule.Action.DISALLOW;
+            Iterator i$ = rules.iterator();
+
+            while (i$.hasNext()) {
+                CompatibilityRule compatibilityRule = (CompatibilityRule) i$.next();
+                CompatibilityRule.Action action = platform == Platform.current() ? compatibilityRule.getAppliedAction() : compatibilityRule.getAppliedAction(platform);
+                if (action != null) {
+                    lastAction = action;
+                }
+            }
+
+            return lastAction == CompatibilityRule.Action.ALLOW;
+        }
+    }
+
     public CompatibilityRule.Action getAction() {
         return this.action;
     }
@@ -34,6 +60,37 @@ public class CompatibilityRule {
         return this.os;
     }
 
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o != null && this.getClass() == o.getClass()) {
+            CompatibilityRule that = (CompatibilityRule) o;
+            return this.action == that.action && Objects.equal(this.os, that.os);
+        } else {
+            return false;
+        }
+    }
+
+    public int hashCode() {
+        return Objects.hashCode(new Object[]{this.action, this.os});
+    }
+
+    private static Pattern compilePattern(String regex) {
+        if (regex == null) {
+            return null;
+        } else {
+            try {
+                return Pattern.compile(regex);
+            } catch (Throwable var2) {
+                return null;
+            }
+        }
+    }
+
+    private static boolean matchesPattern(Pattern pattern, String input) {
+        return pattern == null || input == null || pattern.matcher(input).matches();
+    }
+
     public String toString() {
         return "Rule{action=" + this.action + ", os=" + this.os + '}';
     }
@@ -55,6 +112,10 @@ public class CompatibilityRule {
         private OperatingSystem name;
         private String version;
         private String arch;
+        private transient volatile Pattern versionPattern;
+        private transient volatile Pattern archPattern;
+        private transient volatile boolean compiled;
+        private transient volatile Boolean matchesCurrent;
 
         public OSRestriction() {
         }
@@ -78,39 +139,48 @@ public class CompatibilityRule {
         }
 
         public boolean isCurrentOperatingSystem() {
-            if (this.name != null && this.name != OperatingSystem.getCurrentPlatform()) {
+            Boolean result = this.matchesCurrent;
+            if (result == null) {
+                result = Boolean.valueOf(this.matches(Platform.current()));
+                this.matchesCurrent = result;
+            }
+
+            return result.booleanValue();
+        }
+
+        public boolean matches(Platform platform) {
+            if (this.name != null && this.name != platform.getOperatingSystem()) {
                 return false;
             } else {
-                Pattern ignored;
-                Matcher matcher;
-                if (this.version != null) {
-                    try {
-                        ignored = Pattern.compile(this.version);
-                        matcher = ignored.matcher(System.getProperty("os.version"));
-                        if (!matcher.matches()) {
-                            return false;
-                        }
-                    } catch (Throwable var4) {
-                        ;
-                    }
-                }
+                this.compile();
+                return CompatibilityRule.matchesPattern(this.versionPattern, platform.getVersion()) && CompatibilityRule.matchesPattern(this.archPattern, platform.getArch());
+            }
+        }
 
-                if (this.arch != null) {
-                    try {
-                        ignored = Pattern.compile(this.arch);
-                        matcher = ignored.matcher(System.getProperty("os.arch"));
-                        if (!matcher.matches()) {
-                            return false;
-                        }
-                    } catch (Throwable var3) {
-                        ;
-                    }
-                }
+        private void compile() {
+            if (!this.compiled) {
+                this.versionPattern = CompatibilityRule.compilePattern(this.version);
+                this.archPattern = CompatibilityRule.compilePattern(this.arch);
+                this.compiled = true;
+            }
+
+        }
 
+        public boolean equals(Object o) {
+            if (this == o) {
                 return true;
+            } else if (o != null && this.getClass() == o.getClass()) {
+                CompatibilityRule.OSRestriction that = (CompatibilityRule.OSRestriction) o;
+                return this.name == that.name && Objects.equal(this.version, that.version) && Objects.equal(this.arch, that.arch);
+            } else {
+                return false;
             }
         }
 
+        public int hashCode() {
+            return Objects.hashCode(new Object[]{this.name, this.version, this.arch});
+        }
+
         public String toString() {
             return "OSRestriction{name=" + this.name + ", version=\'" + this.version + '\'' + ", arch=\'" + this.arch + '\'' + '}';
         }
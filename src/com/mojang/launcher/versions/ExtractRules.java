@@ -47,4 +47,19 @@ public class ExtractRules {
 
         return true;
     }
+
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o != null && this.getClass() == o.getClass()) {
+            ExtractRules that = (ExtractRules) o;
+            return this.exclude == null ? that.exclude == null : this.exclude.equals(that.exclude);
+        } else {
+            return false;
+        }
+    }
+
+    public int hashCode() {
+        return this.exclude == null ? 0 : this.exclude.hashCode();
+    }
 }
@@ -0,0 +1,112 @@
+package com.mojang.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ConcurrentRingBuffer<E> {
+
+    private final AtomicReferenceArray<ConcurrentRingBuffer.Slot<E>> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long head;
+
+    public ConcurrentRingBuffer(int minimumCapacity) {
+        if (minimumCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        } else {
+            int capacity = Integer.highestOneBit(minimumCapacity);
+            if (capacity < minimumCapacity) {
+                capacity <<= 1;
+            }
+
+            this.slots = new AtomicReferenceArray(capacity);
+            this.mask = capacity - 1;
+        }
+    }
+
+    public int getCapacity() {
+        return this.mask + 1;
+    }
+
+    public void offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Cannot offer null element");
+        } else {
+            long sequence = this.tail.getAndIncrement();
+            int index = (int) (sequence & (long) this.mask);
+            ConcurrentRingBuffer.Slot<E> slot = new ConcurrentRingBuffer.Slot(sequence, element);
+
+            ConcurrentRingBuffer.Slot current;
+            do {
+                current = (ConcurrentRingBuffer.Slot) this.slots.get(index);
+                if (current != null && current.sequence > sequence) {
+                    return;
+                }
+            } while (!this.slots.compareAndSet(index, current, slot));
+
+        }
+    }
+
+    public synchronized int drainTo(Collection<? super E> target, int maxElements) {
+        long end = this.tail.get();
+        long oldest = end - (long) this.slots.length();
+        if (this.head < oldest) {
+            this.dropped.addAndGet(oldest - this.head);
+            this.head = oldest;
+        }
+
+        int count = 0;
+
+        while (this.head < end && count < maxElements) {
+            ConcurrentRingBuffer.Slot<E> slot = (ConcurrentRingBuffer.Slot) this.slots.get((int) (this.head & (long) this.mask));
+            if (slot == null || slot.sequence < this.head) {
+                break;
+            }
+
+            if (slot.sequence == this.head) {
+                target.add(slot.element);
+                ++count;
+            } else {
+                this.dropped.incrementAndGet();
+            }
+
+            ++this.head;
+        }
+
+        return count;
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.head >= this.tail.get();
+    }
+
+    public long size() {
+        long size;
+        synchronized (this) {
+            size = this.tail.get() - this.head;
+        }
+
+        return Math.max(0L, Math.min(size, (long) this.slots.length()));
+    }
+
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    public long getAndResetDroppedCount() {
+        return this.dropped.getAndSet(0L);
+    }
+
+    private static final class Slot<E> {
+
+        private final long sequence;
+        private final E element;
+
+        private Slot(long sequence, E element) {
+            this.sequence = sequence;
+            this.element = element;
+        }
+    }
+}
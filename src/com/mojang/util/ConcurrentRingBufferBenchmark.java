@@ -0,0 +1,145 @@
+package com.mojang.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrentRingBufferBenchmark {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int DEFAULT_PRODUCERS = 2;
+    private static final int DEFAULT_SECONDS = 5;
+    private static final int DEFAULT_LINES_PER_SECOND = 100000;
+    private static final int FLUSHES_PER_SECOND = 30;
+    private static final int BURSTS_PER_SECOND = 1000;
+    private static final String LINE = "[12:34:56] [Client thread/INFO]: Benchmark line with a typical amount of text in it";
+    private final int capacity;
+    private final int producers;
+    private final int seconds;
+
+    public ConcurrentRingBufferBenchmark(int capacity, int producers, int seconds) {
+        this.capacity = capacity;
+        this.producers = producers;
+        this.seconds = seconds;
+    }
+
+    public ConcurrentRingBufferBenchmark.Result run(final int linesPerSecond) throws InterruptedException {
+        final ConcurrentRingBuffer<String> buffer = new ConcurrentRingBuffer(this.capacity);
+        final AtomicLong offered = new AtomicLong();
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos((long) this.seconds);
+        final CountDownLatch finished = new CountDownLatch(this.producers);
+        final int perBurst = linesPerSecond <= 0 ? 0 : Math.max(1, linesPerSecond / this.producers / BURSTS_PER_SECOND);
+
+        for (int i = 0; i < this.producers; ++i) {
+            Thread thread = new Thread("Benchmark producer #" + i) {
+                public void run() {
+                    long count = 0L;
+                    long nextBurst = System.nanoTime();
+
+                    while (System.nanoTime() < end) {
+                        if (perBurst == 0) {
+                            for (int j = 0; j < 1024; ++j) {
+                                buffer.offer(LINE);
+                            }
+
+                            count += 1024L;
+                        } else {
+                            for (int j = 0; j < perBurst; ++j) {
+                                buffer.offer(LINE);
+                            }
+
+                            count += (long) perBurst;
+                            nextBurst += TimeUnit.SECONDS.toNanos(1L) / (long) BURSTS_PER_SECOND;
+                            long sleep = nextBurst - System.nanoTime();
+                            if (sleep > 0L) {
+                                try {
+                                    TimeUnit.NANOSECONDS.sleep(sleep);
+                                } catch (InterruptedException var8) {
+                                    break;
+                                }
+                            }
+                        }
+                    }
+
+                    offered.addAndGet(count);
+                    finished.countDown();
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        List<String> lines = new ArrayList(this.capacity);
+        long drained = 0L;
+        long flushes = 0L;
+        long longestFlush = 0L;
+        long start = System.nanoTime();
+
+        do {
+            long flushStart = System.nanoTime();
+            drained += (long) buffer.drainTo(lines, buffer.getCapacity());
+            lines.clear();
+            longestFlush = Math.max(longestFlush, System.nanoTime() - flushStart);
+            ++flushes;
+        } while (!finished.await(1000L / (long) FLUSHES_PER_SECOND, TimeUnit.MILLISECONDS));
+
+        while (!buffer.isEmpty()) {
+            drained += (long) buffer.drainTo(lines, buffer.getCapacity());
+            lines.clear();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        return new ConcurrentRingBufferBenchmark.Result(linesPerSecond, offered.get(), drained, buffer.getDroppedCount(), flushes, longestFlush, elapsed);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int linesPerSecond = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINES_PER_SECOND;
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PRODUCERS;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+        int capacity = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CAPACITY;
+        ConcurrentRingBufferBenchmark benchmark = new ConcurrentRingBufferBenchmark(capacity, producers, seconds);
+        System.out.println("Ring of " + capacity + " slots, " + producers + " producer(s), drained " + FLUSHES_PER_SECOND + " times a second for " + seconds + " second(s)");
+        System.out.println("warmup:    " + benchmark.run(linesPerSecond));
+        System.out.println("paced:     " + benchmark.run(linesPerSecond));
+        System.out.println("unbounded: " + benchmark.run(0));
+    }
+
+    public static class Result {
+
+        private final int targetLinesPerSecond;
+        private final long offered;
+        private final long drained;
+        private final long dropped;
+        private final long flushes;
+        private final long longestFlush;
+        private final long elapsed;
+
+        public Result(int targetLinesPerSecond, long offered, long drained, long dropped, long flushes, long longestFlush, long elapsed) {
+            this.targetLinesPerSecond = targetLinesPerSecond;
+            this.offered = offered;
+            this.drained = drained;
+            this.dropped = dropped;
+            this.flushes = flushes;
+            this.longestFlush = longestFlush;
+            this.elapsed = elapsed;
+        }
+
+        public long getOfferedPerSecond() {
+            return this.offered * TimeUnit.SECONDS.toNanos(1L) / Math.max(1L, this.elapsed);
+        }
+
+        public long getDrainedPerSecond() {
+            return this.drained * TimeUnit.SECONDS.toNanos(1L) / Math.max(1L, this.elapsed);
+        }
+
+        public long getDropped() {
+            return this.dropped;
+        }
+
+        public String toString() {
+            return "target=" + (this.targetLinesPerSecond <= 0 ? "unbounded" : this.targetLinesPerSecond + " lines/s") + " offered=" + this.getOfferedPerSecond() + " lines/s drained=" + this.getDrainedPerSecond() + " lines/s dropped=" + this.dropped + " (" + (this.offered == 0L ? 0L : this.dropped * 100L / this.offered) + "%) flushes=" + this.flushes + " longest flush=" + TimeUnit.NANOSECONDS.toMicros(this.longestFlush) + " us";
+        }
+    }
+}
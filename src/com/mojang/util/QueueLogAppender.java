@@ -1,12 +1,9 @@
 package com.mojang.util;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -27,22 +24,25 @@ import org.apache.logging.log4j.core.pattern.RegexReplacement;
 )
 public class QueueLogAppender extends AbstractAppender {
 
-    private static final int MAX_CAPACITY = 250;
-    private static final Map<String, BlockingQueue<String>> QUEUES = new HashMap();
-    private static final ReadWriteLock QUEUE_LOCK = new ReentrantReadWriteLock();
-    private final BlockingQueue<String> queue;
+    private static final int MAX_CAPACITY = 4096;
+    private static final ConcurrentMap<String, ConcurrentRingBuffer<String>> QUEUES = new ConcurrentHashMap();
+    private static final ConcurrentMap<String, QueueLogAppender.Listener> LISTENERS = new ConcurrentHashMap();
+    private final String queueName;
+    private final ConcurrentRingBuffer<String> queue;
 
-    public QueueLogAppender(String name, Filter filter, Layout<? extends Serializable> layout, boolean ignoreExceptions, BlockingQueue<String> queue) {
+    public QueueLogAppender(String name, Filter filter, Layout<? extends Serializable> layout, boolean ignoreExceptions, String queueName, ConcurrentRingBuffer<String> queue) {
         super(name, filter, layout, ignoreExceptions);
+        this.queueName = queueName;
         this.queue = queue;
     }
 
     public void append(LogEvent event) {
-        if (this.queue.size() >= 250) {
-            this.queue.clear();
+        this.queue.offer(this.getLayout().toSerializable(event).toString());
+        QueueLogAppender.Listener listener = (QueueLogAppender.Listener) LISTENERS.get(this.queueName);
+        if (listener != null) {
+            listener.onLogEventQueued(this.queueName);
         }
 
-        this.queue.add(this.getLayout().toSerializable(event).toString());
     }
 
     @PluginFactory
@@ -56,35 +56,52 @@ public class QueueLogAppender extends AbstractAppender {
                 target = name;
             }
 
-            QUEUE_LOCK.writeLock().lock();
-            Object queue = (BlockingQueue) QUEUES.get(target);
-            if (queue == null) {
-                queue = new LinkedBlockingQueue();
-                QUEUES.put(target, (BlockingQueue<String>) queue);
-            }
-
-            QUEUE_LOCK.writeLock().unlock();
+            ConcurrentRingBuffer queue = getQueue(target);
             if (layout == null) {
                 layout = PatternLayout.createLayout((String) null, (Configuration) null, (RegexReplacement) null, (String) null, (String) null);
             }
 
-            return new QueueLogAppender(name, filter, (Layout) layout, ignoreExceptions, (BlockingQueue) queue);
+            return new QueueLogAppender(name, filter, (Layout) layout, ignoreExceptions, target, queue);
         }
     }
 
-    public static String getNextLogEvent(String queueName) {
-        QUEUE_LOCK.readLock().lock();
-        BlockingQueue queue = (BlockingQueue) QUEUES.get(queueName);
-        QUEUE_LOCK.readLock().unlock();
-        if (queue != null) {
-            try {
-                return (String) queue.take();
-            } catch (InterruptedException var3) {
-                ;
+    private static ConcurrentRingBuffer<String> getQueue(String queueName) {
+        ConcurrentRingBuffer queue = (ConcurrentRingBuffer) QUEUES.get(queueName);
+        if (queue == null) {
+            ConcurrentRingBuffer created = new ConcurrentRingBuffer(MAX_CAPACITY);
+            queue = (ConcurrentRingBuffer) QUEUES.putIfAbsent(queueName, created);
+            if (queue == null) {
+                queue = created;
             }
         }
 
-        return null;
+        return queue;
+    }
+
+    public static int drainLogEvents(String queueName, Collection<? super String> target, int maxEvents) {
+        return getQueue(queueName).drainTo(target, maxEvents);
+    }
+
+    public static long getAndResetDroppedCount(String queueName) {
+        return getQueue(queueName).getAndResetDroppedCount();
+    }
+
+    public static boolean hasLogEvents(String queueName) {
+        return !getQueue(queueName).isEmpty();
+    }
+
+    public static void setListener(String queueName, QueueLogAppender.Listener listener) {
+        if (listener == null) {
+            LISTENERS.remove(queueName);
+        } else {
+            LISTENERS.put(queueName, listener);
+        }
+
+    }
+
+    public interface Listener {
+
+        void onLogEventQueued(String var1);
     }
 
 }
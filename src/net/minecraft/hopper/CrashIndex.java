@@ -0,0 +1,201 @@
+package net.minecraft.hopper;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.mojang.launcher.updater.DateTypeAdapter;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class CrashIndex {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Gson GSON = (new GsonBuilder()).registerTypeAdapter(Date.class, new DateTypeAdapter()).setPrettyPrinting().create();
+    private final File file;
+    private Map<String, CrashIndex.Entry> entries;
+
+    public CrashIndex(File file) {
+        this.file = file;
+    }
+
+    public synchronized CrashIndex.Entry record(CrashSignature signature, String versionId) {
+        CrashIndex.Entry entry = (CrashIndex.Entry) this.getEntries().get(signature.getHash());
+        Date now = new Date();
+        if (entry == null) {
+            entry = new CrashIndex.Entry(signature.getHash(), signature.getTitle(), now);
+            this.entries.put(signature.getHash(), entry);
+        }
+
+        ++entry.count;
+        entry.lastSeen = now;
+        if (versionId != null) {
+            if (entry.versions == null) {
+                entry.versions = Sets.newTreeSet();
+            }
+
+            entry.versions.add(versionId);
+        }
+
+        this.save();
+        return entry.copy();
+    }
+
+    public synchronized CrashIndex.Entry get(String hash) {
+        CrashIndex.Entry entry = (CrashIndex.Entry) this.getEntries().get(hash);
+        return entry == null ? null : entry.copy();
+    }
+
+    public synchronized Collection<CrashIndex.Entry> getAll() {
+        List<CrashIndex.Entry> result = Lists.newArrayList();
+        Iterator i$ = this.getEntries().values().iterator();
+
+        while (i$.hasNext()) {
+            CrashIndex.Entry entry = (CrashIndex.Entry) i$.next();
+            result.add(entry.copy());
+        }
+
+        return result;
+    }
+
+    public synchronized void rememberResponse(String hash, SubmitResponse response) {
+        CrashIndex.Entry entry = (CrashIndex.Entry) this.getEntries().get(hash);
+        if (entry != null && response != null) {
+            if (response.getCrash() != null) {
+                entry.hopperCrashId = Integer.valueOf(response.getCrash().getId());
+                entry.hopperCrashTitle = response.getCrash().getTitle();
+            }
+
+            if (response.getProblem() != null) {
+                entry.problem = response.getProblem();
+            }
+
+            this.save();
+        }
+    }
+
+    private Map<String, CrashIndex.Entry> getEntries() {
+        if (this.entries == null) {
+            this.entries = Maps.newHashMap();
+            if (this.file.isFile()) {
+                try {
+                    Map<String, CrashIndex.Entry> loaded = (Map) GSON.fromJson(FileUtils.readFileToString(this.file, Charsets.UTF_8), (new TypeToken<Map<String, CrashIndex.Entry>>() {
+                    }).getType());
+                    if (loaded != null) {
+                        this.entries.putAll(loaded);
+                    }
+                } catch (IOException var2) {
+                    LOGGER.warn("Couldn\'t read crash index " + this.file, (Throwable) var2);
+                } catch (JsonParseException var3) {
+                    LOGGER.warn("Couldn\'t parse crash index " + this.file + "; starting a new one", (Throwable) var3);
+                }
+            }
+        }
+
+        return this.entries;
+    }
+
+    private void save() {
+        File temp = new File(this.file.getPath() + ".tmp");
+
+        try {
+            FileUtils.writeStringToFile(temp, GSON.toJson((Object) this.entries), Charsets.UTF_8);
+            if (this.file.isFile() && !this.file.delete()) {
+                throw new IOException("Couldn\'t replace " + this.file);
+            }
+
+            FileUtils.moveFile(temp, this.file);
+        } catch (IOException var3) {
+            LOGGER.warn("Couldn\'t save crash index " + this.file, (Throwable) var3);
+        }
+
+    }
+
+    public static class Entry {
+
+        private String hash;
+        private String title;
+        private int count;
+        private Date firstSeen;
+        private Date lastSeen;
+        private Set<String> versions = Sets.newTreeSet();
+        private Integer hopperCrashId;
+        private String hopperCrashTitle;
+        private Problem problem;
+
+        public Entry() {
+        }
+
+        private Entry(String hash, String title, Date firstSeen) {
+            this.hash = hash;
+            this.title = title;
+            this.firstSeen = firstSeen;
+            this.lastSeen = firstSeen;
+        }
+
+        private CrashIndex.Entry copy() {
+            CrashIndex.Entry copy = new CrashIndex.Entry(this.hash, this.title, this.firstSeen);
+            copy.count = this.count;
+            copy.lastSeen = this.lastSeen;
+            copy.versions = Sets.newTreeSet(this.versions == null ? Collections.<String>emptySet() : this.versions);
+            copy.hopperCrashId = this.hopperCrashId;
+            copy.hopperCrashTitle = this.hopperCrashTitle;
+            copy.problem = this.problem;
+            return copy;
+        }
+
+        public String getHash() {
+            return this.hash;
+        }
+
+        public String getTitle() {
+            return this.title;
+        }
+
+        public int getCount() {
+            return this.count;
+        }
+
+        public Date getFirstSeen() {
+            return this.firstSeen;
+        }
+
+        public Date getLastSeen() {
+            return this.lastSeen;
+        }
+
+        public Set<String> getVersions() {
+            return this.versions;
+        }
+
+        public Integer getHopperCrashId() {
+            return this.hopperCrashId;
+        }
+
+        public String getHopperCrashTitle() {
+            return this.hopperCrashTitle;
+        }
+
+        public Problem getProblem() {
+            return this.problem;
+        }
+
+        public boolean isResolved() {
+            return this.hopperCrashId != null || this.problem != null;
+        }
+    }
+}
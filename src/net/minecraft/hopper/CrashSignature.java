@@ -0,0 +1,141 @@
+package net.minecraft.hopper;
+
+import java.util.regex.Pattern;
+import org.apache.commons.codec.digest.DigestUtils;
+
+public class CrashSignature {
+
+    private static final int MAX_FRAMES_PER_CAUSE = 12;
+    private static final int MAX_TITLE_LENGTH = 200;
+    private static final Pattern LINE_NUMBER = Pattern.compile("\\(([^():]*):\\d+\\)");
+    private static final Pattern HEX_ADDRESS = Pattern.compile("0x[0-9a-fA-F]+");
+    private static final Pattern IDENTITY_HASH = Pattern.compile("@[0-9a-fA-F]{5,}");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+    private final String hash;
+    private final String title;
+    private final String normalized;
+
+    private CrashSignature(String hash, String title, String normalized) {
+        this.hash = hash;
+        this.title = title;
+        this.normalized = normalized;
+    }
+
+    public static CrashSignature of(String report) {
+        String[] lines = report.replace("\r", "").split("\n");
+        String description = null;
+        int start = 0;
+
+        for (int i = 0; i < lines.length; ++i) {
+            if (lines[i].startsWith("Description: ")) {
+                description = lines[i].substring("Description: ".length()).trim();
+                start = i + 1;
+                break;
+            }
+        }
+
+        if (description == null) {
+            start = findStackTrace(lines);
+        }
+
+        while (start < lines.length && lines[start].trim().length() == 0) {
+            ++start;
+        }
+
+        StringBuilder normalized = new StringBuilder();
+        if (description != null) {
+            normalized.append(normalize(description)).append('\n');
+        }
+
+        String headline = null;
+        int frames = 0;
+
+        for (int i = start; i < lines.length; ++i) {
+            String line = lines[i].trim();
+            if (line.length() == 0) {
+                break;
+            }
+
+            if (line.startsWith("//") || line.startsWith("Time: ") || line.startsWith("---- ")) {
+                continue;
+            }
+
+            if (line.startsWith("at ")) {
+                if (frames++ >= MAX_FRAMES_PER_CAUSE) {
+                    continue;
+                }
+            } else if (line.startsWith("...")) {
+                continue;
+            } else {
+                frames = 0;
+                if (headline == null) {
+                    headline = line;
+                }
+            }
+
+            normalized.append(normalize(line)).append('\n');
+        }
+
+        StringBuilder title = new StringBuilder();
+        if (description != null) {
+            title.append(description);
+        }
+
+        if (headline != null) {
+            if (title.length() > 0) {
+                title.append(": ");
+            }
+
+            title.append(headline);
+        }
+
+        if (title.length() > MAX_TITLE_LENGTH) {
+            title.setLength(MAX_TITLE_LENGTH);
+        }
+
+        String text = normalized.toString();
+        if (text.trim().length() == 0) {
+            return new CrashSignature(DigestUtils.sha1Hex(report), title.toString(), "");
+        } else {
+            return new CrashSignature(DigestUtils.sha1Hex(text), title.toString(), text);
+        }
+    }
+
+    private static int findStackTrace(String[] lines) {
+        for (int i = 0; i + 1 < lines.length; ++i) {
+            String line = lines[i].trim();
+            if (line.length() > 0 && !line.startsWith("at ") && lines[i + 1].trim().startsWith("at ")) {
+                return i;
+            }
+        }
+
+        return lines.length;
+    }
+
+    static String normalize(String line) {
+        String result = LINE_NUMBER.matcher(line).replaceAll("($1)");
+        result = HEX_ADDRESS.matcher(result).replaceAll("0x?");
+        result = IDENTITY_HASH.matcher(result).replaceAll("@?");
+        return NUMBER.matcher(result).replaceAll("#");
+    }
+
+    public String getHash() {
+        return this.hash;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public String getNormalized() {
+        return this.normalized;
+    }
+
+    public boolean isResolvable() {
+        return this.normalized.length() > 0;
+    }
+
+    public String toString() {
+        return "CrashSignature{hash=\'" + this.hash + '\'' + ", title=\'" + this.title + '\'' + '}';
+    }
+}
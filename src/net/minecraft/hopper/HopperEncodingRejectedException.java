@@ -0,0 +1,10 @@
+package net.minecraft.hopper;
+
+import java.io.IOException;
+
+public class HopperEncodingRejectedException extends IOException {
+
+    public HopperEncodingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,23 @@
+package net.minecraft.hopper;
+
+import java.io.IOException;
+
+public class HopperHttpException extends IOException {
+
+    private final int responseCode;
+    private final String errorPage;
+
+    public HopperHttpException(int responseCode, String errorPage, Throwable cause) {
+        super("Crash service returned HTTP " + responseCode, cause);
+        this.responseCode = responseCode;
+        this.errorPage = errorPage;
+    }
+
+    public int getResponseCode() {
+        return this.responseCode;
+    }
+
+    public String getErrorPage() {
+        return this.errorPage;
+    }
+}
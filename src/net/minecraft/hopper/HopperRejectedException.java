@@ -0,0 +1,10 @@
+package net.minecraft.hopper;
+
+import java.io.IOException;
+
+public class HopperRejectedException extends IOException {
+
+    public HopperRejectedException(String message) {
+        super(message);
+    }
+}
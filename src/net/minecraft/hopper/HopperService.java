@@ -1,6 +1,7 @@
 package net.minecraft.hopper;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import java.io.IOException;
 import java.net.Proxy;
 import java.net.URL;
@@ -20,6 +21,10 @@ public final class HopperService {
     }
 
     public static SubmitResponse submitReport(Proxy proxy, String report, String product, String version, Map<String, String> env) throws IOException {
+        return (SubmitResponse) makeRequest(proxy, ROUTE_SUBMIT, createSubmitRequest(report, product, version, env), SubmitResponse.class);
+    }
+
+    public static SubmitRequest createSubmitRequest(String report, String product, String version, Map<String, String> env) {
         HashMap environment = new HashMap();
         if (env != null) {
             environment.putAll(env);
@@ -36,8 +41,40 @@ public final class HopperService {
             }
         }
 
-        SubmitRequest var11 = new SubmitRequest(report, product, version, environment);
-        return (SubmitResponse) makeRequest(proxy, ROUTE_SUBMIT, var11, SubmitResponse.class);
+        return new SubmitRequest(report, product, version, environment);
+    }
+
+    public static String toJson(SubmitRequest request) {
+        return GSON.toJson((Object) request);
+    }
+
+    public static SubmitResponse submitEncodedReport(Proxy proxy, byte[] body, String contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return (SubmitResponse) parseResponse(Util.performPost(ROUTE_SUBMIT, body, proxy, "application/json", (String) null, true), SubmitResponse.class);
+        } else {
+            String result;
+            try {
+                result = Util.performPost(ROUTE_SUBMIT, body, proxy, "application/json", contentEncoding, false);
+            } catch (HopperHttpException var7) {
+                if (var7.getResponseCode() == 400 || var7.getResponseCode() == 415) {
+                    throw new HopperEncodingRejectedException("Crash service refused a " + contentEncoding + " encoded report with HTTP " + var7.getResponseCode(), var7);
+                }
+
+                if (var7.getErrorPage() == null) {
+                    throw var7;
+                }
+
+                result = var7.getErrorPage();
+            }
+
+            try {
+                return (SubmitResponse) parseResponse(result, SubmitResponse.class);
+            } catch (HopperRejectedException var5) {
+                throw var5;
+            } catch (IOException var6) {
+                throw new HopperEncodingRejectedException("Crash service didn't understand a " + contentEncoding + " encoded report", var6);
+            }
+        }
     }
 
     public static PublishResponse publishReport(Proxy proxy, Report report) throws IOException {
@@ -46,12 +83,21 @@ public final class HopperService {
     }
 
     private static <T extends Response> Response makeRequest(Proxy proxy, URL url, Object input, Class<T> classOfT) throws IOException {
-        String jsonResult = Util.performPost(url, GSON.toJson(input), proxy, "application/json", true);
-        Response result = (Response) GSON.fromJson(jsonResult, classOfT);
+        return parseResponse(Util.performPost(url, GSON.toJson(input), proxy, "application/json", true), classOfT);
+    }
+
+    private static <T extends Response> Response parseResponse(String jsonResult, Class<T> classOfT) throws IOException {
+        Response result;
+        try {
+            result = (Response) GSON.fromJson(jsonResult, classOfT);
+        } catch (JsonParseException var4) {
+            throw new IOException("Unexpected response from crash service", var4);
+        }
+
         if (result == null) {
             return null;
         } else if (result.getError() != null) {
-            throw new IOException(result.getError());
+            throw new HopperRejectedException(result.getError());
         } else {
             return result;
         }
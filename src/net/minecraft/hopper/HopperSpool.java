@@ -0,0 +1,261 @@
+package net.minecraft.hopper;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class HopperSpool {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String SUFFIX = ".json.gz";
+    private static final int MAX_SPOOLED_REPORTS = 50;
+    private static final long MAX_REPORT_AGE = TimeUnit.DAYS.toMillis(30L);
+    private static final long MIN_RETRY_DELAY = TimeUnit.SECONDS.toMillis(30L);
+    private static final long MAX_RETRY_DELAY = TimeUnit.HOURS.toMillis(1L);
+    private final File directory;
+    private final Proxy proxy;
+    private final HopperSpool.Listener listener;
+    private final Map<String, SettableFuture<SubmitResponse>> pending = Maps.newHashMap();
+    private final Object lock = new Object();
+    private Thread sender;
+    private boolean wakeUp;
+    private int failures;
+    private boolean gzipSupported = true;
+
+    public HopperSpool(File directory, Proxy proxy, HopperSpool.Listener listener) {
+        this.directory = directory;
+        this.proxy = proxy;
+        this.listener = listener;
+    }
+
+    public ListenableFuture<SubmitResponse> submit(String key, SubmitRequest request) throws IOException {
+        byte[] body = HopperService.toJson(request).getBytes(Charsets.UTF_8);
+        String name = key + "_" + DigestUtils.sha1Hex(body) + SUFFIX;
+        File file = new File(this.directory, name);
+        Object var6 = this.lock;
+        synchronized (this.lock) {
+            SettableFuture future = (SettableFuture) this.pending.get(name);
+            if (future == null) {
+                future = SettableFuture.create();
+                this.pending.put(name, future);
+            }
+
+            if (file.isFile()) {
+                LOGGER.info("Identical crash report is already waiting to be sent; not spooling it again");
+            } else {
+                this.write(file, body);
+            }
+
+            this.start();
+            this.wakeUp = true;
+            this.lock.notifyAll();
+            return future;
+        }
+    }
+
+    public void start() {
+        Object var1 = this.lock;
+        synchronized (this.lock) {
+            if (this.sender == null) {
+                this.sender = new Thread("Crash report sender") {
+                    public void run() {
+                        HopperSpool.this.run();
+                    }
+                };
+                this.sender.setDaemon(true);
+                this.sender.start();
+            }
+
+        }
+    }
+
+    private void write(File file, byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 3 + 64);
+        GZIPOutputStream output = new GZIPOutputStream(compressed);
+        output.write(body);
+        output.close();
+        File temp = new File(this.directory, file.getName() + ".tmp");
+        FileUtils.writeByteArrayToFile(temp, compressed.toByteArray());
+        if (!temp.renameTo(file)) {
+            FileUtils.deleteQuietly(temp);
+            throw new IOException("Couldn\'t spool crash report to " + file);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            boolean sent = this.sendAll();
+            long delay;
+            Object var4 = this.lock;
+            synchronized (this.lock) {
+                if (sent) {
+                    this.failures = 0;
+                    delay = 0L;
+                } else {
+                    delay = Math.min(MAX_RETRY_DELAY, MIN_RETRY_DELAY << Math.min(this.failures, 10));
+                    ++this.failures;
+                    LOGGER.info("Couldn\'t send spooled crash reports; retrying in " + TimeUnit.MILLISECONDS.toSeconds(delay) + " seconds");
+                }
+
+                try {
+                    while (!this.wakeUp) {
+                        if (delay > 0L) {
+                            long start = System.currentTimeMillis();
+                            this.lock.wait(delay);
+                            delay -= System.currentTimeMillis() - start;
+                            if (delay <= 0L) {
+                                break;
+                            }
+                        } else {
+                            this.lock.wait();
+                        }
+                    }
+                } catch (InterruptedException var8) {
+                    return;
+                }
+
+                this.wakeUp = false;
+            }
+        }
+    }
+
+    private boolean sendAll() {
+        Iterator i$ = this.getSpooledFiles().iterator();
+
+        while (i$.hasNext()) {
+            File file = (File) i$.next();
+
+            try {
+                SubmitResponse response = this.send(file);
+                if (response == null) {
+                    LOGGER.debug("Crash service sent no response for spooled report " + file.getName());
+                    return false;
+                }
+
+                FileUtils.deleteQuietly(file);
+                LOGGER.info("Sent spooled crash report " + file.getName() + (response.getReport() == null ? "" : " (ID " + response.getReport().getId() + ")"));
+                this.complete(file, response, (Throwable) null);
+            } catch (HopperRejectedException var5) {
+                LOGGER.warn("Crash service rejected spooled report " + file.getName() + "; discarding it: " + var5.getMessage());
+                FileUtils.deleteQuietly(file);
+                this.complete(file, (SubmitResponse) null, var5);
+            } catch (IOException var6) {
+                LOGGER.debug("Couldn\'t send spooled crash report " + file.getName(), (Throwable) var6);
+                return false;
+            } catch (RuntimeException var7) {
+                LOGGER.warn("Unexpected error sending spooled crash report " + file.getName(), (Throwable) var7);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private SubmitResponse send(File file) throws IOException {
+        byte[] compressed = FileUtils.readFileToByteArray(file);
+        if (this.gzipSupported) {
+            try {
+                return HopperService.submitEncodedReport(this.proxy, compressed, "gzip");
+            } catch (HopperEncodingRejectedException var4) {
+                LOGGER.info("Crash service didn\'t accept a compressed report; sending uncompressed reports from now on: " + var4.getMessage());
+                this.gzipSupported = false;
+            }
+        }
+
+        InputStream input = new GZIPInputStream(FileUtils.openInputStream(file));
+
+        byte[] body;
+        try {
+            body = IOUtils.toByteArray(input);
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+
+        return HopperService.submitEncodedReport(this.proxy, body, (String) null);
+    }
+
+    private void complete(File file, SubmitResponse response, Throwable error) {
+        String name = file.getName();
+        String key = name.substring(0, name.indexOf('_'));
+        Object var6 = this.lock;
+        SettableFuture future;
+        synchronized (this.lock) {
+            future = (SettableFuture) this.pending.remove(name);
+        }
+
+        if (response != null && this.listener != null) {
+            try {
+                this.listener.onReportSent(key, response);
+            } catch (RuntimeException var9) {
+                LOGGER.warn("Couldn\'t handle sent crash report " + name, (Throwable) var9);
+            }
+        }
+
+        if (future != null) {
+            if (error == null) {
+                future.set(response);
+            } else {
+                future.setException(error);
+            }
+        }
+
+    }
+
+    private List<File> getSpooledFiles() {
+        File[] files = this.directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(SUFFIX) && file.getName().indexOf('_') > 0;
+            }
+        });
+        if (files == null) {
+            return Collections.emptyList();
+        } else {
+            List<File> result = Lists.newArrayList(Arrays.asList(files));
+            Collections.sort(result, new Comparator<File>() {
+                public int compare(File a, File b) {
+                    return a.lastModified() < b.lastModified() ? -1 : (a.lastModified() > b.lastModified() ? 1 : 0);
+                }
+            });
+            long oldest = System.currentTimeMillis() - MAX_REPORT_AGE;
+            Iterator i$ = result.iterator();
+
+            while (i$.hasNext()) {
+                File file = (File) i$.next();
+                if (result.size() > MAX_SPOOLED_REPORTS || file.lastModified() < oldest) {
+                    LOGGER.info("Dropping stale spooled crash report " + file.getName());
+                    FileUtils.deleteQuietly(file);
+                    i$.remove();
+                }
+            }
+
+            return result;
+        }
+    }
+
+    public interface Listener {
+
+        void onReportSent(String var1, SubmitResponse var2);
+    }
+}
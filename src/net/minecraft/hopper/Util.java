@@ -13,14 +13,21 @@ import org.apache.commons.io.IOUtils;
 public class Util {
 
     public static String performPost(URL url, String parameters, Proxy proxy, String contentType, boolean returnErrorPage) throws IOException {
+        return performPost(url, parameters.getBytes(Charset.forName("UTF-8")), proxy, contentType, (String) null, returnErrorPage);
+    }
+
+    public static String performPost(URL url, byte[] paramAsBytes, Proxy proxy, String contentType, String contentEncoding, boolean returnErrorPage) throws IOException {
         HttpURLConnection connection = (HttpURLConnection) url.openConnection(proxy);
-        byte[] paramAsBytes = parameters.getBytes(Charset.forName("UTF-8"));
         connection.setConnectTimeout(15000);
         connection.setReadTimeout(15000);
         connection.setRequestMethod("POST");
         connection.setRequestProperty("Content-Type", contentType + "; charset=utf-8");
         connection.setRequestProperty("Content-Length", "" + paramAsBytes.length);
         connection.setRequestProperty("Content-Language", "en-US");
+        if (contentEncoding != null) {
+            connection.setRequestProperty("Content-Encoding", contentEncoding);
+        }
+
         connection.setUseCaches(false);
         connection.setDoInput(true);
         connection.setDoOutput(true);
@@ -33,11 +40,26 @@ public class Util {
         try {
             stream = connection.getInputStream();
         } catch (IOException var10) {
+            stream = connection.getErrorStream();
             if (!returnErrorPage) {
-                throw var10;
+                int responseCode = connection.getResponseCode();
+                if (responseCode <= 0) {
+                    IOUtils.closeQuietly(stream);
+                    throw var10;
+                }
+
+                String errorPage = null;
+                if (stream != null) {
+                    try {
+                        errorPage = IOUtils.toString(stream);
+                    } finally {
+                        IOUtils.closeQuietly(stream);
+                    }
+                }
+
+                throw new HopperHttpException(responseCode, errorPage, var10);
             }
 
-            stream = connection.getErrorStream();
             if (stream == null) {
                 throw var10;
             }
@@ -0,0 +1,76 @@
+package net.minecraft.launcher;
+
+import com.mojang.launcher.events.GameOutputLogProcessor;
+import com.mojang.launcher.game.process.GameProcess;
+import com.mojang.launcher.updater.DownloadProgress;
+import com.mojang.launcher.versions.CompleteVersion;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.launcher.game.MinecraftGameRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class HeadlessUserInterface implements MinecraftUserInterface {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(5L);
+    private long lastProgress;
+
+    public void showLoginPrompt() {
+        LOGGER.warn("A login was requested, but there is no user interface to show it");
+    }
+
+    public void setVisible(boolean visible) {
+    }
+
+    public void shutdownLauncher() {
+        LOGGER.info("Shutting down");
+        System.exit(0);
+    }
+
+    public void hideDownloadProgress() {
+        synchronized (this) {
+            this.lastProgress = 0L;
+        }
+    }
+
+    public void setDownloadProgress(DownloadProgress downloadProgress) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (this.lastProgress != 0L && now - this.lastProgress < PROGRESS_INTERVAL) {
+                return;
+            }
+
+            this.lastProgress = now;
+        }
+
+        LOGGER.info(String.format("Downloaded %.1f%% (%d of %d KiB) - %s", new Object[]{Float.valueOf(downloadProgress.getPercent() * 100.0F), Long.valueOf(downloadProgress.getCurrent() / 1024L), Long.valueOf(downloadProgress.getTotal() / 1024L), downloadProgress.getStatus()}));
+    }
+
+    public void showCrashReport(CompleteVersion version, File crashReportFile, String crashReport) {
+        LOGGER.error("Game " + version.getId() + " crashed; see " + crashReportFile);
+    }
+
+    public void gameLaunchFailure(String reason) {
+        LOGGER.error("Couldn\'t launch game: " + reason);
+    }
+
+    public void updatePlayState() {
+    }
+
+    public void showOutdatedNotice() {
+        LOGGER.error("This launcher's bootstrap is out of date");
+    }
+
+    public String getTitle() {
+        return "Minecraft Launcher 1.5.3 (headless)";
+    }
+
+    public GameOutputLogProcessor showGameOutputTab(MinecraftGameRunner gameRunner) {
+        return new GameOutputLogProcessor() {
+            public void onGameOutput(GameProcess process, String logLine) {
+                HeadlessUserInterface.LOGGER.info("[game] " + logLine);
+            }
+        };
+    }
+}
@@ -3,11 +3,20 @@ package net.minecraft.launcher;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.mojang.authlib.Agent;
 import com.mojang.authlib.UserAuthentication;
 import com.mojang.authlib.exceptions.AuthenticationException;
 import com.mojang.authlib.exceptions.InvalidCredentialsException;
 import com.mojang.launcher.OperatingSystem;
+import com.mojang.launcher.game.process.direct.StandbyJvmPool;
+import com.mojang.launcher.game.runtime.HardwareInfo;
+import com.mojang.launcher.game.runtime.JavaRuntimeProbe;
+import com.mojang.launcher.metrics.Counter;
+import com.mojang.launcher.metrics.Histogram;
+import com.mojang.launcher.metrics.MetricRegistry;
+import com.mojang.launcher.metrics.MetricsServer;
+import com.mojang.launcher.trace.Trace;
 import com.mojang.launcher.updater.DateTypeAdapter;
 import com.mojang.launcher.updater.VersionSyncInfo;
 import com.mojang.launcher.updater.download.assets.AssetIndex;
@@ -21,6 +30,7 @@ import java.lang.Thread.UncaughtExceptionHandler;
 import java.net.PasswordAuthentication;
 import java.net.Proxy;
 import java.text.DateFormat;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
@@ -30,6 +40,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import javax.swing.JFrame;
 import joptsimple.ArgumentAcceptingOptionSpec;
 import joptsimple.NonOptionArgumentSpec;
@@ -37,6 +48,9 @@ import joptsimple.OptionException;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
+import net.minecraft.hopper.CrashIndex;
+import net.minecraft.hopper.HopperSpool;
+import net.minecraft.hopper.SubmitResponse;
 import net.minecraft.launcher.game.GameLaunchDispatcher;
 import net.minecraft.launcher.game.MinecraftReleaseType;
 import net.minecraft.launcher.game.MinecraftReleaseTypeFactory;
@@ -63,14 +77,24 @@ import org.apache.logging.log4j.Logger;
 public class Launcher {
 
     private static final Logger LOGGER;
+    private static final Histogram LOG_IN_DURATION = MetricRegistry.getDefault().histogram("launcher_auth_log_in_duration_milliseconds", "Time taken to log in or refresh an account", 600000L, new String[0]);
+    private static final Counter LOG_IN_SUCCESSES = MetricRegistry.getDefault().counter("launcher_auth_log_ins_total", "Attempts to log in or refresh an account, by result", new String[]{"result", "success"});
+    private static final Counter LOG_IN_REJECTIONS = MetricRegistry.getDefault().counter("launcher_auth_log_ins_total", "Attempts to log in or refresh an account, by result", new String[]{"result", "invalid_credentials"});
+    private static final Counter LOG_IN_FAILURES = MetricRegistry.getDefault().counter("launcher_auth_log_ins_total", "Attempts to log in or refresh an account, by result", new String[]{"result", "error"});
     private final com.mojang.launcher.Launcher launcher;
     private final Integer bootstrapVersion;
     private final MinecraftUserInterface userInterface;
     private final ProfileManager profileManager;
     private final Gson gson;
     private final GameLaunchDispatcher launchDispatcher;
+    private final CrashIndex crashIndex;
+    private final HopperSpool hopperSpool;
+    private final JavaRuntimeProbe javaRuntimeProbe;
+    private final StandbyJvmPool standbyJvmPool;
     private UUID clientToken;
     private String requestedUser;
+    private Integer metricsPort;
+    private MetricsServer metricsServer;
 
     public Launcher(JFrame frame, File workingDirectory, Proxy proxy, PasswordAuthentication proxyAuth, String[] args) {
         this(frame, workingDirectory, proxy, proxyAuth, args, Integer.valueOf(0));
@@ -101,6 +125,16 @@ public class Launcher {
             this.launchDispatcher = new GameLaunchDispatcher(this, this.processArgs(args));
             this.launcher = new com.mojang.launcher.Launcher(this.userInterface, workingDirectory, proxy, proxyAuth, new MinecraftVersionManager(new LocalVersionList(workingDirectory), new RemoteVersionList("https://s3.amazonaws.com/Minecraft.Download/", proxy)), Agent.MINECRAFT, MinecraftReleaseTypeFactory.instance(), 17);
             this.profileManager = new ProfileManager(this);
+            this.crashIndex = new CrashIndex(new File(workingDirectory, "crash_signatures.json"));
+            this.hopperSpool = new HopperSpool(new File(workingDirectory, "crash_spool"), proxy, new HopperSpool.Listener() {
+                public void onReportSent(String key, SubmitResponse response) {
+                    Launcher.this.crashIndex.rememberResponse(key, response);
+                }
+            });
+            this.hopperSpool.start();
+            this.javaRuntimeProbe = new JavaRuntimeProbe(new File(workingDirectory, "launcher_java_runtimes.json"));
+            this.standbyJvmPool = new StandbyJvmPool(new File(workingDirectory, "standby"), HardwareInfo.current().getTotalMemoryMegabytes() / 4L, TimeUnit.MINUTES.toMillis(10L));
+            this.startMetricsServer();
             ((SwingUserInterface) this.userInterface).initializeFrame();
             this.refreshVersionsAndProfiles();
         }
@@ -118,6 +152,7 @@ public class Launcher {
         OptionParser optionParser = new OptionParser();
         optionParser.allowsUnrecognizedOptions();
         ArgumentAcceptingOptionSpec userOption = optionParser.accepts("user").withRequiredArg().ofType(String.class);
+        ArgumentAcceptingOptionSpec metricsPortOption = optionParser.accepts("metricsPort").withRequiredArg().ofType(Integer.class);
         NonOptionArgumentSpec nonOptions = optionParser.nonOptions();
 
         OptionSet optionSet;
@@ -131,24 +166,49 @@ public class Launcher {
             this.requestedUser = (String) optionSet.valueOf((OptionSpec) userOption);
         }
 
+        if (optionSet.has((OptionSpec) metricsPortOption)) {
+            this.metricsPort = (Integer) optionSet.valueOf((OptionSpec) metricsPortOption);
+        }
+
         List remainingOptions = optionSet.valuesOf((OptionSpec) nonOptions);
         return (String[]) remainingOptions.toArray(new String[remainingOptions.size()]);
     }
 
+    private void startMetricsServer() {
+        if (this.metricsPort != null) {
+            try {
+                this.metricsServer = new MetricsServer(MetricRegistry.getDefault(), this.metricsPort.intValue());
+                this.metricsServer.start();
+            } catch (IOException var2) {
+                LOGGER.error("Couldn\'t serve metrics on port " + this.metricsPort, (Throwable) var2);
+            }
+
+        }
+    }
+
     public void refreshVersionsAndProfiles() {
         this.getLauncher().getVersionManager().getExecutorService().submit(new Runnable() {
             public void run() {
+                Trace trace = new Trace("Refresh versions and profiles");
+                Trace.Span span = trace.begin("refresh", "refresh versions");
+
                 try {
                     Launcher.this.getLauncher().getVersionManager().refreshVersions();
-                } catch (Throwable var7) {
-                    Launcher.LOGGER.error("Unexpected exception refreshing version list", var7);
+                } catch (Throwable var11) {
+                    Launcher.LOGGER.error("Unexpected exception refreshing version list", var11);
+                } finally {
+                    span.end();
                 }
 
+                span = trace.begin("refresh", "load profiles");
+
                 try {
                     Launcher.this.profileManager.loadProfiles();
                     Launcher.LOGGER.info("Loaded " + Launcher.this.profileManager.getProfiles().size() + " profile(s); selected \'" + Launcher.this.profileManager.getSelectedProfile().getName() + "\'");
-                } catch (Throwable var6) {
-                    Launcher.LOGGER.error("Unexpected exception refreshing profile list", var6);
+                } catch (Throwable var10) {
+                    Launcher.LOGGER.error("Unexpected exception refreshing profile list", var10);
+                } finally {
+                    span.end();
                 }
 
                 if (Launcher.this.requestedUser != null) {
@@ -176,11 +236,37 @@ public class Launcher {
                     }
                 }
 
-                Launcher.this.ensureLoggedIn();
+                span = trace.begin("refresh", "log in");
+
+                try {
+                    Launcher.this.ensureLoggedIn();
+                } finally {
+                    span.end();
+                    trace.finish();
+                    Launcher.LOGGER.info("Startup trace " + trace.summarise());
+                    Profile profile = Launcher.this.profileManager.getSelectedProfile();
+                    if (profile != null && profile.getRecordLaunchTraces()) {
+                        Launcher.this.saveTrace(trace);
+                    }
+
+                }
+
             }
         });
     }
 
+    public void saveTrace(Trace trace) {
+        File file = new File(this.getLauncher().getWorkingDirectory(), "logs/traces/" + (new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss")).format(new Date()) + "-" + trace.getName().replaceAll("[^\\w.-]", "_") + ".json");
+
+        try {
+            trace.writeChromeTrace(file);
+            LOGGER.info("Saved trace to " + file);
+        } catch (IOException var4) {
+            LOGGER.warn("Couldn\'t save trace to " + file, (Throwable) var4);
+        }
+
+    }
+
     private MinecraftUserInterface selectUserInterface(JFrame frame) {
         return new SwingUserInterface(this, frame);
     }
@@ -204,7 +290,7 @@ public class Launcher {
         } else if (!auth.isLoggedIn()) {
             if (auth.canLogIn()) {
                 try {
-                    auth.logIn();
+                    logIn(auth);
 
                     try {
                         this.profileManager.saveProfiles();
@@ -223,7 +309,7 @@ public class Launcher {
         } else if (!auth.canPlayOnline()) {
             try {
                 LOGGER.info("Refreshing auth...");
-                auth.logIn();
+                logIn(auth);
 
                 try {
                     this.profileManager.saveProfiles();
@@ -242,6 +328,24 @@ public class Launcher {
 
     }
 
+    public static void logIn(UserAuthentication auth) throws AuthenticationException {
+        long start = System.nanoTime();
+
+        try {
+            auth.logIn();
+            LOG_IN_SUCCESSES.increment();
+        } catch (InvalidCredentialsException var8) {
+            LOG_IN_REJECTIONS.increment();
+            throw var8;
+        } catch (AuthenticationException var9) {
+            LOG_IN_FAILURES.increment();
+            throw var9;
+        } finally {
+            LOG_IN_DURATION.recordSince(start);
+        }
+
+    }
+
     public UUID getClientToken() {
         return this.clientToken;
     }
@@ -265,7 +369,23 @@ public class Launcher {
                     CompleteMinecraftVersion len$ = (CompleteMinecraftVersion) arr$.getLocalVersion();
                     String i$ = len$.getAssets() == null ? "legacy" : len$.getAssets();
                     directory = new File(indexDir, i$ + ".json");
-                    AssetIndex files = (AssetIndex) this.gson.fromJson(FileUtils.readFileToString(directory, Charsets.UTF_8), AssetIndex.class);
+
+                    AssetIndex files;
+                    try {
+                        files = (AssetIndex) this.gson.fromJson(FileUtils.readFileToString(directory, Charsets.UTF_8), AssetIndex.class);
+                    } catch (IOException var13) {
+                        LOGGER.warn("Couldn't read asset index " + directory + "; not cleaning up assets", (Throwable) var13);
+                        return;
+                    } catch (JsonParseException var14) {
+                        LOGGER.warn("Couldn't read asset index " + directory + "; not cleaning up assets", (Throwable) var14);
+                        return;
+                    }
+
+                    if (files == null) {
+                        LOGGER.warn("Asset index " + directory + " is empty; not cleaning up assets");
+                        return;
+                    }
+
                     Iterator arr$1 = files.getUniqueObjects().keySet().iterator();
 
                     while (arr$1.hasNext()) {
@@ -370,6 +490,22 @@ public class Launcher {
         }
     }
 
+    public void cleanupOldTraces() {
+        File tracesDir = new File(this.getLauncher().getWorkingDirectory(), "logs/traces");
+        if (tracesDir.isDirectory()) {
+            Collection files = FileUtils.listFiles(tracesDir, new AgeFileFilter(System.currentTimeMillis() - 604800000L), TrueFileFilter.TRUE);
+            if (files != null) {
+                Iterator i$ = files.iterator();
+
+                while (i$.hasNext()) {
+                    File file = (File) i$.next();
+                    LOGGER.info("Cleaning up old trace {}", new Object[]{file.getName()});
+                    FileUtils.deleteQuietly(file);
+                }
+            }
+        }
+    }
+
     public void cleanupOldVirtuals() throws IOException {
         File assetsDir = new File(this.getLauncher().getWorkingDirectory(), "assets");
         File virtualsDir = new File(assetsDir, "virtual");
@@ -422,8 +558,10 @@ public class Launcher {
 
                         for (int i$1 = 0; i$1 < len$1; ++i$1) {
                             File folder = arr$1[i$1];
-                            LOGGER.debug("Deleting " + folder);
-                            FileUtils.deleteQuietly(folder);
+                            if (!this.launchDispatcher.isLaunchPlanDirectory(folder)) {
+                                LOGGER.debug("Deleting " + folder);
+                                FileUtils.deleteQuietly(folder);
+                            }
                         }
                     }
                 }
@@ -541,6 +679,7 @@ public class Launcher {
         this.cleanupOrphanedVersions();
         this.cleanupOrphanedAssets();
         this.cleanupOldSkins();
+        this.cleanupOldTraces();
         this.cleanupOldNatives();
         this.cleanupOldVirtuals();
     }
@@ -549,6 +688,22 @@ public class Launcher {
         return this.profileManager;
     }
 
+    public CrashIndex getCrashIndex() {
+        return this.crashIndex;
+    }
+
+    public HopperSpool getHopperSpool() {
+        return this.hopperSpool;
+    }
+
+    public JavaRuntimeProbe getJavaRuntimeProbe() {
+        return this.javaRuntimeProbe;
+    }
+
+    public StandbyJvmPool getStandbyJvmPool() {
+        return this.standbyJvmPool;
+    }
+
     public GameLaunchDispatcher getLaunchDispatcher() {
         return this.launchDispatcher;
     }
@@ -0,0 +1,354 @@
+package net.minecraft.launcher;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.gson.GsonBuilder;
+import com.mojang.authlib.Agent;
+import com.mojang.launcher.updater.DownloadProgress;
+import com.mojang.launcher.updater.VersionSyncInfo;
+import com.mojang.launcher.updater.download.DownloadJob;
+import com.mojang.launcher.updater.download.DownloadListener;
+import com.mojang.launcher.updater.download.Downloadable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import joptsimple.ArgumentAcceptingOptionSpec;
+import joptsimple.NonOptionArgumentSpec;
+import joptsimple.OptionException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+import net.minecraft.launcher.game.MinecraftReleaseTypeFactory;
+import net.minecraft.launcher.updater.CompleteMinecraftVersion;
+import net.minecraft.launcher.updater.LocalVersionList;
+import net.minecraft.launcher.updater.MinecraftVersionManager;
+import net.minecraft.launcher.updater.RemoteVersionList;
+import org.apache.commons.io.Charsets;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class Provisioner implements DownloadListener {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int LAUNCHER_FORMAT_VERSION = 17;
+    private final HeadlessUserInterface userInterface = new HeadlessUserInterface();
+    private final com.mojang.launcher.Launcher launcher;
+    private final MinecraftVersionManager versionManager;
+    private final List<DownloadJob> jobs = Lists.newArrayList();
+
+    public Provisioner(File workingDirectory, Proxy proxy, int threads) {
+        this.versionManager = new MinecraftVersionManager(new LocalVersionList(workingDirectory), new RemoteVersionList("https://s3.amazonaws.com/Minecraft.Download/", proxy));
+        this.launcher = new com.mojang.launcher.Launcher(this.userInterface, workingDirectory, proxy, (java.net.PasswordAuthentication) null, this.versionManager, Agent.MINECRAFT, MinecraftReleaseTypeFactory.instance(), LAUNCHER_FORMAT_VERSION);
+        ThreadPoolExecutor executor = this.launcher.getDownloaderExecutorService();
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+
+    }
+
+    public Provisioner.Report provision(List<String> versionIds) {
+        long start = System.nanoTime();
+        Provisioner.Report report = new Provisioner.Report(this.launcher.getWorkingDirectory());
+
+        try {
+            this.versionManager.refreshVersions();
+        } catch (IOException var10) {
+            LOGGER.error("Couldn\'t refresh version lists", (Throwable) var10);
+            report.error = "Couldn't refresh version lists: " + var10;
+        }
+
+        List<Provisioner.VersionReport> started = Lists.newArrayList();
+        Iterator i$ = versionIds.iterator();
+
+        while (i$.hasNext()) {
+            String id = (String) i$.next();
+            Provisioner.VersionReport versionReport = new Provisioner.VersionReport(id);
+            report.versions.add(versionReport);
+            if (report.error == null) {
+                try {
+                    this.startVersion(versionReport);
+                    started.add(versionReport);
+                } catch (IOException var9) {
+                    LOGGER.error("Couldn\'t provision " + id, (Throwable) var9);
+                    versionReport.error = var9.toString();
+                }
+            }
+        }
+
+        this.awaitJobs();
+        i$ = started.iterator();
+
+        while (i$.hasNext()) {
+            ((Provisioner.VersionReport) i$.next()).verify();
+        }
+
+        report.summarise(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        this.launcher.getDownloaderExecutorService().shutdown();
+        this.versionManager.getExecutorService().shutdown();
+        return report;
+    }
+
+    private void startVersion(Provisioner.VersionReport versionReport) throws IOException {
+        VersionSyncInfo syncInfo = this.versionManager.getVersionSyncInfo(versionReport.id);
+        if (syncInfo != null && syncInfo.getLatestVersion() != null) {
+            CompleteMinecraftVersion version = this.versionManager.getLatestCompleteVersion(syncInfo);
+            if (version.getMinimumLauncherVersion() > LAUNCHER_FORMAT_VERSION) {
+                throw new IOException("Version " + version.getId() + " needs a newer launcher");
+            } else {
+                if (!syncInfo.isInstalled() || !syncInfo.isUpToDate()) {
+                    this.versionManager.installVersion(version);
+                }
+
+                DownloadJob versionJob = new DownloadJob("Version & Libraries (" + version.getId() + ")", false, this);
+                DownloadJob resourceJob = new DownloadJob("Resources (" + version.getId() + ")", false, this);
+                this.versionManager.downloadVersion(syncInfo, versionJob);
+                this.versionManager.downloadResources(resourceJob, version);
+                synchronized (this) {
+                    this.jobs.add(versionJob);
+                    this.jobs.add(resourceJob);
+                }
+
+                versionReport.jobs.add(versionJob);
+                versionReport.jobs.add(resourceJob);
+                versionReport.assetIndex = new File(this.launcher.getWorkingDirectory(), "assets/indexes/" + (version.getAssets() == null ? "legacy" : version.getAssets()) + ".json");
+                versionJob.startDownloading(this.launcher.getDownloaderExecutorService());
+                resourceJob.startDownloading(this.launcher.getDownloaderExecutorService());
+            }
+        } else {
+            throw new IOException("Unknown version " + versionReport.id);
+        }
+    }
+
+    private synchronized void awaitJobs() {
+        while (this.hasRemainingJobs()) {
+            try {
+                this.wait(1000L);
+            } catch (InterruptedException var2) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long total = 0L;
+            long current = 0L;
+            Iterator i$ = this.jobs.iterator();
+
+            while (i$.hasNext()) {
+                Iterator i$1 = ((DownloadJob) i$.next()).getAllFiles().iterator();
+
+                while (i$1.hasNext()) {
+                    Downloadable file = (Downloadable) i$1.next();
+                    total += file.getMonitor().getTotal();
+                    current += file.getMonitor().getCurrent();
+                }
+            }
+
+            this.userInterface.setDownloadProgress(new DownloadProgress(current, total, this.jobs.size() + " jobs"));
+        }
+
+        this.userInterface.hideDownloadProgress();
+    }
+
+    private synchronized boolean hasRemainingJobs() {
+        Iterator i$ = this.jobs.iterator();
+
+        DownloadJob job;
+        do {
+            if (!i$.hasNext()) {
+                return false;
+            }
+
+            job = (DownloadJob) i$.next();
+        } while (job.isComplete());
+
+        return true;
+    }
+
+    public synchronized void onDownloadJobFinished(DownloadJob job) {
+        LOGGER.info("Job \'" + job.getName() + "\' finished with " + job.getFailures() + " failure(s) (took " + job.getStopWatch().toString() + ")");
+        this.notifyAll();
+    }
+
+    public void onDownloadJobProgressChanged(DownloadJob job) {
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        OptionParser optionParser = new OptionParser();
+        ArgumentAcceptingOptionSpec workDirOption = optionParser.accepts("workDir", "Launcher working directory to provision").withRequiredArg().ofType(File.class).required();
+        ArgumentAcceptingOptionSpec versionOption = optionParser.accepts("version", "Version to install; may be repeated or comma separated").withRequiredArg().ofType(String.class).withValuesSeparatedBy(',');
+        ArgumentAcceptingOptionSpec threadsOption = optionParser.accepts("threads", "Concurrent downloads").withRequiredArg().ofType(Integer.class).defaultsTo(Integer.valueOf(16), new Integer[0]);
+        ArgumentAcceptingOptionSpec reportOption = optionParser.accepts("report", "Write the JSON report here").withRequiredArg().ofType(File.class).required();
+        ArgumentAcceptingOptionSpec proxyHostOption = optionParser.accepts("proxyHost").withRequiredArg().ofType(String.class);
+        ArgumentAcceptingOptionSpec proxyPortOption = optionParser.accepts("proxyPort").withRequiredArg().ofType(Integer.class).defaultsTo(Integer.valueOf(8080), new Integer[0]);
+        NonOptionArgumentSpec nonOptions = optionParser.nonOptions();
+
+        OptionSet optionSet;
+        try {
+            optionSet = optionParser.parse(args);
+        } catch (OptionException var15) {
+            System.err.println(var15.getMessage());
+
+            try {
+                optionParser.printHelpOn(System.err);
+            } catch (IOException var14) {
+                ;
+            }
+
+            System.exit(2);
+            return;
+        }
+
+        List<String> versions = Lists.newArrayList((Iterable) optionSet.valuesOf((OptionSpec) versionOption));
+        versions.addAll(optionSet.valuesOf((OptionSpec) nonOptions));
+        if (versions.isEmpty()) {
+            System.err.println("No versions given; use --version <id>");
+            System.exit(2);
+        }
+
+        Proxy proxy = Proxy.NO_PROXY;
+        if (optionSet.has((OptionSpec) proxyHostOption)) {
+            proxy = new Proxy(Proxy.Type.SOCKS, new InetSocketAddress((String) optionSet.valueOf((OptionSpec) proxyHostOption), ((Integer) optionSet.valueOf((OptionSpec) proxyPortOption)).intValue()));
+        }
+
+        File workingDirectory = (File) optionSet.valueOf((OptionSpec) workDirOption);
+        if (!workingDirectory.isDirectory() && !workingDirectory.mkdirs()) {
+            System.err.println("Couldn't create " + workingDirectory);
+            System.exit(2);
+        }
+
+        Provisioner.Report report = (new Provisioner(workingDirectory, proxy, Math.max(1, ((Integer) optionSet.valueOf((OptionSpec) threadsOption)).intValue()))).provision(versions);
+        String json = (new GsonBuilder()).setPrettyPrinting().disableHtmlEscaping().create().toJson(report);
+        try {
+            FileUtils.writeStringToFile((File) optionSet.valueOf((OptionSpec) reportOption), json, Charsets.UTF_8);
+        } catch (IOException var13) {
+            LOGGER.error("Couldn\'t write report", (Throwable) var13);
+            System.exit(2);
+        }
+
+        System.exit(report.successful ? 0 : 1);
+    }
+
+    static class Report {
+
+        private final String workingDirectory;
+        private final List<Provisioner.VersionReport> versions = Lists.newArrayList();
+        private String error;
+        private boolean successful;
+        private long durationMillis;
+        private int files;
+        private long bytes;
+        private int failures;
+
+        private Report(File workingDirectory) {
+            this.workingDirectory = workingDirectory.getAbsolutePath();
+        }
+
+        private void summarise(long durationMillis) {
+            this.durationMillis = durationMillis;
+            this.successful = this.error == null;
+            Iterator i$ = this.versions.iterator();
+
+            while (i$.hasNext()) {
+                Provisioner.VersionReport version = (Provisioner.VersionReport) i$.next();
+                this.files += version.files;
+                this.bytes += version.bytes;
+                this.failures += version.failures.size();
+                if (!version.successful) {
+                    this.successful = false;
+                }
+            }
+
+        }
+    }
+
+    static class VersionReport {
+
+        private final String id;
+        private final transient List<DownloadJob> jobs = Lists.newArrayList();
+        private transient File assetIndex;
+        private final List<Provisioner.Failure> failures = Lists.newArrayList();
+        private String error;
+        private boolean successful;
+        private long durationMillis;
+        private int files;
+        private long bytes;
+
+        private VersionReport(String id) {
+            this.id = id;
+        }
+
+        private void verify() {
+            Iterator i$ = this.jobs.iterator();
+
+            while (i$.hasNext()) {
+                DownloadJob job = (DownloadJob) i$.next();
+                this.durationMillis = Math.max(this.durationMillis, job.getStopWatch().getTime());
+                if (job.getStreamingError() != null && this.error == null) {
+                    this.error = job.getName() + ": " + job.getStreamingError();
+                }
+
+                Iterator i$1 = job.getFailedFiles().iterator();
+
+                Set<Downloadable> failed = Sets.newIdentityHashSet();
+
+                Downloadable file;
+                while (i$1.hasNext()) {
+                    file = (Downloadable) i$1.next();
+                    if (failed.add(file)) {
+                        this.failures.add(new Provisioner.Failure(file, "download failed"));
+                    }
+                }
+
+                i$1 = job.getAllFiles().iterator();
+
+                while (i$1.hasNext()) {
+                    file = (Downloadable) i$1.next();
+                    File target = file.getTarget();
+                    ++this.files;
+                    if (failed.contains(file)) {
+                        continue;
+                    }
+
+                    if (!target.isFile()) {
+                        this.failures.add(new Provisioner.Failure(file, "missing after download"));
+                    } else {
+                        this.bytes += target.length();
+                        if (file.getExpectedSize() > 0L && target.length() != file.getExpectedSize()) {
+                            this.failures.add(new Provisioner.Failure(file, "expected " + file.getExpectedSize() + " bytes but found " + target.length()));
+                        }
+                    }
+                }
+            }
+
+            if (this.assetIndex != null && !this.assetIndex.isFile() && this.error == null) {
+                this.error = "Asset index " + this.assetIndex + " is missing";
+            }
+
+            this.successful = this.error == null && this.failures.isEmpty();
+        }
+    }
+
+    static class Failure {
+
+        private final String url;
+        private final String target;
+        private final String reason;
+
+        private Failure(Downloadable file, String reason) {
+            this.url = String.valueOf(file.getUrl());
+            this.target = file.getTarget().getAbsolutePath();
+            this.reason = reason;
+        }
+    }
+}
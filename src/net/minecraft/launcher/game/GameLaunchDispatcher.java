@@ -10,6 +10,9 @@ import com.mojang.launcher.game.runner.GameRunnerListener;
 import com.mojang.launcher.updater.VersionSyncInfo;
 import java.io.File;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import net.minecraft.launcher.Launcher;
 import net.minecraft.launcher.profile.LauncherVisibilityRule;
@@ -22,7 +25,8 @@ public class GameLaunchDispatcher implements GameRunnerListener {
     private final String[] additionalLaunchArgs;
     private final ReentrantLock lock = new ReentrantLock();
     private final BiMap<UserAuthentication, MinecraftGameRunner> instances = HashBiMap.create();
-    private boolean downloadInProgress = false;
+    private final ConcurrentMap<String, LaunchPlan> launchPlans = new ConcurrentHashMap();
+    private final ConcurrentMap<String, ReentrantLock> preparationLocks = new ConcurrentHashMap();
 
     public GameLaunchDispatcher(Launcher launcher, String[] additionalLaunchArgs) {
         this.launcher = launcher;
@@ -36,23 +40,19 @@ public class GameLaunchDispatcher implements GameRunnerListener {
         if (user != null && user.isLoggedIn() && profile != null && !this.launcher.getLauncher().getVersionManager().getVersions(profile.getVersionFilter()).isEmpty()) {
             this.lock.lock();
 
-            GameLaunchDispatcher.PlayStatus var4;
+            GameLaunchDispatcher.PlayStatus var5;
             try {
-                if (!this.downloadInProgress) {
-                    if (!this.instances.containsKey(user)) {
-                        return user.getSelectedProfile() == null ? GameLaunchDispatcher.PlayStatus.CAN_PLAY_DEMO : (user.canPlayOnline() ? GameLaunchDispatcher.PlayStatus.CAN_PLAY_ONLINE : GameLaunchDispatcher.PlayStatus.CAN_PLAY_OFFLINE);
-                    }
-
-                    var4 = GameLaunchDispatcher.PlayStatus.ALREADY_PLAYING;
-                    return var4;
+                GameRunner instance = (GameRunner) this.instances.get(user);
+                if (instance == null) {
+                    return user.getSelectedProfile() == null ? GameLaunchDispatcher.PlayStatus.CAN_PLAY_DEMO : (user.canPlayOnline() ? GameLaunchDispatcher.PlayStatus.CAN_PLAY_ONLINE : GameLaunchDispatcher.PlayStatus.CAN_PLAY_OFFLINE);
                 }
 
-                var4 = GameLaunchDispatcher.PlayStatus.DOWNLOADING;
+                var5 = instance.getStatus() == GameInstanceStatus.PLAYING ? GameLaunchDispatcher.PlayStatus.ALREADY_PLAYING : GameLaunchDispatcher.PlayStatus.DOWNLOADING;
             } finally {
                 this.lock.unlock();
             }
 
-            return var4;
+            return var5;
         } else {
             return GameLaunchDispatcher.PlayStatus.LOADING;
         }
@@ -83,17 +83,16 @@ public class GameLaunchDispatcher implements GameRunnerListener {
         final Profile profile = profileManager.getSelectedProfile();
         UserAuthentication user = profileManager.getSelectedUser() == null ? null : profileManager.getAuthDatabase().getByUUID(profileManager.getSelectedUser());
         final String lastVersionId = profile.getLastVersionId();
-        final MinecraftGameRunner gameRunner = new MinecraftGameRunner(this.launcher, this.additionalLaunchArgs);
+        final MinecraftGameRunner gameRunner = new MinecraftGameRunner(this.launcher, this.additionalLaunchArgs, profile, user);
         gameRunner.setStatus(GameInstanceStatus.PREPARING);
         this.lock.lock();
 
         try {
-            if (this.instances.containsKey(user) || this.downloadInProgress) {
+            if (this.instances.containsKey(user)) {
                 return;
             }
 
             this.instances.put(user, gameRunner);
-            this.downloadInProgress = true;
         } finally {
             this.lock.unlock();
         }
@@ -124,23 +123,75 @@ public class GameLaunchDispatcher implements GameRunnerListener {
             if (status == GameInstanceStatus.IDLE) {
                 this.instances.inverse().remove(runner);
             }
+        } finally {
+            this.lock.unlock();
+        }
 
-            this.downloadInProgress = false;
-            Iterator i$ = this.instances.values().iterator();
+        this.launcher.getUserInterface().updatePlayState();
+    }
 
-            while (true) {
-                if (i$.hasNext()) {
-                    GameRunner instance = (GameRunner) i$.next();
-                    if (instance.getStatus() == GameInstanceStatus.PLAYING) {
-                        continue;
-                    }
+    public Lock getPreparationLock(String key) {
+        ReentrantLock result = (ReentrantLock) this.preparationLocks.get(key);
+        if (result == null) {
+            ReentrantLock created = new ReentrantLock();
+            result = (ReentrantLock) this.preparationLocks.putIfAbsent(key, created);
+            if (result == null) {
+                result = created;
+            }
+        }
 
-                    this.downloadInProgress = true;
-                }
+        return result;
+    }
 
-                this.launcher.getUserInterface().updatePlayState();
-                return;
+    public LaunchPlan getLaunchPlan(Profile profile) {
+        return (LaunchPlan) this.launchPlans.get(profile.getName());
+    }
+
+    public void rememberLaunchPlan(Profile profile, LaunchPlan plan) {
+        LaunchPlan previous = (LaunchPlan) this.launchPlans.put(profile.getName(), plan);
+        if (previous != null && !previous.getNativesDirectory().equals(plan.getNativesDirectory())) {
+            previous.discard();
+        }
+
+    }
+
+    public void forgetLaunchPlan(Profile profile, LaunchPlan plan) {
+        if (this.launchPlans.remove(profile.getName(), plan)) {
+            plan.discard();
+        }
+
+    }
+
+    public boolean isLaunchPlanDirectory(File directory) {
+        Iterator i$ = this.launchPlans.values().iterator();
+
+        LaunchPlan plan;
+        do {
+            if (!i$.hasNext()) {
+                return false;
             }
+
+            plan = (LaunchPlan) i$.next();
+        } while (!plan.getNativesDirectory().getAbsoluteFile().equals(directory.getAbsoluteFile()));
+
+        return true;
+    }
+
+    public boolean isPreparingOtherGame(MinecraftGameRunner runner) {
+        this.lock.lock();
+
+        try {
+            Iterator i$ = this.instances.values().iterator();
+
+            while (i$.hasNext()) {
+                MinecraftGameRunner other = (MinecraftGameRunner) i$.next();
+                if (other != runner && (other.getStatus() != GameInstanceStatus.PLAYING && other.getStatus() != GameInstanceStatus.IDLE || other.isDownloadingInBackground())) {
+                    boolean var4 = true;
+                    return var4;
+                }
+            }
+
+            return false;
         } finally {
             this.lock.unlock();
         }
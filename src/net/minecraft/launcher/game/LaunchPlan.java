@@ -0,0 +1,148 @@
+package net.minecraft.launcher.game;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.mojang.launcher.game.runtime.ClassDataSharing;
+import com.mojang.launcher.updater.VersionSyncInfo;
+import java.io.File;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import net.minecraft.launcher.profile.Profile;
+import net.minecraft.launcher.updater.CompleteMinecraftVersion;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+
+public final class LaunchPlan {
+
+    private final CompleteMinecraftVersion version;
+    private final String profileSettings;
+    private final String javaPath;
+    private final List<String> jvmArguments;
+    private final File nativesDirectory;
+    private final String classPath;
+    private final File gameDirectory;
+    private final File assetsDirectory;
+    private final ClassDataSharing.Archive classDataArchive;
+    private final List<LaunchPlan.Fingerprint> fingerprints;
+
+    public LaunchPlan(CompleteMinecraftVersion version, Profile profile, String javaPath, List<String> jvmArguments, File nativesDirectory, String classPath, File gameDirectory, File assetsDirectory, ClassDataSharing.Archive classDataArchive, Collection<File> dependencies) {
+        this.version = version;
+        this.profileSettings = getProfileSettings(profile);
+        this.javaPath = javaPath;
+        this.jvmArguments = ImmutableList.copyOf((Collection) jvmArguments);
+        this.nativesDirectory = nativesDirectory;
+        this.classPath = classPath;
+        this.gameDirectory = gameDirectory;
+        this.assetsDirectory = assetsDirectory;
+        this.classDataArchive = classDataArchive;
+        ImmutableList.Builder<LaunchPlan.Fingerprint> builder = ImmutableList.builder();
+        Iterator i$ = dependencies.iterator();
+
+        while (i$.hasNext()) {
+            builder.add(new LaunchPlan.Fingerprint((File) i$.next()));
+        }
+
+        String[] entries = classPath.split(File.pathSeparator);
+
+        for (int i = 0; i < entries.length; ++i) {
+            builder.add(new LaunchPlan.Fingerprint(new File(entries[i])));
+        }
+
+        if (nativesDirectory.isDirectory()) {
+            i$ = FileUtils.listFiles(nativesDirectory, TrueFileFilter.TRUE, TrueFileFilter.TRUE).iterator();
+
+            while (i$.hasNext()) {
+                builder.add(new LaunchPlan.Fingerprint((File) i$.next()));
+            }
+        }
+
+        this.fingerprints = builder.build();
+    }
+
+    public String getStaleReason(VersionSyncInfo syncInfo, Profile profile) {
+        if (syncInfo == null || syncInfo.getLatestVersion() == null || !this.version.getId().equals(syncInfo.getLatestVersion().getId())) {
+            return "a different version was selected";
+        } else if (!syncInfo.isInstalled() || !syncInfo.isUpToDate()) {
+            return "version " + this.version.getId() + " has an update";
+        } else if (!this.profileSettings.equals(getProfileSettings(profile))) {
+            return "the profile's settings changed";
+        } else if (!this.nativesDirectory.isDirectory() || !this.gameDirectory.isDirectory() || !this.assetsDirectory.isDirectory()) {
+            return "its directories are missing";
+        } else {
+            Iterator i$ = this.fingerprints.iterator();
+
+            LaunchPlan.Fingerprint fingerprint;
+            do {
+                if (!i$.hasNext()) {
+                    return null;
+                }
+
+                fingerprint = (LaunchPlan.Fingerprint) i$.next();
+            } while (fingerprint.matches());
+
+            return fingerprint.file + " changed";
+        }
+    }
+
+    public void discard() {
+        FileUtils.deleteQuietly(this.nativesDirectory);
+    }
+
+    public CompleteMinecraftVersion getVersion() {
+        return this.version;
+    }
+
+    public String getJavaPath() {
+        return this.javaPath;
+    }
+
+    public List<String> getJvmArguments() {
+        return this.jvmArguments;
+    }
+
+    public File getNativesDirectory() {
+        return this.nativesDirectory;
+    }
+
+    public String getClassPath() {
+        return this.classPath;
+    }
+
+    public File getGameDirectory() {
+        return this.gameDirectory;
+    }
+
+    public File getAssetsDirectory() {
+        return this.assetsDirectory;
+    }
+
+    public ClassDataSharing.Archive getClassDataArchive() {
+        return this.classDataArchive;
+    }
+
+    public String toString() {
+        return Objects.toStringHelper((Object) this).add("version", this.version.getId()).add("javaPath", this.javaPath).add("nativesDirectory", this.nativesDirectory).add("gameDirectory", this.gameDirectory).add("fingerprints", this.fingerprints.size()).toString();
+    }
+
+    private static String getProfileSettings(Profile profile) {
+        return profile.getName() + "|" + profile.getJavaPath() + "|" + profile.getJavaArgs() + "|" + profile.getGameDir() + "|" + profile.getUseClassDataSharing();
+    }
+
+    private static final class Fingerprint {
+
+        private final File file;
+        private final long length;
+        private final long lastModified;
+
+        private Fingerprint(File file) {
+            this.file = file;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        private boolean matches() {
+            return this.file.length() == this.length && this.file.lastModified() == this.lastModified;
+        }
+    }
+}
@@ -2,6 +2,11 @@ package net.minecraft.launcher.game;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.mojang.authlib.UserAuthentication;
@@ -10,16 +15,36 @@ import com.mojang.authlib.properties.PropertyMap;
 import com.mojang.authlib.yggdrasil.YggdrasilUserAuthentication;
 import com.mojang.launcher.LegacyPropertyMapSerializer;
 import com.mojang.launcher.OperatingSystem;
+import com.mojang.launcher.events.GameOutputLogProcessor;
 import com.mojang.launcher.game.GameInstanceStatus;
+import com.mojang.launcher.game.log.GameLogArchive;
+import com.mojang.launcher.game.log.GameLogArchiveListener;
+import com.mojang.launcher.game.log.GameOutputScanListener;
+import com.mojang.launcher.game.log.GameOutputScanner;
+import com.mojang.launcher.game.log.GameOutputSignature;
 import com.mojang.launcher.game.process.GameProcess;
 import com.mojang.launcher.game.process.GameProcessBuilder;
 import com.mojang.launcher.game.process.GameProcessFactory;
 import com.mojang.launcher.game.process.GameProcessRunnable;
+import com.mojang.launcher.game.process.ProcessTelemetryListener;
 import com.mojang.launcher.game.process.direct.DirectGameProcessFactory;
+import com.mojang.launcher.game.process.direct.StandbyJvmPool;
 import com.mojang.launcher.game.runner.AbstractGameRunner;
+import com.mojang.launcher.game.runner.LaunchStage;
+import com.mojang.launcher.game.runtime.ClassDataSharing;
+import com.mojang.launcher.game.runtime.DefaultJvmArguments;
+import com.mojang.launcher.game.runtime.HardwareInfo;
+import com.mojang.launcher.game.runtime.JavaRuntime;
+import com.mojang.launcher.game.runtime.JavaRuntimeProbe;
+import com.mojang.launcher.metrics.Counter;
+import com.mojang.launcher.metrics.Histogram;
+import com.mojang.launcher.metrics.MetricRegistry;
+import com.mojang.launcher.trace.Trace;
 import com.mojang.launcher.updater.DateTypeAdapter;
 import com.mojang.launcher.updater.VersionSyncInfo;
+import com.mojang.launcher.updater.download.DownloadJob;
 import com.mojang.launcher.updater.download.Downloadable;
+import com.mojang.launcher.updater.download.assets.AssetDownloadable;
 import com.mojang.launcher.updater.download.assets.AssetIndex;
 import com.mojang.launcher.versions.ExtractRules;
 import com.mojang.util.UUIDTypeAdapter;
@@ -34,15 +59,22 @@ import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
 import java.net.PasswordAuthentication;
 import java.net.Proxy;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import net.minecraft.launcher.Launcher;
@@ -61,6 +93,15 @@ import org.apache.commons.lang3.text.StrSubstitutor;
 public class MinecraftGameRunner extends AbstractGameRunner implements GameProcessRunnable {
 
     private static final String CRASH_IDENTIFIER_MAGIC = "#@!@#";
+    private static final String[] STANDBY_NATIVE_GROUPS = new String[]{"org.lwjgl:", "org.lwjgl.", "net.java.jinput:"};
+    private static final String[] BOOT_ASSET_PREFIXES = new String[]{"icons/", "pack.mcmeta", "minecraft/lang/", "minecraft/sounds.json", "minecraft/font/", "minecraft/texts/", "realms/lang/"};
+    private static final int BACKGROUND_DOWNLOAD_THREADS = 2;
+    private static final Counter FRESH_LAUNCHES = MetricRegistry.getDefault().counter("launcher_game_launches_total", "Game processes started, by whether a standby JVM was used", new String[]{"jvm", "fresh"});
+    private static final Counter STANDBY_LAUNCHES = MetricRegistry.getDefault().counter("launcher_game_launches_total", "Game processes started, by whether a standby JVM was used", new String[]{"jvm", "standby"});
+    private static final Counter REUSED_PLANS = MetricRegistry.getDefault().counter("launcher_launch_plans_total", "Launches that looked for a cached launch plan, by outcome", new String[]{"result", "reused"});
+    private static final Counter STALE_PLANS = MetricRegistry.getDefault().counter("launcher_launch_plans_total", "Launches that looked for a cached launch plan, by outcome", new String[]{"result", "stale"});
+    private static final Counter MISSING_PLANS = MetricRegistry.getDefault().counter("launcher_launch_plans_total", "Launches that looked for a cached launch plan, by outcome", new String[]{"result", "missing"});
+    private static final Histogram TIME_TO_FIRST_OUTPUT = MetricRegistry.getDefault().histogram("launcher_launch_first_output_milliseconds", "Time from pressing Play until the game printed its first line", 3600000L, new String[0]);
     private final Gson gson = new Gson();
     private final DateTypeAdapter dateAdapter = new DateTypeAdapter();
     private final Launcher minecraftLauncher;
@@ -70,11 +111,27 @@ public class MinecraftGameRunner extends AbstractGameRunner implements GameProce
     private LauncherVisibilityRule visibilityRule;
     private UserAuthentication auth;
     private Profile selectedProfile;
-
-    public MinecraftGameRunner(Launcher minecraftLauncher, String[] additionalLaunchArgs) {
+    private GameLogArchive.Session logSession;
+    private GameOutputScanner outputScanner;
+    private LaunchStage<File> nativesStage;
+    private LaunchStage<String> classPathStage;
+    private LaunchStage<File> assetsStage;
+    private LaunchStage<File> gameDirectoryStage;
+    private LaunchStage<JavaRuntime> runtimeStage;
+    private LaunchStage<ClassDataSharing.Archive> classDataStage;
+    private ClassDataSharing.Archive classDataArchive;
+    private StandbyJvmPool.Key standbyKey;
+    private DownloadJob versionJob;
+    private DownloadJob resourceJob;
+    private volatile DownloadJob backgroundJob;
+    private final AtomicBoolean closeAfterBackgroundJob = new AtomicBoolean();
+
+    public MinecraftGameRunner(Launcher minecraftLauncher, String[] additionalLaunchArgs, Profile selectedProfile, UserAuthentication auth) {
         this.visibilityRule = LauncherVisibilityRule.CLOSE_LAUNCHER;
         this.minecraftLauncher = minecraftLauncher;
         this.additionalLaunchArgs = additionalLaunchArgs;
+        this.selectedProfile = selectedProfile;
+        this.auth = auth;
     }
 
     protected void setStatus(GameInstanceStatus status) {
@@ -104,129 +161,444 @@ public class MinecraftGameRunner extends AbstractGameRunner implements GameProce
     }
 
     protected void downloadRequiredFiles(VersionSyncInfo syncInfo) {
-        this.migrateOldAssets();
+        Lock assetsLock = this.getPreparationLock("assets");
+        assetsLock.lock();
+
+        try {
+            this.migrateOldAssets();
+        } finally {
+            assetsLock.unlock();
+        }
+
         super.downloadRequiredFiles(syncInfo);
     }
 
-    protected void launchGame() throws IOException {
-        LOGGER.info("Launching game");
-        this.selectedProfile = this.minecraftLauncher.getProfileManager().getSelectedProfile();
-        this.auth = this.minecraftLauncher.getProfileManager().getAuthDatabase().getByUUID(this.minecraftLauncher.getProfileManager().getSelectedUser());
-        if (this.getVersion() == null) {
-            LOGGER.error("Aborting launch; version is null?");
-        } else {
-            this.nativeDir = new File(this.getLauncher().getWorkingDirectory(), "versions/" + this.getVersion().getId() + "/" + this.getVersion().getId() + "-natives-" + System.nanoTime());
-            if (!this.nativeDir.isDirectory()) {
-                this.nativeDir.mkdirs();
-            }
+    protected Lock getPreparationLock(String key) {
+        return this.minecraftLauncher.getLaunchDispatcher().getPreparationLock(key);
+    }
 
-            LOGGER.info("Unpacking natives to " + this.nativeDir);
+    protected void prepareLaunch(DownloadJob versionJob, DownloadJob resourceJob) {
+        final CompleteMinecraftVersion version = this.getVersion();
+        final Profile profile = this.selectedProfile;
+        ThreadPoolExecutor executor = this.getLauncher().getVersionManager().getExecutorService();
+        Trace trace = this.getTrace();
+        ListenableFuture versionReady = this.getJobResult(versionJob);
+        ListenableFuture resourcesReady = this.getJobResult(resourceJob);
+        this.versionJob = versionJob;
+        this.resourceJob = resourceJob;
+        this.backgroundJob = null;
+        if (profile.getPlayWhileDownloading()) {
+            final ListenableFuture allResources = resourcesReady;
+            resourcesReady = Futures.transform(resourceJob.prioritise(new Predicate<Downloadable>() {
+                public boolean apply(Downloadable input) {
+                    return input instanceof AssetDownloadable && MinecraftGameRunner.isBootAsset(((AssetDownloadable) input).getName());
+                }
+            }), new AsyncFunction<DownloadJob, DownloadJob>() {
+                public ListenableFuture<DownloadJob> apply(DownloadJob job) {
+                    if (MinecraftGameRunner.this.isVirtualAssetIndex(version)) {
+                        MinecraftGameRunner.LOGGER.info("Assets for " + version.getId() + " have to be reconstructed before launch; waiting for all resources");
+                        return allResources;
+                    } else {
+                        MinecraftGameRunner.LOGGER.info("Boot assets are present; remaining resources will download in the background");
+                        MinecraftGameRunner.this.backgroundJob = job;
+                        return Futures.immediateFuture(job);
+                    }
+                }
+            });
+        }
 
-            try {
-                this.unpackNatives(this.nativeDir);
-            } catch (IOException var11) {
-                LOGGER.error("Couldn\'t unpack natives!", (Throwable) var11);
-                return;
+        this.nativesStage = (new LaunchStage("natives", new Callable<File>() {
+            public File call() throws IOException {
+                File dir = new File(MinecraftGameRunner.this.getLauncher().getWorkingDirectory(), "versions/" + version.getId() + "/" + version.getId() + "-natives-" + System.nanoTime());
+                Object var2 = MinecraftGameRunner.this.lock;
+                synchronized (MinecraftGameRunner.this.lock) {
+                    if (MinecraftGameRunner.this.getStatus() == GameInstanceStatus.IDLE) {
+                        throw new IOException("Launch was cancelled");
+                    }
+
+                    MinecraftGameRunner.this.nativeDir = dir;
+                }
+
+                if (!dir.isDirectory()) {
+                    dir.mkdirs();
+                }
+
+                MinecraftGameRunner.LOGGER.info("Unpacking natives to " + dir);
+                MinecraftGameRunner.this.unpackNatives(version, dir);
+                return dir;
+            }
+        }, new ListenableFuture[]{versionReady})).withTrace(trace).start(executor);
+        this.classPathStage = (new LaunchStage("classpath", new Callable<String>() {
+            public String call() {
+                return MinecraftGameRunner.this.constructClassPath(version);
             }
+        }, new ListenableFuture[]{versionReady})).withTrace(trace).start(executor);
+        this.assetsStage = (new LaunchStage("assets", new Callable<File>() {
+            public File call() throws IOException {
+                Lock assetsLock = MinecraftGameRunner.this.getPreparationLock("assets:" + (version.getAssets() == null ? "legacy" : version.getAssets()));
+                assetsLock.lock();
 
-            File assetsDir;
-            try {
-                assetsDir = this.reconstructAssets();
-            } catch (IOException var10) {
-                LOGGER.error("Couldn\'t unpack natives!", (Throwable) var10);
-                return;
+                File var2;
+                try {
+                    var2 = MinecraftGameRunner.this.reconstructAssets(version);
+                } finally {
+                    assetsLock.unlock();
+                }
+
+                return var2;
             }
+        }, new ListenableFuture[]{resourcesReady})).withTrace(trace).start(executor);
+        this.gameDirectoryStage = (new LaunchStage("game directory", new Callable<File>() {
+            public File call() throws IOException {
+                File gameDirectory = profile.getGameDir() == null ? MinecraftGameRunner.this.getLauncher().getWorkingDirectory() : profile.getGameDir();
+                if (!gameDirectory.exists()) {
+                    if (!gameDirectory.mkdirs()) {
+                        throw new IOException("Couldn\'t create game directory " + gameDirectory);
+                    }
+                } else if (!gameDirectory.isDirectory()) {
+                    throw new IOException("Game directory " + gameDirectory + " is not actually a directory");
+                }
 
-            File gameDirectory = this.selectedProfile.getGameDir() == null ? this.getLauncher().getWorkingDirectory() : this.selectedProfile.getGameDir();
-            LOGGER.info("Launching in " + gameDirectory);
-            if (!gameDirectory.exists()) {
-                if (!gameDirectory.mkdirs()) {
-                    LOGGER.error("Aborting launch; couldn\'t create game directory");
-                    return;
+                return gameDirectory;
+            }
+        }, new ListenableFuture[0])).withTrace(trace).start(executor);
+        final String javaPath = (String) Objects.firstNonNull(profile.getJavaPath(), OperatingSystem.getCurrentPlatform().getJavaDir());
+        final JavaRuntimeProbe probe = this.minecraftLauncher.getJavaRuntimeProbe();
+        this.runtimeStage = (new LaunchStage("java runtime", new Callable<JavaRuntime>() {
+            public JavaRuntime call() {
+                try {
+                    return probe.probe(javaPath);
+                } catch (IOException var2) {
+                    MinecraftGameRunner.LOGGER.warn("Couldn\'t probe Java runtime " + javaPath, (Throwable) var2);
+                    return null;
                 }
-            } else if (!gameDirectory.isDirectory()) {
-                LOGGER.error("Aborting launch; game directory is not actually a directory");
+            }
+        }, new ListenableFuture[0])).withTrace(trace).start(executor);
+        this.classDataStage = null;
+        if (profile.getUseClassDataSharing()) {
+            final LaunchStage<JavaRuntime> runtime = this.runtimeStage;
+            final LaunchStage<String> classPath = this.classPathStage;
+            this.classDataStage = (new LaunchStage("class data sharing", new Callable<ClassDataSharing.Archive>() {
+                public ClassDataSharing.Archive call() {
+                    JavaRuntime javaRuntime = (JavaRuntime) runtime.get();
+                    return javaRuntime == null ? null : (new ClassDataSharing(new File(MinecraftGameRunner.this.getLauncher().getWorkingDirectory(), "cds"))).prepare(version.getId(), javaRuntime, (String) classPath.get(), version.getMainClass());
+                }
+            }, new ListenableFuture[]{this.runtimeStage.getResult(), this.classPathStage.getResult()})).withTrace(trace).start(executor);
+        }
+
+        this.launchWhenReady(new ListenableFuture[]{this.nativesStage.getResult(), this.classPathStage.getResult(), this.assetsStage.getResult(), this.gameDirectoryStage.getResult(), this.runtimeStage.getResult(), this.classDataStage == null ? Futures.immediateFuture((Object) null) : this.classDataStage.getResult()});
+    }
+
+    public void playGame(VersionSyncInfo syncInfo) {
+        Profile profile = this.selectedProfile;
+        GameLaunchDispatcher dispatcher = this.minecraftLauncher.getLaunchDispatcher();
+        LaunchPlan plan = profile == null ? null : dispatcher.getLaunchPlan(profile);
+        if (plan != null) {
+            String staleReason = plan.getStaleReason(syncInfo, profile);
+            if (staleReason == null) {
+                REUSED_PLANS.increment();
+                this.relaunch(plan);
                 return;
             }
 
-            GameProcessBuilder processBuilder = new GameProcessBuilder((String) Objects.firstNonNull(this.selectedProfile.getJavaPath(), OperatingSystem.getCurrentPlatform().getJavaDir()));
-            processBuilder.withSysOutFilter(new Predicate() {
-                public boolean apply(String input) {
-                    return input.contains("#@!@#");
-                }
-                // $FF: synthetic method
-                // $FF: bridge method
+            STALE_PLANS.increment();
+            LOGGER.info("Not reusing launch plan for " + profile.getName() + "; " + staleReason);
+            dispatcher.forgetLaunchPlan(profile, plan);
+        } else {
+            MISSING_PLANS.increment();
+        }
+
+        super.playGame(syncInfo);
+    }
+
+    private void relaunch(final LaunchPlan plan) {
+        if (!this.changeStatus(GameInstanceStatus.IDLE, GameInstanceStatus.PREPARING)) {
+            LOGGER.warn("Tried to play game but game is already starting!");
+        } else {
+            this.beginTrace("Relaunch " + plan.getVersion().getId());
+            this.getTrace().instant("status", GameInstanceStatus.PREPARING.name());
+            this.execute(new Runnable() {
+                public void run() {
+                    MinecraftGameRunner.LOGGER.info("Reusing launch plan " + plan);
+                    MinecraftGameRunner.this.version = plan.getVersion();
+                    MinecraftGameRunner.this.backgroundJob = null;
+                    if (MinecraftGameRunner.this.changeStatus(GameInstanceStatus.PREPARING, GameInstanceStatus.LAUNCHING)) {
+                        Trace.Span span = MinecraftGameRunner.this.getTrace().begin("launch", "launch game").with("plan", "reused");
+
+                        try {
+                            MinecraftGameRunner.this.startGame(plan);
+                        } catch (Throwable var6) {
+                            MinecraftGameRunner.LOGGER.fatal("Fatal error launching game. Report this to http://bugs.mojang.com please!", var6);
+                            span.end();
+                            MinecraftGameRunner.this.setStatus(GameInstanceStatus.IDLE);
+                        } finally {
+                            span.end();
+                        }
 
-                public boolean apply(Object x0) {
-                    return this.apply((String) x0);
+                    }
                 }
             });
-            processBuilder.directory(gameDirectory);
-            processBuilder.withLogProcessor(this.minecraftLauncher.getUserInterface().showGameOutputTab(this));
+        }
+    }
+
+    protected void launchGame() throws IOException {
+        LOGGER.info("Launching game");
+        if (this.getVersion() == null) {
+            LOGGER.error("Aborting launch; version is null?");
+        } else {
+            File assetsDir = (File) this.assetsStage.get();
+            File gameDirectory = (File) this.gameDirectoryStage.get();
+            String javaPath = (String) Objects.firstNonNull(this.selectedProfile.getJavaPath(), OperatingSystem.getCurrentPlatform().getJavaDir());
+            List<String> jvmArguments = Lists.newArrayList();
             OperatingSystem os = OperatingSystem.getCurrentPlatform();
             if (os.equals(OperatingSystem.OSX)) {
-                processBuilder.withArguments(new String[]{"-Xdock:icon=" + this.getAssetObject("icons/minecraft.icns").getAbsolutePath(), "-Xdock:name=Minecraft"});
+                jvmArguments.add("-Xdock:icon=" + this.getAssetObject("icons/minecraft.icns").getAbsolutePath());
+                jvmArguments.add("-Xdock:name=Minecraft");
             } else if (os.equals(OperatingSystem.WINDOWS)) {
-                processBuilder.withArguments(new String[]{"-XX:HeapDumpPath=MojangTricksIntelDriversForPerformance_javaw.exe_minecraft.exe.heapdump"});
+                jvmArguments.add("-XX:HeapDumpPath=MojangTricksIntelDriversForPerformance_javaw.exe_minecraft.exe.heapdump");
             }
 
             String profileArgs = this.selectedProfile.getJavaArgs();
             if (profileArgs != null) {
-                processBuilder.withArguments(profileArgs.split(" "));
+                jvmArguments.addAll(Arrays.asList(profileArgs.split(" ")));
             } else {
-                boolean args = "32".equals(System.getProperty("sun.arch.data.model"));
-                String proxy = args ? "-Xmx512M -XX:+UseConcMarkSweepGC -XX:+CMSIncrementalMode -XX:-UseAdaptiveSizePolicy -Xmn128M" : "-Xmx1G -XX:+UseConcMarkSweepGC -XX:+CMSIncrementalMode -XX:-UseAdaptiveSizePolicy -Xmn128M";
-                processBuilder.withArguments(proxy.split(" "));
-            }
-
-            processBuilder.withArguments(new String[]{"-Djava.library.path=" + this.nativeDir.getAbsolutePath()});
-            processBuilder.withArguments(new String[]{"-cp", this.constructClassPath(this.getVersion())});
-            processBuilder.withArguments(new String[]{this.getVersion().getMainClass()});
-            LOGGER.info("Half command: " + StringUtils.join((Iterable) processBuilder.getFullCommands(), " "));
-            String[] args1 = this.getMinecraftArguments(this.getVersion(), this.selectedProfile, gameDirectory, assetsDir, this.auth);
-            if (args1 != null) {
-                processBuilder.withArguments(args1);
-                Proxy proxy1 = this.getLauncher().getProxy();
-                PasswordAuthentication proxyAuth = this.getLauncher().getProxyAuth();
-                if (!proxy1.equals(Proxy.NO_PROXY)) {
-                    InetSocketAddress e = (InetSocketAddress) proxy1.address();
-                    processBuilder.withArguments(new String[]{"--proxyHost", e.getHostName()});
-                    processBuilder.withArguments(new String[]{"--proxyPort", Integer.toString(e.getPort())});
-                    if (proxyAuth != null) {
-                        processBuilder.withArguments(new String[]{"--proxyUser", proxyAuth.getUserName()});
-                        processBuilder.withArguments(new String[]{"--proxyPass", new String(proxyAuth.getPassword())});
+                JavaRuntime runtime = (JavaRuntime) this.runtimeStage.get();
+                HardwareInfo hardware = HardwareInfo.current();
+                DefaultJvmArguments defaults = DefaultJvmArguments.choose(runtime, hardware);
+                LOGGER.info("Default JVM arguments: maxHeap=" + defaults.getMaxHeap() + "M gc=" + defaults.getGarbageCollector() + " java=" + (runtime == null ? "unknown" : runtime.getVersion() + " (" + runtime.getVendor() + ", " + runtime.getDataModel() + "-bit)") + " ram=" + hardware.getTotalMemoryMegabytes() + "M cpus=" + hardware.getProcessors() + " -> " + defaults.toCommandLine());
+                jvmArguments.addAll(defaults.getArguments());
+            }
+
+            ClassDataSharing.Archive archive = this.classDataStage == null ? null : (ClassDataSharing.Archive) this.classDataStage.get();
+            if (archive != null) {
+                LOGGER.info((archive.isTraining() ? "Recording" : "Using") + " class data archive " + archive.getFile());
+                jvmArguments.addAll(archive.getArguments());
+            }
+
+            Trace.Span span = this.getTrace().begin("launch", "launch plan");
+            List<File> dependencies = Lists.newArrayList();
+            dependencies.add(new File(this.getLauncher().getWorkingDirectory(), "versions/" + this.getVersion().getId() + "/" + this.getVersion().getId() + ".json"));
+            dependencies.add(new File(this.getLauncher().getWorkingDirectory(), "assets/indexes/" + (this.getVersion().getAssets() == null ? "legacy" : this.getVersion().getAssets()) + ".json"));
+            dependencies.add(new File(javaPath));
+            LaunchPlan plan = new LaunchPlan(this.getVersion(), this.selectedProfile, javaPath, jvmArguments, (File) this.nativesStage.get(), (String) this.classPathStage.get(), gameDirectory, assetsDir, archive, dependencies);
+            span.end();
+            if (this.startGame(plan)) {
+                String incompleteReason = this.getIncompleteDownloadReason();
+                if (archive != null && archive.isTraining()) {
+                    LOGGER.info("Not keeping a launch plan whilst recording class data");
+                } else if (incompleteReason != null) {
+                    LOGGER.info("Not keeping a launch plan; " + incompleteReason);
+                } else {
+                    Object var12 = this.lock;
+                    synchronized (this.lock) {
+                        if (this.nativeDir != null && this.nativeDir.equals(plan.getNativesDirectory())) {
+                            this.nativeDir = null;
+                        }
                     }
+
+                    this.minecraftLauncher.getLaunchDispatcher().rememberLaunchPlan(this.selectedProfile, plan);
                 }
+            }
+        }
+    }
+
+    private String getIncompleteDownloadReason() {
+        DownloadJob[] jobs = new DownloadJob[]{this.versionJob, this.resourceJob};
+
+        for (int i = 0; i < jobs.length; ++i) {
+            DownloadJob job = jobs[i];
+            if (job == null || !job.isComplete()) {
+                return "job \'" + (job == null ? "unknown" : job.getName()) + "\' has not finished";
+            }
+
+            if (job.getFailures() > 0) {
+                return "job \'" + job.getName() + "\' had " + job.getFailures() + " failure(s)";
+            }
+        }
+
+        return this.isDownloadingInBackground() ? "job \'" + this.backgroundJob.getName() + "\' is still downloading in the background" : null;
+    }
 
-                processBuilder.withArguments(this.additionalLaunchArgs);
-                if (this.auth == null || this.auth.getSelectedProfile() == null) {
-                    processBuilder.withArguments(new String[]{"--demo"});
+    private boolean startGame(LaunchPlan plan) throws IOException {
+        File gameDirectory = plan.getGameDirectory();
+        LOGGER.info("Launching in " + gameDirectory);
+        GameProcessBuilder processBuilder = new GameProcessBuilder(plan.getJavaPath());
+        processBuilder.withSysOutFilter(new Predicate() {
+            public boolean apply(String input) {
+                return input.contains("#@!@#");
+            }
+            // $FF: synthetic method
+            // $FF: bridge method
+
+            public boolean apply(Object x0) {
+                return this.apply((String) x0);
+            }
+        });
+        processBuilder.directory(gameDirectory);
+        processBuilder.withTelemetry((long) this.selectedProfile.getTelemetryInterval(), new File(gameDirectory, "logs/telemetry-" + (new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss")).format(new Date()) + ".csv"));
+        final GameOutputLogProcessor outputTab = this.minecraftLauncher.getUserInterface().showGameOutputTab(this);
+        final GameLogArchive.Session session = GameLogArchive.forDirectory(new File(this.getLauncher().getWorkingDirectory(), "logs/sessions/" + this.selectedProfile.getName().replaceAll("[^\\w.-]", "_"))).startSession();
+        this.logSession = session;
+        if (outputTab instanceof GameLogArchiveListener) {
+            ((GameLogArchiveListener) outputTab).onLogSessionStarted(session);
+        }
+
+        final GameOutputScanner scanner = new GameOutputScanner(this.getOutputSignatures());
+        final Trace trace = this.getTrace();
+        final AtomicBoolean firstOutput = new AtomicBoolean(true);
+        this.outputScanner = scanner;
+        scanner.addListener(new GameOutputScanListener() {
+            public void onSignatureMatched(GameProcess process, GameOutputSignature signature, String line, long count) {
+                if (count == 1L) {
+                    if (signature.getSeverity() == GameOutputSignature.Severity.ERROR) {
+                        MinecraftGameRunner.LOGGER.error("Game output matched " + signature.getId() + ": " + line);
+                    } else if (signature.getSeverity() == GameOutputSignature.Severity.WARNING) {
+                        MinecraftGameRunner.LOGGER.warn("Game output matched " + signature.getId() + ": " + line);
+                    } else {
+                        MinecraftGameRunner.LOGGER.info("Game output matched " + signature.getId() + ": " + line);
+                    }
                 }
 
-                if (this.selectedProfile.getResolution() != null) {
-                    processBuilder.withArguments(new String[]{"--width", String.valueOf(this.selectedProfile.getResolution().getWidth())});
-                    processBuilder.withArguments(new String[]{"--height", String.valueOf(this.selectedProfile.getResolution().getHeight())});
+            }
+        });
+        if (outputTab instanceof GameOutputScanListener) {
+            scanner.addListener((GameOutputScanListener) outputTab);
+        }
+
+        processBuilder.withLogProcessor(new GameOutputLogProcessor() {
+            public void onGameOutput(GameProcess process, String logLine) {
+                if (firstOutput.compareAndSet(true, false) && !trace.isFinished()) {
+                    trace.instant("game", "first output");
+                    MinecraftGameRunner.TIME_TO_FIRST_OUTPUT.record(trace.getElapsedMillis());
+                    MinecraftGameRunner.this.finishTrace();
                 }
 
-                try {
-                    LOGGER.debug("Running " + StringUtils.join((Iterable) processBuilder.getFullCommands(), " "));
-                    GameProcess e1 = this.processFactory.startGame(processBuilder);
-                    e1.setExitRunnable(this);
-                    this.setStatus(GameInstanceStatus.PLAYING);
-                    if (this.visibilityRule != LauncherVisibilityRule.DO_NOTHING) {
-                        this.minecraftLauncher.getUserInterface().setVisible(false);
+                outputTab.onGameOutput(process, logLine);
+                scanner.onGameOutput(process, logLine);
+                session.log(logLine);
+            }
+        });
+        this.classDataArchive = plan.getClassDataArchive();
+        processBuilder.withArguments((String[]) plan.getJvmArguments().toArray(new String[0]));
+        processBuilder.withArguments(new String[]{"-Djava.library.path=" + plan.getNativesDirectory().getAbsolutePath()});
+        processBuilder.withArguments(new String[]{"-cp", plan.getClassPath()});
+        processBuilder.withArguments(new String[]{plan.getVersion().getMainClass()});
+        int gameArgumentsStart = processBuilder.getArguments().size();
+        LOGGER.info("Half command: " + StringUtils.join((Iterable) processBuilder.getFullCommands(), " "));
+        String[] args1 = this.getMinecraftArguments(plan.getVersion(), this.selectedProfile, gameDirectory, plan.getAssetsDirectory(), this.auth);
+        if (args1 == null) {
+            return false;
+        } else {
+            processBuilder.withArguments(args1);
+            Proxy proxy1 = this.getLauncher().getProxy();
+            PasswordAuthentication proxyAuth = this.getLauncher().getProxyAuth();
+            if (!proxy1.equals(Proxy.NO_PROXY)) {
+                InetSocketAddress e = (InetSocketAddress) proxy1.address();
+                processBuilder.withArguments(new String[]{"--proxyHost", e.getHostName()});
+                processBuilder.withArguments(new String[]{"--proxyPort", Integer.toString(e.getPort())});
+                if (proxyAuth != null) {
+                    processBuilder.withArguments(new String[]{"--proxyUser", proxyAuth.getUserName()});
+                    processBuilder.withArguments(new String[]{"--proxyPass", new String(proxyAuth.getPassword())});
+                }
+            }
+
+            processBuilder.withArguments(this.additionalLaunchArgs);
+            if (this.auth == null || this.auth.getSelectedProfile() == null) {
+                processBuilder.withArguments(new String[]{"--demo"});
+            }
+
+            if (this.selectedProfile.getResolution() != null) {
+                processBuilder.withArguments(new String[]{"--width", String.valueOf(this.selectedProfile.getResolution().getWidth())});
+                processBuilder.withArguments(new String[]{"--height", String.valueOf(this.selectedProfile.getResolution().getHeight())});
+            }
+
+            try {
+                LOGGER.debug("Running " + StringUtils.join((Iterable) processBuilder.getFullCommands(), " "));
+                Trace.Span span = trace.begin("launch", "spawn");
+                GameProcess e1 = null;
+                this.standbyKey = null;
+                if (this.selectedProfile.getUseStandbyJvm()) {
+                    String nativeLibrary = this.getStandbyIncompatibleNatives(plan.getVersion());
+                    if (this.classDataArchive != null && this.classDataArchive.isTraining()) {
+                        LOGGER.info("Not using a standby JVM whilst recording class data");
+                    } else if (nativeLibrary != null) {
+                        LOGGER.info("Not using a standby JVM; natives of " + nativeLibrary + " are only found through java.library.path, which can\'t be changed once the JVM has started");
+                    } else {
+                        this.standbyKey = new StandbyJvmPool.Key(plan.getVersion().getId(), plan.getJavaPath(), plan.getJvmArguments(), plan.getClassPath(), plan.getVersion().getMainClass(), gameDirectory);
+                        e1 = this.minecraftLauncher.getStandbyJvmPool().launch(this.standbyKey, processBuilder, plan.getNativesDirectory(), processBuilder.getArguments().subList(gameArgumentsStart, processBuilder.getArguments().size()));
                     }
-                } catch (IOException var12) {
-                    LOGGER.error("Couldn\'t launch game", (Throwable) var12);
-                    this.setStatus(GameInstanceStatus.IDLE);
-                    return;
                 }
 
-                this.minecraftLauncher.performCleanups();
+                if (e1 == null) {
+                    e1 = this.processFactory.startGame(processBuilder);
+                    span.with("standby", Boolean.valueOf(false));
+                    FRESH_LAUNCHES.increment();
+                } else {
+                    span.with("standby", Boolean.valueOf(true));
+                    STANDBY_LAUNCHES.increment();
+                }
+
+                span.end();
+                if (outputTab instanceof ProcessTelemetryListener) {
+                    e1.getTelemetry().addListener((ProcessTelemetryListener) outputTab);
+                }
+
+                e1.setExitRunnable(this);
+                this.closeAfterBackgroundJob.set(false);
+                this.setStatus(GameInstanceStatus.PLAYING);
+                if (this.visibilityRule != LauncherVisibilityRule.DO_NOTHING && !this.isDownloadingInBackground()) {
+                    this.minecraftLauncher.getUserInterface().setVisible(false);
+                }
+            } catch (IOException var12) {
+                LOGGER.error("Couldn\'t launch game", (Throwable) var12);
+                this.setStatus(GameInstanceStatus.IDLE);
+                return false;
             }
+
+            DownloadJob background = this.backgroundJob;
+            if (background != null && !background.isComplete()) {
+                background.setMaximumThreads(BACKGROUND_DOWNLOAD_THREADS);
+                LOGGER.info("Game started; continuing job \'" + background.getName() + "\' in the background with " + BACKGROUND_DOWNLOAD_THREADS + " thread(s)");
+                if (this.visibilityRule != LauncherVisibilityRule.DO_NOTHING) {
+                    LOGGER.info("Keeping launcher visible until job \'" + background.getName() + "\' has finished");
+                }
+
+                this.applyVisibilityRuleWhenFinished(background);
+            } else if (this.minecraftLauncher.getLaunchDispatcher().isPreparingOtherGame(this)) {
+                LOGGER.info("Another game is still being prepared; leaving cleanups for a later launch");
+            } else {
+                try {
+                    this.minecraftLauncher.performCleanups();
+                } catch (IOException var11) {
+                    LOGGER.warn("Couldn't clean up old launcher files", (Throwable) var11);
+                }
+            }
+
+            return true;
         }
     }
 
+    private List<GameOutputSignature> getOutputSignatures() {
+        List<GameOutputSignature> signatures = Lists.newArrayList((Iterable) GameOutputSignature.DEFAULT_SIGNATURES);
+        File file = new File(this.getLauncher().getWorkingDirectory(), "launcher_output_signatures.json");
+        if (file.isFile()) {
+            try {
+                GameOutputSignature[] custom = (GameOutputSignature[]) this.gson.fromJson(FileUtils.readFileToString(file, Charsets.UTF_8), GameOutputSignature[].class);
+                if (custom != null) {
+                    for (int i = 0; i < custom.length; ++i) {
+                        if (custom[i] != null && custom[i].getId() != null && custom[i].getText() != null && custom[i].getText().length() > 0) {
+                            signatures.add(custom[i]);
+                        }
+                    }
+                }
+            } catch (Exception var5) {
+                LOGGER.warn("Couldn't read custom output signatures from " + file, (Throwable) var5);
+            }
+        }
+
+        return signatures;
+    }
+
     protected CompleteMinecraftVersion getVersion() {
         return (CompleteMinecraftVersion) this.version;
     }
@@ -242,11 +614,58 @@ public class MinecraftGameRunner extends AbstractGameRunner implements GameProce
         return new File(objectsDir, hash.substring(0, 2) + "/" + hash);
     }
 
-    private File reconstructAssets() throws IOException {
+    private String getStandbyIncompatibleNatives(CompleteMinecraftVersion version) {
+        OperatingSystem os = OperatingSystem.getCurrentPlatform();
+        Iterator i$ = version.getRelevantLibraries().iterator();
+
+        while (i$.hasNext()) {
+            Library library = (Library) i$.next();
+            if (library.getNatives() != null && library.getNatives().get(os) != null) {
+                boolean supported = false;
+
+                for (int i = 0; i < STANDBY_NATIVE_GROUPS.length; ++i) {
+                    if (library.getName().startsWith(STANDBY_NATIVE_GROUPS[i])) {
+                        supported = true;
+                        break;
+                    }
+                }
+
+                if (!supported) {
+                    return library.getName();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isBootAsset(String name) {
+        for (int i = 0; i < BOOT_ASSET_PREFIXES.length; ++i) {
+            if (name.startsWith(BOOT_ASSET_PREFIXES[i])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isVirtualAssetIndex(CompleteMinecraftVersion version) {
+        File indexFile = new File(this.getLauncher().getWorkingDirectory(), "assets/indexes/" + (version.getAssets() == null ? "legacy" : version.getAssets()) + ".json");
+
+        try {
+            AssetIndex index = (AssetIndex) this.gson.fromJson(FileUtils.readFileToString(indexFile, Charsets.UTF_8), AssetIndex.class);
+            return index == null || index.isVirtual();
+        } catch (Exception var4) {
+            LOGGER.warn("Couldn\'t read assets index " + indexFile, (Throwable) var4);
+            return true;
+        }
+    }
+
+    private File reconstructAssets(CompleteMinecraftVersion version) throws IOException {
         File assetsDir = new File(this.getLauncher().getWorkingDirectory(), "assets");
         File indexDir = new File(assetsDir, "indexes");
         File objectDir = new File(assetsDir, "objects");
-        String assetVersion = this.getVersion().getAssets() == null ? "legacy" : this.getVersion().getAssets();
+        String assetVersion = version.getAssets() == null ? "legacy" : version.getAssets();
         File indexFile = new File(indexDir, assetVersion + ".json");
         File virtualRoot = new File(new File(assetsDir, "virtual"), assetVersion);
         if (!indexFile.isFile()) {
@@ -360,9 +779,9 @@ public class MinecraftGameRunner extends AbstractGameRunner implements GameProce
         }
     }
 
-    private void unpackNatives(File targetDir) throws IOException {
+    private void unpackNatives(CompleteMinecraftVersion version, File targetDir) throws IOException {
         OperatingSystem os = OperatingSystem.getCurrentPlatform();
-        Collection libraries = this.getVersion().getRelevantLibraries();
+        Collection libraries = version.getRelevantLibraries();
         Iterator i$ = libraries.iterator();
 
         while (i$.hasNext()) {
@@ -431,11 +850,46 @@ public class MinecraftGameRunner extends AbstractGameRunner implements GameProce
         return result.toString();
     }
 
+    protected void onTraceFinished(Trace trace) {
+        Profile profile = this.selectedProfile;
+        if (profile != null && profile.getRecordLaunchTraces()) {
+            this.minecraftLauncher.saveTrace(trace);
+        }
+
+    }
+
     public void onGameProcessEnded(GameProcess process) {
         int exitCode = process.getExitCode();
+        if (this.classDataArchive != null) {
+            if (exitCode != 0 && this.classDataArchive.isTraining()) {
+                this.classDataArchive.discard();
+            }
+
+            this.classDataArchive = null;
+        }
+
+        StandbyJvmPool.Key standby = this.standbyKey;
+        this.standbyKey = null;
+        if (this.logSession != null) {
+            this.logSession.close();
+            this.logSession = null;
+        }
+
+        if (this.outputScanner != null && !this.outputScanner.getCounts().isEmpty()) {
+            LOGGER.info("Game output signatures seen: " + this.outputScanner.getCounts());
+        }
+
+        LOGGER.info("Game ran for " + process.getWallTime() + " ms");
         if (exitCode == 0) {
             LOGGER.info("Game ended with no troubles detected (exit code " + exitCode + ")");
-            if (this.visibilityRule == LauncherVisibilityRule.CLOSE_LAUNCHER) {
+            if (this.visibilityRule == LauncherVisibilityRule.CLOSE_LAUNCHER && this.isDownloadingInBackground()) {
+                LOGGER.info("Game has ended but job \'" + this.backgroundJob.getName() + "\' is still downloading; exiting launcher once it has finished");
+                this.closeAfterBackgroundJob.set(true);
+                this.minecraftLauncher.getUserInterface().setVisible(true);
+                if (!this.isDownloadingInBackground() && this.closeAfterBackgroundJob.compareAndSet(true, false)) {
+                    this.getLauncher().shutdownLauncher();
+                }
+            } else if (this.visibilityRule == LauncherVisibilityRule.CLOSE_LAUNCHER) {
                 LOGGER.info("Following visibility rule and exiting launcher as the game has ended");
                 this.getLauncher().shutdownLauncher();
             } else if (this.visibilityRule == LauncherVisibilityRule.HIDE_LAUNCHER) {
@@ -490,9 +944,37 @@ public class MinecraftGameRunner extends AbstractGameRunner implements GameProce
             }
         }
 
+        if (standby != null && (exitCode != 0 || this.visibilityRule != LauncherVisibilityRule.CLOSE_LAUNCHER)) {
+            this.minecraftLauncher.getStandbyJvmPool().prepare(standby);
+        }
+
         this.setStatus(GameInstanceStatus.IDLE);
     }
 
+    private void applyVisibilityRuleWhenFinished(final DownloadJob background) {
+        Futures.addCallback(this.getJobResult(background), new FutureCallback<DownloadJob>() {
+            public void onSuccess(DownloadJob result) {
+                this.onFinished();
+            }
+
+            public void onFailure(Throwable t) {
+                this.onFinished();
+            }
+
+            private void onFinished() {
+                if (MinecraftGameRunner.this.backgroundJob == background) {
+                    if (MinecraftGameRunner.this.closeAfterBackgroundJob.compareAndSet(true, false)) {
+                        MinecraftGameRunner.LOGGER.info("Following visibility rule and exiting launcher as job \'" + background.getName() + "\' has finished");
+                        MinecraftGameRunner.this.getLauncher().shutdownLauncher();
+                    } else if (MinecraftGameRunner.this.getStatus() == GameInstanceStatus.PLAYING && MinecraftGameRunner.this.visibilityRule != LauncherVisibilityRule.DO_NOTHING) {
+                        MinecraftGameRunner.LOGGER.info("Following visibility rule and hiding launcher as job \'" + background.getName() + "\' has finished");
+                        MinecraftGameRunner.this.minecraftLauncher.getUserInterface().setVisible(false);
+                    }
+                }
+            }
+        });
+    }
+
     public void setVisibility(LauncherVisibilityRule visibility) {
         this.visibilityRule = visibility;
     }
@@ -501,6 +983,11 @@ public class MinecraftGameRunner extends AbstractGameRunner implements GameProce
         return this.auth;
     }
 
+    public boolean isDownloadingInBackground() {
+        DownloadJob background = this.backgroundJob;
+        return background != null && !background.isComplete();
+    }
+
     public Profile getSelectedProfile() {
         return this.selectedProfile;
     }
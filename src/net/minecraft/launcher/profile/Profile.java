@@ -11,10 +11,9 @@ import net.minecraft.launcher.game.MinecraftReleaseTypeFactory;
 
 public class Profile implements Comparable<Profile> {
 
-    public static final String DEFAULT_JRE_ARGUMENTS_64BIT = "-Xmx1G -XX:+UseConcMarkSweepGC -XX:+CMSIncrementalMode -XX:-UseAdaptiveSizePolicy -Xmn128M";
-    public static final String DEFAULT_JRE_ARGUMENTS_32BIT = "-Xmx512M -XX:+UseConcMarkSweepGC -XX:+CMSIncrementalMode -XX:-UseAdaptiveSizePolicy -Xmn128M";
     public static final Profile.Resolution DEFAULT_RESOLUTION = new Profile.Resolution(854, 480);
     public static final LauncherVisibilityRule DEFAULT_LAUNCHER_VISIBILITY = LauncherVisibilityRule.CLOSE_LAUNCHER;
+    public static final int DEFAULT_TELEMETRY_INTERVAL = 1000;
     public static final Set<MinecraftReleaseType> DEFAULT_RELEASE_TYPES = Sets.newHashSet(new MinecraftReleaseType[]{MinecraftReleaseType.RELEASE});
     private String name;
     private File gameDir;
@@ -26,6 +25,11 @@ public class Profile implements Comparable<Profile> {
     private String playerUUID;
     private Boolean useHopperCrashService;
     private LauncherVisibilityRule launcherVisibilityOnGameClose;
+    private Integer telemetryInterval;
+    private Boolean playWhileDownloading;
+    private Boolean useClassDataSharing;
+    private Boolean useStandbyJvm;
+    private Boolean recordLaunchTraces;
 
     public Profile() {
     }
@@ -41,6 +45,11 @@ public class Profile implements Comparable<Profile> {
         this.allowedReleaseTypes = copy.allowedReleaseTypes == null ? null : Sets.newHashSet((Iterable) copy.allowedReleaseTypes);
         this.useHopperCrashService = copy.useHopperCrashService;
         this.launcherVisibilityOnGameClose = copy.launcherVisibilityOnGameClose;
+        this.telemetryInterval = copy.telemetryInterval;
+        this.playWhileDownloading = copy.playWhileDownloading;
+        this.useClassDataSharing = copy.useClassDataSharing;
+        this.useStandbyJvm = copy.useStandbyJvm;
+        this.recordLaunchTraces = copy.recordLaunchTraces;
     }
 
     public Profile(String name) {
@@ -140,6 +149,46 @@ public class Profile implements Comparable<Profile> {
         this.launcherVisibilityOnGameClose = launcherVisibilityOnGameClose;
     }
 
+    public int getTelemetryInterval() {
+        return this.telemetryInterval == null ? DEFAULT_TELEMETRY_INTERVAL : this.telemetryInterval.intValue();
+    }
+
+    public void setTelemetryInterval(int telemetryInterval) {
+        this.telemetryInterval = telemetryInterval == DEFAULT_TELEMETRY_INTERVAL ? null : Integer.valueOf(telemetryInterval);
+    }
+
+    public boolean getPlayWhileDownloading() {
+        return this.playWhileDownloading != null && this.playWhileDownloading.booleanValue();
+    }
+
+    public void setPlayWhileDownloading(boolean playWhileDownloading) {
+        this.playWhileDownloading = playWhileDownloading ? Boolean.valueOf(true) : null;
+    }
+
+    public boolean getUseClassDataSharing() {
+        return this.useClassDataSharing != null && this.useClassDataSharing.booleanValue();
+    }
+
+    public void setUseClassDataSharing(boolean useClassDataSharing) {
+        this.useClassDataSharing = useClassDataSharing ? Boolean.valueOf(true) : null;
+    }
+
+    public boolean getUseStandbyJvm() {
+        return this.useStandbyJvm != null && this.useStandbyJvm.booleanValue();
+    }
+
+    public void setUseStandbyJvm(boolean useStandbyJvm) {
+        this.useStandbyJvm = useStandbyJvm ? Boolean.valueOf(true) : null;
+    }
+
+    public boolean getRecordLaunchTraces() {
+        return this.recordLaunchTraces != null && this.recordLaunchTraces.booleanValue();
+    }
+
+    public void setRecordLaunchTraces(boolean recordLaunchTraces) {
+        this.recordLaunchTraces = recordLaunchTraces ? Boolean.valueOf(true) : null;
+    }
+
     public int compareTo(Profile o) {
         return o == null ? -1 : this.getName().compareTo(o.getName());
     }
@@ -19,6 +19,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu.Separator;
 import javax.swing.SwingUtilities;
+import net.minecraft.launcher.Launcher;
 import net.minecraft.launcher.profile.AuthenticationDatabase;
 import net.minecraft.launcher.profile.ProfileManager;
 import org.apache.logging.log4j.LogManager;
@@ -117,7 +118,7 @@ public class ExistingUserListForm extends JPanel implements ActionListener {
                     if (auth != null && uuid != null) {
                         try {
                             if (!auth.canPlayOnline()) {
-                                auth.logIn();
+                                Launcher.logIn(auth);
                             }
 
                             ExistingUserListForm.this.popup.setLoggedIn(uuid);
@@ -23,6 +23,7 @@ import javax.swing.JPanel;
 import javax.swing.JPasswordField;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import net.minecraft.launcher.Launcher;
 import net.minecraft.launcher.LauncherConstants;
 import net.minecraft.launcher.profile.AuthenticationDatabase;
 import org.apache.commons.lang3.ArrayUtils;
@@ -162,7 +163,7 @@ public class LogInForm extends JPanel implements ActionListener {
             this.popup.getMinecraftLauncher().getLauncher().getVersionManager().getExecutorService().execute(new Runnable() {
                 public void run() {
                     try {
-                        LogInForm.this.authentication.logIn();
+                        Launcher.logIn(LogInForm.this.authentication);
                         AuthenticationDatabase ex = LogInForm.this.popup.getMinecraftLauncher().getProfileManager().getAuthDatabase();
                         if (LogInForm.this.authentication.getSelectedProfile() == null) {
                             if (ArrayUtils.isNotEmpty((Object[]) LogInForm.this.authentication.getAvailableProfiles())) {
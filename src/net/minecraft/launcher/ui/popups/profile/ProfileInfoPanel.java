@@ -29,6 +29,8 @@ public class ProfileInfoPanel extends JPanel {
     private final JTextField resolutionWidth = new JTextField();
     private final JTextField resolutionHeight = new JTextField();
     private final JCheckBox useHopper = new JCheckBox("Automatically ask Mojang for assistance with fixing crashes");
+    private final JCheckBox playWhileDownloading = new JCheckBox("Start the game before all resources have finished downloading");
+    private final JCheckBox recordLaunchTraces = new JCheckBox("Save a timing trace of each launch to logs/traces");
     private final JCheckBox launcherVisibilityCustom = new JCheckBox("Launcher Visibility:");
     private final JComboBox launcherVisibilityOption = new JComboBox();
 
@@ -78,6 +80,10 @@ public class ProfileInfoPanel extends JPanel {
         constraints.weightx = 1.0D;
         constraints.gridwidth = 0;
         this.add(this.useHopper, constraints);
+        ++constraints.gridy;
+        this.add(this.playWhileDownloading, constraints);
+        ++constraints.gridy;
+        this.add(this.recordLaunchTraces, constraints);
         constraints.gridwidth = 1;
         constraints.weightx = 0.0D;
         constraints.fill = 0;
@@ -121,6 +127,8 @@ public class ProfileInfoPanel extends JPanel {
         this.resolutionHeight.setText(String.valueOf(resolution.getHeight()));
         this.updateResolutionState();
         this.useHopper.setSelected(this.editor.getProfile().getUseHopperCrashService());
+        this.playWhileDownloading.setSelected(this.editor.getProfile().getPlayWhileDownloading());
+        this.recordLaunchTraces.setSelected(this.editor.getProfile().getRecordLaunchTraces());
         LauncherVisibilityRule visibility = this.editor.getProfile().getLauncherVisibilityOnGameClose();
         if (visibility != null) {
             this.launcherVisibilityCustom.setSelected(true);
@@ -190,6 +198,16 @@ public class ProfileInfoPanel extends JPanel {
                 ProfileInfoPanel.this.updateHopper();
             }
         });
+        this.playWhileDownloading.addItemListener(new ItemListener() {
+            public void itemStateChanged(ItemEvent e) {
+                ProfileInfoPanel.this.editor.getProfile().setPlayWhileDownloading(ProfileInfoPanel.this.playWhileDownloading.isSelected());
+            }
+        });
+        this.recordLaunchTraces.addItemListener(new ItemListener() {
+            public void itemStateChanged(ItemEvent e) {
+                ProfileInfoPanel.this.editor.getProfile().setRecordLaunchTraces(ProfileInfoPanel.this.recordLaunchTraces.isSelected());
+            }
+        });
         this.launcherVisibilityCustom.addItemListener(new ItemListener() {
             public void itemStateChanged(ItemEvent e) {
                 ProfileInfoPanel.this.updateLauncherVisibilityState();
@@ -1,6 +1,10 @@
 package net.minecraft.launcher.ui.popups.profile;
 
+import com.google.common.base.Objects;
 import com.mojang.launcher.OperatingSystem;
+import com.mojang.launcher.game.runtime.DefaultJvmArguments;
+import com.mojang.launcher.game.runtime.HardwareInfo;
+import com.mojang.launcher.game.runtime.JavaRuntime;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
@@ -20,6 +24,8 @@ public class ProfileJavaPanel extends JPanel {
     private final JTextField javaPathField = new JTextField();
     private final JCheckBox javaArgsCustom = new JCheckBox("JVM Arguments:");
     private final JTextField javaArgsField = new JTextField();
+    private final JCheckBox useClassDataSharing = new JCheckBox("Share loaded classes between launches (Java 13 or newer)");
+    private final JCheckBox useStandbyJvm = new JCheckBox("Keep a Java process ready for the next launch");
 
     public ProfileJavaPanel(ProfileEditorPopup editor) {
         this.editor = editor;
@@ -49,6 +55,16 @@ public class ProfileJavaPanel extends JPanel {
         constraints.weightx = 0.0D;
         constraints.fill = 0;
         ++constraints.gridy;
+        constraints.fill = 2;
+        constraints.weightx = 1.0D;
+        constraints.gridwidth = 0;
+        this.add(this.useClassDataSharing, constraints);
+        ++constraints.gridy;
+        this.add(this.useStandbyJvm, constraints);
+        constraints.gridwidth = 1;
+        constraints.weightx = 0.0D;
+        constraints.fill = 0;
+        ++constraints.gridy;
     }
 
     protected void fillDefaultValues() {
@@ -68,10 +84,13 @@ public class ProfileJavaPanel extends JPanel {
             this.javaArgsField.setText(args);
         } else {
             this.javaArgsCustom.setSelected(false);
-            this.javaArgsField.setText("-Xmx1G -XX:+UseConcMarkSweepGC -XX:+CMSIncrementalMode -XX:-UseAdaptiveSizePolicy -Xmn128M");
+            JavaRuntime runtime = this.editor.getMinecraftLauncher().getJavaRuntimeProbe().getCached((String) Objects.firstNonNull(javaPath, OperatingSystem.getCurrentPlatform().getJavaDir()));
+            this.javaArgsField.setText(DefaultJvmArguments.choose(runtime, HardwareInfo.current()).toCommandLine());
         }
 
         this.updateJavaArgsState();
+        this.useClassDataSharing.setSelected(this.editor.getProfile().getUseClassDataSharing());
+        this.useStandbyJvm.setSelected(this.editor.getProfile().getUseStandbyJvm());
     }
 
     protected void addEventHandlers() {
@@ -98,6 +117,16 @@ public class ProfileJavaPanel extends JPanel {
                 ProfileJavaPanel.this.updateJavaArgsState();
             }
         });
+        this.useClassDataSharing.addItemListener(new ItemListener() {
+            public void itemStateChanged(ItemEvent e) {
+                ProfileJavaPanel.this.editor.getProfile().setUseClassDataSharing(ProfileJavaPanel.this.useClassDataSharing.isSelected());
+            }
+        });
+        this.useStandbyJvm.addItemListener(new ItemListener() {
+            public void itemStateChanged(ItemEvent e) {
+                ProfileJavaPanel.this.editor.getProfile().setUseStandbyJvm(ProfileJavaPanel.this.useStandbyJvm.isSelected());
+            }
+        });
         this.javaArgsField.getDocument().addDocumentListener(new DocumentListener() {
             public void insertUpdate(DocumentEvent e) {
                 ProfileJavaPanel.this.updateJavaArgs();
@@ -1,94 +1,102 @@
 package net.minecraft.launcher.ui.tabs;
 
 import com.mojang.util.QueueLogAppender;
-import java.awt.Font;
-import java.awt.Insets;
-import java.awt.Toolkit;
-import java.awt.datatransfer.ClipboardOwner;
-import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import javax.swing.JMenuItem;
-import javax.swing.JPopupMenu;
-import javax.swing.JScrollBar;
-import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
-import javax.swing.SwingUtilities;
-import javax.swing.text.AttributeSet;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.Document;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.Timer;
 import net.minecraft.launcher.Launcher;
+import net.minecraft.launcher.ui.tabs.log.LogViewPanel;
 
-public class ConsoleTab extends JScrollPane {
+public class ConsoleTab extends LogViewPanel implements QueueLogAppender.Listener {
 
-    private static final Font MONOSPACED = new Font("Monospaced", 0, 12);
-    private final JTextArea console = new JTextArea();
-    private final JPopupMenu popupMenu = new JPopupMenu();
-    private final JMenuItem copyTextButton = new JMenuItem("Copy All Text");
+    private static final String QUEUE_NAME = "DevelopmentConsole";
+    private static final int MAX_LINE_COUNT = 100000;
+    private static final int MAX_EVENTS_PER_FLUSH = 4096;
+    private static final int FLUSHES_PER_SECOND = 30;
     private final Launcher minecraftLauncher;
+    private final Timer flushTimer;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
 
     public ConsoleTab(Launcher minecraftLauncher) {
+        super(MAX_LINE_COUNT);
         this.minecraftLauncher = minecraftLauncher;
-        this.popupMenu.add(this.copyTextButton);
-        this.console.setComponentPopupMenu(this.popupMenu);
-        this.copyTextButton.addActionListener(new ActionListener() {
+        this.flushTimer = new Timer(1000 / FLUSHES_PER_SECOND, new ActionListener() {
             public void actionPerformed(ActionEvent e) {
-                try {
-                    StringSelection ss = new StringSelection(ConsoleTab.this.console.getText());
-                    Toolkit.getDefaultToolkit().getSystemClipboard().setContents(ss, (ClipboardOwner) null);
-                } catch (Exception var3) {
-                    ;
-                }
-
+                ConsoleTab.this.flush();
             }
         });
-        this.console.setFont(MONOSPACED);
-        this.console.setEditable(false);
-        this.console.setMargin((Insets) null);
-        this.setViewportView(this.console);
-        Thread thread = new Thread(new Runnable() {
-            public void run() {
-                String line;
-                while ((line = QueueLogAppender.getNextLogEvent("DevelopmentConsole")) != null) {
-                    ConsoleTab.this.print(line);
-                }
+        this.flushTimer.setCoalesce(true);
+    }
+
+    public void addNotify() {
+        super.addNotify();
+        QueueLogAppender.setListener(QUEUE_NAME, this);
+        if (QueueLogAppender.hasLogEvents(QUEUE_NAME)) {
+            this.scheduleFlush();
+        }
+
+    }
+
+    public void removeNotify() {
+        QueueLogAppender.setListener(QUEUE_NAME, (QueueLogAppender.Listener) null);
+        this.flushTimer.stop();
+        this.flushScheduled.set(false);
+        super.removeNotify();
+    }
+
+    public void onLogEventQueued(String queueName) {
+        this.scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (this.flushScheduled.compareAndSet(false, true)) {
+            this.flushTimer.start();
+        }
 
-            }
-        });
-        thread.setDaemon(true);
-        thread.start();
     }
 
     public Launcher getMinecraftLauncher() {
         return this.minecraftLauncher;
     }
 
-    public void print(final String line) {
-        if (!SwingUtilities.isEventDispatchThread()) {
-            SwingUtilities.invokeLater(new Runnable() {
-                public void run() {
-                    ConsoleTab.this.print(line);
-                }
-            });
-        } else {
-            Document document = this.console.getDocument();
-            JScrollBar scrollBar = this.getVerticalScrollBar();
-            boolean shouldScroll = false;
-            if (this.getViewport().getView() == this.console) {
-                shouldScroll = (double) scrollBar.getValue() + scrollBar.getSize().getHeight() + (double) (MONOSPACED.getSize() * 4) > (double) scrollBar.getMaximum();
+    private void flush() {
+        ArrayList<String> events = new ArrayList();
+        QueueLogAppender.drainLogEvents(QUEUE_NAME, events, MAX_EVENTS_PER_FLUSH);
+        long dropped = QueueLogAppender.getAndResetDroppedCount(QUEUE_NAME);
+        if (!events.isEmpty() || dropped != 0L) {
+            ArrayList<String> lines = new ArrayList();
+            if (dropped != 0L) {
+                lines.add("[Launcher] " + dropped + " log message(s) skipped");
             }
 
-            try {
-                document.insertString(document.getLength(), line, (AttributeSet) null);
-            } catch (BadLocationException var6) {
-                ;
-            }
+            Iterator i$ = events.iterator();
+
+            while (i$.hasNext()) {
+                String event = (String) i$.next();
+                if (event.endsWith("\n")) {
+                    event = event.substring(0, event.length() - 1);
+                }
 
-            if (shouldScroll) {
-                scrollBar.setValue(Integer.MAX_VALUE);
+                String[] split = event.replace("\r", "").split("\n", -1);
+                for (int i = 0; i < split.length; ++i) {
+                    lines.add(split[i]);
+                }
             }
 
+            this.appendLines(lines);
+        }
+
+        if (!QueueLogAppender.hasLogEvents(QUEUE_NAME)) {
+            this.flushTimer.stop();
+            this.flushScheduled.set(false);
+            if (QueueLogAppender.hasLogEvents(QUEUE_NAME)) {
+                this.scheduleFlush();
+            }
         }
+
     }
 
 }
@@ -1,5 +1,8 @@
 package net.minecraft.launcher.ui.tabs;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.mojang.launcher.Http;
 import com.mojang.launcher.OperatingSystem;
 import com.mojang.launcher.versions.CompleteVersion;
@@ -21,8 +24,13 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import net.minecraft.hopper.CrashIndex;
+import net.minecraft.hopper.CrashSignature;
 import net.minecraft.hopper.HopperService;
+import net.minecraft.hopper.Problem;
 import net.minecraft.hopper.PublishResponse;
+import net.minecraft.hopper.Report;
 import net.minecraft.hopper.SubmitResponse;
 import net.minecraft.launcher.Launcher;
 import org.apache.logging.log4j.LogManager;
@@ -39,7 +47,8 @@ public class CrashReportTab extends JPanel {
     private final JScrollPane scrollPane;
     private final CrashReportTab.CrashInfoPane crashInfoPane;
     private final boolean isModded;
-    private SubmitResponse hopperServiceResponse;
+    private volatile SubmitResponse hopperServiceResponse;
+    private volatile Problem knownProblem;
 
     public CrashReportTab(final Launcher minecraftLauncher, final CompleteVersion version, File reportFile, final String report) {
         super(true);
@@ -53,29 +62,64 @@ public class CrashReportTab extends JPanel {
         this.isModded = !report.contains("Is Modded: Probably not") && !report.contains("Is Modded: Unknown");
         this.setLayout(new BorderLayout());
         this.createInterface();
-        if (minecraftLauncher.getProfileManager().getSelectedProfile().getUseHopperCrashService()) {
-            minecraftLauncher.getLauncher().getVersionManager().getExecutorService().submit(new Runnable() {
-                public void run() {
+        final boolean useHopper = minecraftLauncher.getProfileManager().getSelectedProfile().getUseHopperCrashService();
+        Thread thread = new Thread("Crash report handler") {
+            public void run() {
+                CrashSignature signature = CrashSignature.of(report);
+                CrashIndex.Entry entry = minecraftLauncher.getCrashIndex().record(signature, version.getId());
+                CrashReportTab.LOGGER.info("Crash signature " + signature.getHash() + " (" + signature.getTitle() + ") seen " + entry.getCount() + " time(s) since " + entry.getFirstSeen());
+                CrashReportTab.this.crashInfoPane.showSignature(entry);
+                if (!signature.isResolvable()) {
+                    CrashReportTab.LOGGER.info("Couldn\'t find a stack trace in the crash report; not matching it against known crashes");
+                }
+
+                if (signature.isResolvable() && entry.isResolved()) {
+                    CrashReportTab.LOGGER.info("Crash is already known" + (entry.getHopperCrashId() == null ? "" : " to Mojang as crash " + entry.getHopperCrashId()) + "; not reporting it again");
+                    final Problem problem = entry.getProblem();
+                    CrashReportTab.this.knownProblem = problem;
+                    if (problem != null) {
+                        SwingUtilities.invokeLater(new Runnable() {
+                            public void run() {
+                                CrashReportTab.this.showKnownProblemPopup(problem);
+                            }
+                        });
+                    }
+                } else if (useHopper) {
                     try {
                         HashMap e = new HashMap();
                         e.put("launcher.version", "1.5.3");
                         e.put("launcher.title", minecraftLauncher.getUserInterface().getTitle());
                         e.put("bootstrap.version", String.valueOf(minecraftLauncher.getBootstrapVersion()));
-                        CrashReportTab.this.hopperServiceResponse = HopperService.submitReport(minecraftLauncher.getLauncher().getProxy(), report, "Minecraft", version.getId(), e);
-                        CrashReportTab.LOGGER.info("Reported crash to Mojang (ID " + CrashReportTab.this.hopperServiceResponse.getReport().getId() + ")");
-                        if (CrashReportTab.this.hopperServiceResponse.getProblem() != null) {
-                            CrashReportTab.this.showKnownProblemPopup();
-                        } else if (CrashReportTab.this.hopperServiceResponse.getReport().canBePublished()) {
-                            CrashReportTab.this.showPublishReportPrompt();
-                        }
-                    } catch (IOException var2) {
-                        CrashReportTab.LOGGER.error("Couldn\'t report crash to Mojang", (Throwable) var2);
-                    }
+                        ListenableFuture<SubmitResponse> future = minecraftLauncher.getHopperSpool().submit(signature.getHash(), HopperService.createSubmitRequest(report, "Minecraft", version.getId(), e));
+                        Futures.addCallback(future, new FutureCallback<SubmitResponse>() {
+                            public void onSuccess(final SubmitResponse result) {
+                                CrashReportTab.this.hopperServiceResponse = result;
+                                CrashReportTab.LOGGER.info("Reported crash to Mojang (ID " + result.getReport().getId() + ")");
+                                SwingUtilities.invokeLater(new Runnable() {
+                                    public void run() {
+                                        if (result.getProblem() != null) {
+                                            CrashReportTab.this.showKnownProblemPopup(result.getProblem());
+                                        } else if (result.getReport().canBePublished()) {
+                                            CrashReportTab.this.showPublishReportPrompt();
+                                        }
 
+                                    }
+                                });
+                            }
+
+                            public void onFailure(Throwable t) {
+                                CrashReportTab.LOGGER.error("Couldn\'t report crash to Mojang", t);
+                            }
+                        });
+                    } catch (IOException var4) {
+                        CrashReportTab.LOGGER.error("Couldn\'t queue crash report for Mojang", (Throwable) var4);
+                    }
                 }
-            });
-        }
 
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
     }
 
     private void showPublishReportPrompt() {
@@ -84,26 +128,34 @@ public class CrashReportTab extends JPanel {
         message.setText("<html><p>Sorry, but it looks like the game crashed and we don\'t know why.</p><p>Would you mind publishing this report so that " + (this.isModded ? "the mod authors" : "Mojang") + " can fix it?</p></html>");
         int result = JOptionPane.showOptionDialog(this, message, "Uhoh, something went wrong!", 0, 1, (Icon) null, options, options[0]);
         if (result == 0) {
-            try {
-                PublishResponse e = HopperService.publishReport(this.minecraftLauncher.getLauncher().getProxy(), this.hopperServiceResponse.getReport());
-            } catch (IOException var5) {
-                LOGGER.error("Couldn\'t publish report " + this.hopperServiceResponse.getReport().getId(), (Throwable) var5);
-            }
+            final Report report = this.hopperServiceResponse.getReport();
+            Thread thread = new Thread("Crash report publisher") {
+                public void run() {
+                    try {
+                        PublishResponse e = HopperService.publishReport(CrashReportTab.this.minecraftLauncher.getLauncher().getProxy(), report);
+                    } catch (IOException var2) {
+                        CrashReportTab.LOGGER.error("Couldn\'t publish report " + report.getId(), (Throwable) var2);
+                    }
+
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
         }
 
     }
 
-    private void showKnownProblemPopup() {
-        if (this.hopperServiceResponse.getProblem().getUrl() == null) {
-            JOptionPane.showMessageDialog(this, this.hopperServiceResponse.getProblem().getDescription(), this.hopperServiceResponse.getProblem().getTitle(), 1);
+    private void showKnownProblemPopup(Problem problem) {
+        if (problem.getUrl() == null) {
+            JOptionPane.showMessageDialog(this, problem.getDescription(), problem.getTitle(), 1);
         } else {
             String[] options = new String[]{"Fix The Problem", "Cancel"};
-            int result = JOptionPane.showOptionDialog(this, this.hopperServiceResponse.getProblem().getDescription(), this.hopperServiceResponse.getProblem().getTitle(), 0, 1, (Icon) null, options, options[0]);
+            int result = JOptionPane.showOptionDialog(this, problem.getDescription(), problem.getTitle(), 0, 1, (Icon) null, options, options[0]);
             if (result == 0) {
                 try {
-                    OperatingSystem.openLink(new URI(this.hopperServiceResponse.getProblem().getUrl()));
-                } catch (URISyntaxException var4) {
-                    LOGGER.error("Couldn\'t open help page ( " + this.hopperServiceResponse.getProblem().getUrl() + "  ) for crash", (Throwable) var4);
+                    OperatingSystem.openLink(new URI(problem.getUrl()));
+                } catch (URISyntaxException var5) {
+                    LOGGER.error("Couldn\'t open help page ( " + problem.getUrl() + "  ) for crash", (Throwable) var5);
                 }
             }
         }
@@ -123,6 +175,7 @@ public class CrashReportTab extends JPanel {
         public static final String INFO_MODDED = "<html><div style=\'width: 100%\'><p><b>Uhoh, it looks like the game has crashed! Sorry for the inconvenience :(</b></p><p>We think your game may be modded, and as such we can\'t accept this crash report.</p><p>However, if you do indeed use mods, please send this to the mod authors to take a look at!</p></div></html>";
         private final JButton submitButton = new JButton("Report to Mojang");
         private final JButton openFileButton = new JButton("Open report file");
+        private final JLabel signatureLabel = new JLabel();
 
         protected CrashInfoPane(Launcher minecraftLauncher) {
             this.submitButton.addActionListener(this);
@@ -145,20 +198,35 @@ public class CrashReportTab extends JPanel {
             constraints.weighty = 1.0D;
             constraints.gridheight = 2;
             this.add(new JLabel(CrashReportTab.this.isModded ? "<html><div style=\'width: 100%\'><p><b>Uhoh, it looks like the game has crashed! Sorry for the inconvenience :(</b></p><p>We think your game may be modded, and as such we can\'t accept this crash report.</p><p>However, if you do indeed use mods, please send this to the mod authors to take a look at!</p></div></html>" : "<html><div style=\'width: 100%\'><p><b>Uhoh, it looks like the game has crashed! Sorry for the inconvenience :(</b></p><p>Using magic and love, we\'ve managed to gather some details about the crash and we will investigate this as soon as we can.</p><p>You can see the full report below.</p></div></html>"), constraints);
+            constraints.gridy = 2;
+            constraints.gridheight = 1;
+            constraints.gridwidth = 2;
+            constraints.weighty = 0.0D;
+            this.add(this.signatureLabel, constraints);
             if (CrashReportTab.this.isModded) {
                 this.submitButton.setEnabled(false);
             }
 
         }
 
+        protected void showSignature(final CrashIndex.Entry entry) {
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run() {
+                    CrashInfoPane.this.signatureLabel.setText(entry.getCount() <= 1 ? "First time this crash has been seen on this computer." : "This crash has been seen " + entry.getCount() + " times on this computer since " + entry.getFirstSeen() + ".");
+                }
+            });
+        }
+
         public void actionPerformed(ActionEvent e) {
             if (e.getSource() == this.submitButton) {
                 if (CrashReportTab.this.hopperServiceResponse != null) {
                     if (CrashReportTab.this.hopperServiceResponse.getProblem() != null) {
-                        CrashReportTab.this.showKnownProblemPopup();
+                        CrashReportTab.this.showKnownProblemPopup(CrashReportTab.this.hopperServiceResponse.getProblem());
                     } else if (CrashReportTab.this.hopperServiceResponse.getReport().canBePublished()) {
                         CrashReportTab.this.showPublishReportPrompt();
                     }
+                } else if (CrashReportTab.this.knownProblem != null) {
+                    CrashReportTab.this.showKnownProblemPopup(CrashReportTab.this.knownProblem);
                 } else {
                     try {
                         HashMap ex = new HashMap();
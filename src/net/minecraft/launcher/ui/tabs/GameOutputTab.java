@@ -1,117 +1,274 @@
 package net.minecraft.launcher.ui.tabs;
 
+import com.google.common.collect.Maps;
 import com.mojang.launcher.events.GameOutputLogProcessor;
+import com.mojang.launcher.game.log.GameLogArchive;
+import com.mojang.launcher.game.log.GameLogArchiveListener;
+import com.mojang.launcher.game.log.GameOutputScanListener;
+import com.mojang.launcher.game.log.GameOutputSignature;
 import com.mojang.launcher.game.process.GameProcess;
-import java.awt.Font;
-import java.awt.Insets;
-import java.awt.Toolkit;
-import java.awt.datatransfer.ClipboardOwner;
-import java.awt.datatransfer.StringSelection;
+import com.mojang.launcher.game.process.ProcessSample;
+import com.mojang.launcher.game.process.ProcessTelemetryListener;
+import com.mojang.util.ConcurrentRingBuffer;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import javax.swing.JMenuItem;
-import javax.swing.JPopupMenu;
-import javax.swing.JScrollBar;
-import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.JButton;
+import javax.swing.JLabel;
 import javax.swing.SwingUtilities;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
-import javax.swing.text.AttributeSet;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.Document;
-import javax.swing.text.Element;
+import javax.swing.Timer;
 import net.minecraft.launcher.Launcher;
+import net.minecraft.launcher.ui.tabs.log.LogViewPanel;
+import net.minecraft.launcher.ui.tabs.log.ProcessTelemetryGraph;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
-public class GameOutputTab extends JScrollPane implements GameOutputLogProcessor {
+public class GameOutputTab extends LogViewPanel implements GameOutputLogProcessor, GameOutputScanListener, ProcessTelemetryListener, GameLogArchiveListener {
 
-    private static final Font MONOSPACED = new Font("Monospaced", 0, 12);
-    private static final int MAX_LINE_COUNT = 1000;
-    private final JTextArea console = new JTextArea();
-    private final JPopupMenu popupMenu = new JPopupMenu();
-    private final JMenuItem copyTextButton = new JMenuItem("Copy All Text");
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MAX_LINE_COUNT = 250000;
+    private static final int MAX_PENDING_LINES = 8192;
+    private static final int FLUSHES_PER_SECOND = 30;
+    private static final int MAX_ARCHIVE_MATCHES = 1000;
+    private static final ExecutorService ARCHIVE_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Game log archive reader");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
     private final Launcher minecraftLauncher;
+    private final ConcurrentRingBuffer<String> pendingLines = new ConcurrentRingBuffer(MAX_PENDING_LINES);
+    private final Timer flushTimer;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ProcessTelemetryGraph telemetryGraph = new ProcessTelemetryGraph();
+    private final JLabel signatureLabel = new JLabel();
+    private final Map<String, Long> signatureCounts = Maps.newTreeMap();
+    private final Map<String, Long> pendingSignatureCounts = Maps.newHashMap();
+    private final JButton previousErrorsButton = new JButton("Previous Errors");
+    private final JButton searchArchiveButton = new JButton("Search All Sessions");
+    private volatile GameLogArchive.Session logSession;
 
     public GameOutputTab(Launcher minecraftLauncher) {
+        super(MAX_LINE_COUNT);
         this.minecraftLauncher = minecraftLauncher;
-        this.popupMenu.add(this.copyTextButton);
-        this.console.setComponentPopupMenu(this.popupMenu);
-        this.copyTextButton.addActionListener(new ActionListener() {
+        this.flushTimer = new Timer(1000 / FLUSHES_PER_SECOND, new ActionListener() {
             public void actionPerformed(ActionEvent e) {
-                try {
-                    StringSelection ss = new StringSelection(GameOutputTab.this.console.getText());
-                    Toolkit.getDefaultToolkit().getSystemClipboard().setContents(ss, (ClipboardOwner) null);
-                } catch (Exception var3) {
-                    ;
-                }
-
+                GameOutputTab.this.flush();
             }
         });
-        this.console.setFont(MONOSPACED);
-        this.console.setEditable(false);
-        this.console.setMargin((Insets) null);
-        this.setViewportView(this.console);
-        this.console.getDocument().addDocumentListener(new DocumentListener() {
-            public void insertUpdate(DocumentEvent e) {
-                SwingUtilities.invokeLater(new Runnable() {
-                    public void run() {
-                        Document document = GameOutputTab.this.console.getDocument();
-                        Element root = document.getDefaultRootElement();
-
-                        while (root.getElementCount() > 1001) {
-                            try {
-                                document.remove(0, root.getElement(0).getEndOffset());
-                            } catch (BadLocationException var4) {
-                                ;
-                            }
-                        }
-
-                    }
-                });
+        this.flushTimer.setCoalesce(true);
+        this.add(this.telemetryGraph, "South");
+        this.previousErrorsButton.setEnabled(false);
+        this.searchArchiveButton.setEnabled(false);
+        this.previousErrorsButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                GameOutputTab.this.showPreviousErrors();
             }
+        });
+        this.searchArchiveButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                GameOutputTab.this.searchArchive(GameOutputTab.this.getSearchText().trim());
+            }
+        });
+        this.getToolbar().add(this.searchArchiveButton);
+        this.getToolbar().add(this.previousErrorsButton);
+        this.getToolbar().add(this.signatureLabel);
+    }
+
+    public void addNotify() {
+        super.addNotify();
+        if (!this.pendingLines.isEmpty()) {
+            this.scheduleFlush();
+        }
+
+    }
+
+    public void removeNotify() {
+        this.flushTimer.stop();
+        this.flushScheduled.set(false);
+        super.removeNotify();
+    }
 
-            public void removeUpdate(DocumentEvent e) {
+    public Launcher getMinecraftLauncher() {
+        return this.minecraftLauncher;
+    }
+
+    public void print(String line) {
+        this.pendingLines.offer(line);
+        this.scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (this.flushScheduled.compareAndSet(false, true)) {
+            this.flushTimer.start();
+        }
+
+    }
+
+    private void flush() {
+        ArrayList<String> lines = new ArrayList();
+        long dropped = this.pendingLines.getAndResetDroppedCount();
+        if (dropped != 0L) {
+            lines.add("[Launcher] " + dropped + " line(s) of output skipped");
+        }
+
+        this.pendingLines.drainTo(lines, this.pendingLines.getCapacity());
+        dropped = this.pendingLines.getAndResetDroppedCount();
+        if (dropped != 0L) {
+            lines.add("[Launcher] " + dropped + " line(s) of output skipped");
+        }
+
+        this.appendLines(lines);
+        this.publishSignatureCounts();
+        if (this.pendingLines.isEmpty()) {
+            this.flushTimer.stop();
+            this.flushScheduled.set(false);
+            if (!this.pendingLines.isEmpty() || this.hasPendingSignatureCounts()) {
+                this.scheduleFlush();
             }
+        }
+
+    }
+
+    public void onGameOutput(GameProcess process, String logLine) {
+        this.print(logLine);
+    }
 
-            public void changedUpdate(DocumentEvent e) {
+    public void onLogSessionStarted(GameLogArchive.Session session) {
+        this.logSession = session;
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+                GameOutputTab.this.previousErrorsButton.setEnabled(true);
+                GameOutputTab.this.searchArchiveButton.setEnabled(true);
             }
         });
     }
 
-    public Launcher getMinecraftLauncher() {
-        return this.minecraftLauncher;
+    private void showPreviousErrors() {
+        final GameLogArchive.Session current = this.logSession;
+        if (current != null) {
+            ARCHIVE_EXECUTOR.execute(new Runnable() {
+                public void run() {
+                    try {
+                        List<GameLogArchive.SessionInfo> sessions = current.getArchive().getSessions();
+                        GameLogArchive.SessionInfo previous = null;
+
+                        for (int i = sessions.size() - 1; i >= 0; --i) {
+                            if (((GameLogArchive.SessionInfo) sessions.get(i)).getId() != current.getId()) {
+                                previous = (GameLogArchive.SessionInfo) sessions.get(i);
+                                break;
+                            }
+                        }
+
+                        if (previous == null) {
+                            GameOutputTab.this.print("[Launcher] No earlier sessions have been archived for this profile");
+                        } else {
+                            List<String> lines = current.getArchive().readSession(previous.getId(), true);
+                            String started = (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss")).format(new Date(previous.getStartTime()));
+                            GameOutputTab.this.print("[Launcher] " + lines.size() + " error line(s) in the session started " + started + (previous.isComplete() ? "" : ", which didn\'t end cleanly"));
+                            Iterator i$ = lines.iterator();
+
+                            while (i$.hasNext()) {
+                                GameOutputTab.this.print("[" + started + "] " + (String) i$.next());
+                            }
+                        }
+                    } catch (IOException var6) {
+                        GameOutputTab.LOGGER.warn("Couldn\'t read game log archive", (Throwable) var6);
+                        GameOutputTab.this.print("[Launcher] Couldn\'t read the game log archive: " + var6.getMessage());
+                    }
+
+                }
+            });
+        }
     }
 
-    public void print(final String line) {
-        if (!SwingUtilities.isEventDispatchThread()) {
-            SwingUtilities.invokeLater(new Runnable() {
+    private void searchArchive(final String text) {
+        final GameLogArchive.Session current = this.logSession;
+        if (current != null && text.length() != 0) {
+            ARCHIVE_EXECUTOR.execute(new Runnable() {
                 public void run() {
-                    GameOutputTab.this.print(line);
+                    try {
+                        List<GameLogArchive.Match> matches = current.getArchive().grep(text);
+                        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                        int first = Math.max(0, matches.size() - MAX_ARCHIVE_MATCHES);
+                        GameOutputTab.this.print("[Launcher] " + matches.size() + " line(s) matching \"" + text + "\" in archived sessions" + (first > 0 ? "; showing the last " + MAX_ARCHIVE_MATCHES : ""));
+
+                        for (int i = first; i < matches.size(); ++i) {
+                            GameLogArchive.Match match = (GameLogArchive.Match) matches.get(i);
+                            GameOutputTab.this.print("[" + format.format(new Date(match.getSessionId())) + "] " + match.getLine());
+                        }
+                    } catch (IOException var6) {
+                        GameOutputTab.LOGGER.warn("Couldn\'t search game log archive", (Throwable) var6);
+                        GameOutputTab.this.print("[Launcher] Couldn\'t search the game log archive: " + var6.getMessage());
+                    }
+
                 }
             });
-        } else {
-            Document document = this.console.getDocument();
-            JScrollBar scrollBar = this.getVerticalScrollBar();
-            boolean shouldScroll = false;
-            if (this.getViewport().getView() == this.console) {
-                shouldScroll = (double) scrollBar.getValue() + scrollBar.getSize().getHeight() + (double) (MONOSPACED.getSize() * 4) > (double) scrollBar.getMaximum();
-            }
+        }
+    }
+
+    public void onProcessSample(GameProcess process, ProcessSample sample) {
+        process.getTelemetry().removeListener(this);
+        this.telemetryGraph.attach(process);
+        this.telemetryGraph.onProcessSample(process, sample);
+    }
+
+    public void onSignatureMatched(GameProcess process, GameOutputSignature signature, String line, long count) {
+        Map var6 = this.pendingSignatureCounts;
+        synchronized (this.pendingSignatureCounts) {
+            Long existing = (Long) this.pendingSignatureCounts.get(signature.getId());
+            this.pendingSignatureCounts.put(signature.getId(), Long.valueOf(existing == null ? 1L : existing.longValue() + 1L));
+        }
+
+        this.scheduleFlush();
+    }
 
-            try {
-                document.insertString(document.getLength(), line, (AttributeSet) null);
-            } catch (BadLocationException var6) {
-                ;
+    private boolean hasPendingSignatureCounts() {
+        Map var1 = this.pendingSignatureCounts;
+        synchronized (this.pendingSignatureCounts) {
+            return !this.pendingSignatureCounts.isEmpty();
+        }
+    }
+
+    private void publishSignatureCounts() {
+        Map var2 = this.pendingSignatureCounts;
+        synchronized (this.pendingSignatureCounts) {
+            if (this.pendingSignatureCounts.isEmpty()) {
+                return;
             }
 
-            if (shouldScroll) {
-                scrollBar.setValue(Integer.MAX_VALUE);
+            Iterator i$ = this.pendingSignatureCounts.entrySet().iterator();
+
+            while (i$.hasNext()) {
+                Entry<String, Long> entry = (Entry) i$.next();
+                Long existing = (Long) this.signatureCounts.get(entry.getKey());
+                this.signatureCounts.put(entry.getKey(), Long.valueOf(existing == null ? ((Long) entry.getValue()).longValue() : existing.longValue() + ((Long) entry.getValue()).longValue()));
             }
 
+            this.pendingSignatureCounts.clear();
         }
-    }
 
-    public void onGameOutput(GameProcess process, String logLine) {
-        this.print(logLine + "\n");
+        StringBuilder text = new StringBuilder("Detected:");
+        Iterator i$ = this.signatureCounts.entrySet().iterator();
+
+        while (i$.hasNext()) {
+            Entry entry = (Entry) i$.next();
+            text.append(' ').append((String) entry.getKey()).append(" x").append(entry.getValue());
+        }
+
+        this.signatureLabel.setText(text.toString());
     }
 
 }
@@ -0,0 +1,34 @@
+package net.minecraft.launcher.ui.tabs.log;
+
+public enum LogLevel {
+
+    INFO("INFO", 0, "All messages"),
+    WARNING("WARNING", 1, "Warnings and errors"),
+    ERROR("ERROR", 2, "Errors only");
+    private final String name;
+    // $FF: synthetic field
+    private static final LogLevel[] $VALUES = new LogLevel[]{INFO, WARNING, ERROR};
+
+    private LogLevel(String var1, int var2, String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String toString() {
+        return this.name;
+    }
+
+    public static LogLevel classify(String line, LogLevel previous) {
+        if (previous != null && line.length() > 0 && (line.charAt(0) == '\t' || line.startsWith("Caused by: ") || line.startsWith("    at "))) {
+            return previous;
+        } else if (line.contains("ERROR") || line.contains("FATAL") || line.contains("SEVERE") || line.startsWith("Exception in thread")) {
+            return ERROR;
+        } else {
+            return line.contains("WARN") ? WARNING : INFO;
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package net.minecraft.launcher.ui.tabs.log;
+
+public class LogLineBuffer {
+
+    private final LogLineBuffer.Entry[] entries;
+    private volatile long firstSequence;
+    private volatile long nextSequence;
+    private int longestLine;
+
+    public LogLineBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        } else {
+            this.entries = new LogLineBuffer.Entry[capacity];
+        }
+    }
+
+    public boolean append(String line, LogLevel level) {
+        long sequence = this.nextSequence;
+        this.entries[(int) (sequence % (long) this.entries.length)] = new LogLineBuffer.Entry(sequence, line, level);
+        this.nextSequence = sequence + 1L;
+        if (line.length() > this.longestLine) {
+            this.longestLine = line.length();
+        }
+
+        if (this.nextSequence - this.firstSequence > (long) this.entries.length) {
+            ++this.firstSequence;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < this.entries.length; ++i) {
+            this.entries[i] = null;
+        }
+
+        this.firstSequence = this.nextSequence;
+        this.longestLine = 0;
+    }
+
+    public String getLine(long sequence) {
+        return this.getRetainedEntry(sequence).text;
+    }
+
+    public LogLevel getLevel(long sequence) {
+        return this.getRetainedEntry(sequence).level;
+    }
+
+    public String getLowerCaseLine(long sequence) {
+        return this.getRetainedEntry(sequence).getLowerCase();
+    }
+
+    LogLineBuffer.Entry getEntry(long sequence) {
+        if (sequence >= 0L && sequence < this.nextSequence) {
+            LogLineBuffer.Entry entry = this.entries[(int) (sequence % (long) this.entries.length)];
+            return entry != null && entry.sequence == sequence ? entry : null;
+        } else {
+            return null;
+        }
+    }
+
+    private LogLineBuffer.Entry getRetainedEntry(long sequence) {
+        if (sequence >= this.firstSequence && sequence < this.nextSequence) {
+            return this.entries[(int) (sequence % (long) this.entries.length)];
+        } else {
+            throw new IndexOutOfBoundsException("Line " + sequence + " is not retained (have " + this.firstSequence + " to " + (this.nextSequence - 1L) + ")");
+        }
+    }
+
+    public long getFirstSequence() {
+        return this.firstSequence;
+    }
+
+    public long getNextSequence() {
+        return this.nextSequence;
+    }
+
+    public int size() {
+        return (int) (this.nextSequence - this.firstSequence);
+    }
+
+    public int getCapacity() {
+        return this.entries.length;
+    }
+
+    public int getLongestLine() {
+        return this.longestLine;
+    }
+
+    static class Entry {
+
+        private final long sequence;
+        private final String text;
+        private final LogLevel level;
+        private String lowerCase;
+
+        private Entry(long sequence, String text, LogLevel level) {
+            this.sequence = sequence;
+            this.text = text;
+            this.level = level;
+        }
+
+        LogLevel getLevel() {
+            return this.level;
+        }
+
+        String getLowerCase() {
+            String result = this.lowerCase;
+            if (result == null) {
+                result = this.text.toLowerCase();
+                this.lowerCase = result;
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package net.minecraft.launcher.ui.tabs.log;
+
+import java.util.Iterator;
+import java.util.List;
+import javax.swing.AbstractListModel;
+
+public class LogListModel extends AbstractListModel {
+
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+    private final LogLineBuffer buffer;
+    private final LogListModel.SequenceIndex warnings;
+    private final LogListModel.SequenceIndex errors;
+    private LogLevel minimumLevel;
+    private LogLevel lastLevel;
+    private volatile int searchGeneration;
+
+    public LogListModel(int capacity) {
+        this.minimumLevel = LogLevel.INFO;
+        this.buffer = new LogLineBuffer(capacity);
+        this.warnings = new LogListModel.SequenceIndex(capacity);
+        this.errors = new LogListModel.SequenceIndex(capacity);
+    }
+
+    public LogLineBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    public LogLevel getMinimumLevel() {
+        return this.minimumLevel;
+    }
+
+    public void setMinimumLevel(LogLevel minimumLevel) {
+        if (minimumLevel == null) {
+            throw new IllegalArgumentException("Level cannot be null");
+        } else if (minimumLevel != this.minimumLevel) {
+            int oldSize = this.getSize();
+            this.minimumLevel = minimumLevel;
+            if (oldSize > 0) {
+                this.fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+
+            int newSize = this.getSize();
+            if (newSize > 0) {
+                this.fireIntervalAdded(this, 0, newSize - 1);
+            }
+
+        }
+    }
+
+    public int appendLines(List<String> lines) {
+        if (lines.isEmpty()) {
+            return 0;
+        } else {
+            int oldSize = this.getSize();
+            int removed = 0;
+            Iterator i$ = lines.iterator();
+
+            while (i$.hasNext()) {
+                String line = (String) i$.next();
+                LogLevel level = LogLevel.classify(line, this.lastLevel);
+                this.lastLevel = level;
+                long sequence = this.buffer.getNextSequence();
+                boolean evicted = this.buffer.append(line, level);
+                int warningsEvicted = this.warnings.evictBefore(this.buffer.getFirstSequence());
+                int errorsEvicted = this.errors.evictBefore(this.buffer.getFirstSequence());
+                if (level.compareTo(LogLevel.WARNING) >= 0) {
+                    this.warnings.add(sequence);
+                }
+
+                if (level == LogLevel.ERROR) {
+                    this.errors.add(sequence);
+                }
+
+                if (this.minimumLevel == LogLevel.INFO) {
+                    removed += evicted ? 1 : 0;
+                } else {
+                    removed += this.minimumLevel == LogLevel.ERROR ? errorsEvicted : warningsEvicted;
+                }
+            }
+
+            removed = Math.min(removed, oldSize);
+            if (removed > 0) {
+                this.fireIntervalRemoved(this, 0, removed - 1);
+            }
+
+            int size = this.getSize();
+            if (size > oldSize - removed) {
+                this.fireIntervalAdded(this, oldSize - removed, size - 1);
+            }
+
+            return removed;
+        }
+    }
+
+    public void clear() {
+        int oldSize = this.getSize();
+        this.buffer.clear();
+        this.warnings.clear();
+        this.errors.clear();
+        this.lastLevel = null;
+        if (oldSize > 0) {
+            this.fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+
+    }
+
+    private LogListModel.SequenceIndex getIndex() {
+        return this.minimumLevel == LogLevel.ERROR ? this.errors : (this.minimumLevel == LogLevel.WARNING ? this.warnings : null);
+    }
+
+    public int getSize() {
+        LogListModel.SequenceIndex index = this.getIndex();
+        return index == null ? this.buffer.size() : index.size;
+    }
+
+    public String getElementAt(int index) {
+        return this.buffer.getLine(this.getSequenceAt(index));
+    }
+
+    public LogLevel getLevelAt(int index) {
+        return this.buffer.getLevel(this.getSequenceAt(index));
+    }
+
+    public long getSequenceAt(int index) {
+        if (index >= 0 && index < this.getSize()) {
+            LogListModel.SequenceIndex filtered = this.getIndex();
+            return filtered == null ? this.buffer.getFirstSequence() + (long) index : filtered.get(index);
+        } else {
+            throw new IndexOutOfBoundsException("Row " + index + " out of " + this.getSize());
+        }
+    }
+
+    public int getIndexOfSequence(long sequence) {
+        if (sequence >= this.buffer.getFirstSequence() && sequence < this.buffer.getNextSequence()) {
+            LogListModel.SequenceIndex filtered = this.getIndex();
+            return filtered == null ? (int) (sequence - this.buffer.getFirstSequence()) : filtered.indexOf(sequence);
+        } else {
+            return -1;
+        }
+    }
+
+    public int startSearch() {
+        return ++this.searchGeneration;
+    }
+
+    public int getSearchGeneration() {
+        return this.searchGeneration;
+    }
+
+    public long findSequence(String needle, long fromSequence, boolean forward, LogLevel level, int generation) {
+        long first = this.buffer.getFirstSequence();
+        long next = this.buffer.getNextSequence();
+        long count = next - first;
+        long sequence = fromSequence;
+
+        for (long i = 0L; i < count; ++i) {
+            if (i % (long) CANCEL_CHECK_INTERVAL == 0L && generation != this.searchGeneration) {
+                return -1L;
+            }
+
+            sequence = forward ? sequence + 1L : sequence - 1L;
+            if (sequence >= next) {
+                sequence = first;
+            } else if (sequence < first) {
+                sequence = next - 1L;
+            }
+
+            LogLineBuffer.Entry entry = this.buffer.getEntry(sequence);
+            if (entry != null && entry.getLevel().compareTo(level) >= 0 && entry.getLowerCase().contains(needle)) {
+                return sequence;
+            }
+        }
+
+        return -1L;
+    }
+
+    public boolean matches(int index, String needle) {
+        return needle != null && needle.length() != 0 && this.buffer.getLowerCaseLine(this.getSequenceAt(index)).contains(needle);
+    }
+
+    public String getText() {
+        int size = this.getSize();
+        StringBuilder result = new StringBuilder();
+
+        for (int i = 0; i < size; ++i) {
+            result.append(this.getElementAt(i)).append('\n');
+        }
+
+        return result.toString();
+    }
+
+    static class SequenceIndex {
+
+        private final long[] sequences;
+        private int head;
+        private int size;
+
+        private SequenceIndex(int capacity) {
+            this.sequences = new long[capacity];
+        }
+
+        private void add(long sequence) {
+            this.sequences[(this.head + this.size) % this.sequences.length] = sequence;
+            ++this.size;
+        }
+
+        private int evictBefore(long firstSequence) {
+            int evicted;
+            for (evicted = 0; this.size > 0 && this.sequences[this.head] < firstSequence; ++evicted) {
+                this.head = (this.head + 1) % this.sequences.length;
+                --this.size;
+            }
+
+            return evicted;
+        }
+
+        private long get(int index) {
+            return this.sequences[(this.head + index) % this.sequences.length];
+        }
+
+        private int indexOf(long sequence) {
+            int low = 0;
+            int high = this.size - 1;
+
+            while (low <= high) {
+                int middle = low + high >>> 1;
+                long value = this.get(middle);
+                if (value < sequence) {
+                    low = middle + 1;
+                } else {
+                    if (value <= sequence) {
+                        return middle;
+                    }
+
+                    high = middle - 1;
+                }
+            }
+
+            return -1;
+        }
+
+        private void clear() {
+            this.head = 0;
+            this.size = 0;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package net.minecraft.launcher.ui.tabs.log;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Toolkit;
+import java.awt.datatransfer.ClipboardOwner;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+public class LogViewPanel extends JPanel {
+
+    private static final Font MONOSPACED = new Font("Monospaced", 0, 12);
+    private static final Color WARNING_COLOR = new Color(160, 100, 0);
+    private static final Color ERROR_COLOR = new Color(190, 0, 0);
+    private static final Color MATCH_COLOR = new Color(255, 240, 150);
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Log search");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private final LogListModel model;
+    private final JList list;
+    private final JScrollPane scrollPane;
+    private final JPanel toolbar;
+    private final JTextField searchField = new JTextField(20);
+    private final JComboBox levelBox = new JComboBox(LogLevel.values());
+    private final JPopupMenu popupMenu = new JPopupMenu();
+    private final JMenuItem copyTextButton = new JMenuItem("Copy All Text");
+    private final int charWidth;
+    private int cellWidth;
+    private String searchNeedle = "";
+    private String missedNeedle;
+    private long missedAtSequence;
+
+    public LogViewPanel(int capacity) {
+        super(new BorderLayout());
+        this.model = new LogListModel(capacity);
+        this.list = new JList(this.model);
+        this.scrollPane = new JScrollPane(this.list);
+        FontMetrics metrics = this.list.getFontMetrics(MONOSPACED);
+        this.charWidth = metrics.charWidth('m');
+        this.list.setFont(MONOSPACED);
+        this.list.setFixedCellHeight(metrics.getHeight());
+        this.list.setFixedCellWidth(this.charWidth);
+        this.list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        this.list.setCellRenderer(new LogViewPanel.LogCellRenderer());
+        this.popupMenu.add(this.copyTextButton);
+        this.list.setComponentPopupMenu(this.popupMenu);
+        this.copyTextButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                try {
+                    StringSelection ss = new StringSelection(LogViewPanel.this.model.getText());
+                    Toolkit.getDefaultToolkit().getSystemClipboard().setContents(ss, (ClipboardOwner) null);
+                } catch (Exception var3) {
+                    ;
+                }
+
+            }
+        });
+        this.toolbar = this.createToolbar();
+        this.add(this.toolbar, "North");
+        this.add(this.scrollPane, "Center");
+    }
+
+    protected JPanel createToolbar() {
+        JPanel toolbar = new JPanel(new FlowLayout(0, 4, 2));
+        JButton previousButton = new JButton("Previous");
+        JButton nextButton = new JButton("Next");
+        toolbar.add(new JLabel("Find:"));
+        toolbar.add(this.searchField);
+        toolbar.add(previousButton);
+        toolbar.add(nextButton);
+        toolbar.add(new JLabel("Show:"));
+        toolbar.add(this.levelBox);
+        this.searchField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) {
+                LogViewPanel.this.search(true, true);
+            }
+
+            public void removeUpdate(DocumentEvent e) {
+                LogViewPanel.this.search(true, true);
+            }
+
+            public void changedUpdate(DocumentEvent e) {
+                LogViewPanel.this.search(true, true);
+            }
+        });
+        ActionListener nextListener = new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                LogViewPanel.this.search(true, false);
+            }
+        };
+        this.searchField.addActionListener(nextListener);
+        nextButton.addActionListener(nextListener);
+        previousButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                LogViewPanel.this.search(false, false);
+            }
+        });
+        this.levelBox.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                LogViewPanel.this.model.setMinimumLevel((LogLevel) LogViewPanel.this.levelBox.getSelectedItem());
+                LogViewPanel.this.missedNeedle = null;
+                LogViewPanel.this.list.clearSelection();
+                LogViewPanel.this.scrollToBottom();
+            }
+        });
+        return toolbar;
+    }
+
+    private void search(final boolean forward, boolean includeCurrent) {
+        final String needle = this.searchField.getText().toLowerCase();
+        final int generation = this.model.startSearch();
+        this.searchNeedle = needle;
+        if (needle.length() != 0 && this.model.getSize() != 0) {
+            final long nextSequence = this.model.getBuffer().getNextSequence();
+            if (includeCurrent && this.missedNeedle != null && needle.contains(this.missedNeedle) && this.missedAtSequence == nextSequence) {
+                this.list.clearSelection();
+                this.list.repaint();
+            } else {
+                int selected = this.list.getSelectedIndex();
+                final long from;
+                if (selected < 0) {
+                    from = forward ? this.model.getBuffer().getFirstSequence() - 1L : nextSequence;
+                } else {
+                    from = this.model.getSequenceAt(selected) - (includeCurrent ? 1L : 0L);
+                }
+
+                final LogLevel level = this.model.getMinimumLevel();
+                SEARCH_EXECUTOR.execute(new Runnable() {
+                    public void run() {
+                        final long found = LogViewPanel.this.model.findSequence(needle, from, forward, level, generation);
+                        SwingUtilities.invokeLater(new Runnable() {
+                            public void run() {
+                                LogViewPanel.this.showSearchResult(generation, needle, found, nextSequence);
+                            }
+                        });
+                    }
+                });
+                this.list.repaint();
+            }
+        } else {
+            this.missedNeedle = null;
+            this.list.clearSelection();
+            this.list.repaint();
+        }
+    }
+
+    private void showSearchResult(int generation, String needle, long sequence, long searchedToSequence) {
+        if (generation == this.model.getSearchGeneration()) {
+            int index = sequence < 0L ? -1 : this.model.getIndexOfSequence(sequence);
+            if (index >= 0) {
+                this.missedNeedle = null;
+                this.list.setSelectedIndex(index);
+                this.list.ensureIndexIsVisible(index);
+            } else {
+                if (sequence < 0L) {
+                    this.missedNeedle = needle;
+                    this.missedAtSequence = searchedToSequence;
+                }
+
+                this.list.clearSelection();
+            }
+
+            this.list.repaint();
+        }
+    }
+
+    public void appendLines(List<String> lines) {
+        if (!lines.isEmpty()) {
+            JScrollBar scrollBar = this.scrollPane.getVerticalScrollBar();
+            boolean shouldScroll = scrollBar.getValue() + scrollBar.getVisibleAmount() + this.list.getFixedCellHeight() * 4 >= scrollBar.getMaximum();
+            int removed = this.model.appendLines(lines);
+            int width = (this.model.getBuffer().getLongestLine() + 4) * this.charWidth;
+            if (width > this.cellWidth) {
+                this.cellWidth = width;
+                this.list.setFixedCellWidth(width);
+            }
+
+            if (shouldScroll) {
+                this.scrollToBottom();
+            } else if (removed > 0) {
+                scrollBar.setValue(scrollBar.getValue() - removed * this.list.getFixedCellHeight());
+            }
+
+        }
+    }
+
+    public void clear() {
+        this.model.clear();
+        this.missedNeedle = null;
+    }
+
+    private void scrollToBottom() {
+        int size = this.model.getSize();
+        if (size > 0) {
+            this.list.ensureIndexIsVisible(size - 1);
+        }
+
+    }
+
+    protected String getSearchText() {
+        return this.searchField.getText();
+    }
+
+    protected JPanel getToolbar() {
+        return this.toolbar;
+    }
+
+    public LogListModel getModel() {
+        return this.model;
+    }
+
+    private class LogCellRenderer extends DefaultListCellRenderer {
+
+        private LogCellRenderer() {}
+
+        public Component getListCellRendererComponent(JList list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+            String line = ((String) value).replace("\t", "    ");
+            super.getListCellRendererComponent(list, line.length() == 0 ? " " : line, index, isSelected, false);
+            if (!isSelected) {
+                LogLevel level = LogViewPanel.this.model.getLevelAt(index);
+                if (level == LogLevel.ERROR) {
+                    this.setForeground(ERROR_COLOR);
+                } else if (level == LogLevel.WARNING) {
+                    this.setForeground(WARNING_COLOR);
+                }
+
+                if (LogViewPanel.this.model.matches(index, LogViewPanel.this.searchNeedle)) {
+                    this.setBackground(MATCH_COLOR);
+                }
+            }
+
+            return this;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package net.minecraft.launcher.ui.tabs.log;
+
+import com.mojang.launcher.game.process.GameProcess;
+import com.mojang.launcher.game.process.ProcessSample;
+import com.mojang.launcher.game.process.ProcessTelemetryListener;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.util.List;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+public class ProcessTelemetryGraph extends JComponent implements ProcessTelemetryListener {
+
+    private static final Font LABEL_FONT = new Font("Monospaced", 0, 11);
+    private static final Color BACKGROUND_COLOR = new Color(30, 30, 30);
+    private static final Color CPU_COLOR = new Color(90, 200, 90);
+    private static final Color MEMORY_COLOR = new Color(90, 150, 230);
+    private static final Color LABEL_COLOR = new Color(220, 220, 220);
+    private static final int SAMPLE_WIDTH = 2;
+    private volatile GameProcess process;
+
+    public ProcessTelemetryGraph() {
+        this.setPreferredSize(new Dimension(0, 60));
+        this.setVisible(false);
+    }
+
+    public void attach(GameProcess process) {
+        if (this.process != process) {
+            synchronized (this) {
+                if (this.process != process) {
+                    if (this.process != null) {
+                        this.process.getTelemetry().removeListener(this);
+                    }
+
+                    this.process = process;
+                    process.getTelemetry().addListener(this);
+                }
+            }
+        }
+    }
+
+    public void onProcessSample(GameProcess process, ProcessSample sample) {
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+                if (!ProcessTelemetryGraph.this.isVisible()) {
+                    ProcessTelemetryGraph.this.setVisible(true);
+                    ProcessTelemetryGraph.this.revalidate();
+                }
+
+                ProcessTelemetryGraph.this.repaint();
+            }
+        });
+    }
+
+    protected void paintComponent(Graphics g) {
+        int width = this.getWidth();
+        int height = this.getHeight();
+        g.setColor(BACKGROUND_COLOR);
+        g.fillRect(0, 0, width, height);
+        GameProcess process = this.process;
+        if (process != null) {
+            List<ProcessSample> samples = process.getTelemetry().getSamples();
+            if (!samples.isEmpty()) {
+                int count = Math.min(samples.size(), width / SAMPLE_WIDTH + 1);
+                List<ProcessSample> visible = samples.subList(samples.size() - count, samples.size());
+                double maxCpu = 100.0D;
+                long maxMemory = 1L;
+
+                for (int i = 0; i < count; ++i) {
+                    ProcessSample sample = (ProcessSample) visible.get(i);
+                    maxCpu = Math.max(maxCpu, sample.getCpuPercent());
+                    maxMemory = Math.max(maxMemory, sample.getResidentBytes());
+                }
+
+                int graphHeight = height - 4;
+
+                for (int i = 1; i < count; ++i) {
+                    ProcessSample previous = (ProcessSample) visible.get(i - 1);
+                    ProcessSample sample = (ProcessSample) visible.get(i);
+                    int x1 = width - (count - i) * SAMPLE_WIDTH;
+                    int x2 = x1 + SAMPLE_WIDTH;
+                    g.setColor(MEMORY_COLOR);
+                    g.drawLine(x1, height - 2 - (int) ((double) graphHeight * (double) previous.getResidentBytes() / (double) maxMemory), x2, height - 2 - (int) ((double) graphHeight * (double) sample.getResidentBytes() / (double) maxMemory));
+                    g.setColor(CPU_COLOR);
+                    g.drawLine(x1, height - 2 - (int) ((double) graphHeight * previous.getCpuPercent() / maxCpu), x2, height - 2 - (int) ((double) graphHeight * sample.getCpuPercent() / maxCpu));
+                }
+
+                ProcessSample latest = (ProcessSample) visible.get(count - 1);
+                g.setFont(LABEL_FONT);
+                g.setColor(LABEL_COLOR);
+                int y = g.getFontMetrics().getAscent() + 2;
+                g.drawString(String.format("CPU %.0f%%  RSS %d MB  Threads %d  Major faults %d  Read %d MB  Written %d MB", new Object[]{Double.valueOf(latest.getCpuPercent()), Long.valueOf(latest.getResidentBytes() / 1048576L), Integer.valueOf(latest.getThreads()), Long.valueOf(latest.getMajorFaults()), Long.valueOf(latest.getReadBytes() / 1048576L), Long.valueOf(latest.getWriteBytes() / 1048576L)}), 4, y);
+            }
+        }
+    }
+}
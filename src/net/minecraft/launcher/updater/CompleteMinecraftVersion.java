@@ -2,9 +2,8 @@ package net.minecraft.launcher.updater;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 import com.mojang.launcher.OperatingSystem;
-import com.mojang.launcher.updater.VersionSyncInfo;
+import com.mojang.launcher.Platform;
 import com.mojang.launcher.updater.download.ChecksummedDownloadable;
 import com.mojang.launcher.updater.download.Downloadable;
 import com.mojang.launcher.versions.CompatibilityRule;
@@ -43,6 +42,7 @@ public class CompleteMinecraftVersion implements CompleteVersion {
     private String jar;
     private CompleteMinecraftVersion savableVersion;
     private transient boolean synced = false;
+    private transient volatile Boolean appliesToCurrentEnvironment;
 
     public CompleteMinecraftVersion() {
     }
@@ -59,25 +59,12 @@ public class CompleteMinecraftVersion implements CompleteVersion {
         this.incompatibilityReason = version.incompatibilityReason;
         this.assets = version.assets;
         this.jar = version.jar;
-        Iterator i$;
         if (version.libraries != null) {
-            this.libraries = Lists.newArrayList();
-            i$ = version.getLibraries().iterator();
-
-            while (i$.hasNext()) {
-                Library compatibilityRule = (Library) i$.next();
-                this.libraries.add(new Library(compatibilityRule));
-            }
+            this.libraries = Lists.newArrayList((Iterable) version.libraries);
         }
 
         if (version.compatibilityRules != null) {
-            this.compatibilityRules = Lists.newArrayList();
-            i$ = version.compatibilityRules.iterator();
-
-            while (i$.hasNext()) {
-                CompatibilityRule compatibilityRule1 = (CompatibilityRule) i$.next();
-                this.compatibilityRules.add(new CompatibilityRule(compatibilityRule1));
-            }
+            this.compatibilityRules = Lists.newArrayList((Iterable) version.compatibilityRules);
         }
 
     }
@@ -102,6 +89,15 @@ public class CompleteMinecraftVersion implements CompleteVersion {
         return this.libraries;
     }
 
+    void internLibraries() {
+        if (this.libraries != null) {
+            for (int i = 0; i < this.libraries.size(); ++i) {
+                this.libraries.set(i, Library.intern((Library) this.libraries.get(i)));
+            }
+        }
+
+    }
+
     public String getMainClass() {
         return this.mainClass;
     }
@@ -132,6 +128,20 @@ public class CompleteMinecraftVersion implements CompleteVersion {
         return result;
     }
 
+    public Collection<Library> getRelevantLibraries(Platform platform) {
+        ArrayList result = new ArrayList();
+        Iterator i$ = this.libraries.iterator();
+
+        while (i$.hasNext()) {
+            Library library = (Library) i$.next();
+            if (library.appliesTo(platform)) {
+                result.add(library);
+            }
+        }
+
+        return result;
+    }
+
     public Collection<File> getClassPath(OperatingSystem os, File base) {
         Collection libraries = this.getRelevantLibraries();
         ArrayList result = new ArrayList();
@@ -208,22 +218,17 @@ public class CompleteMinecraftVersion implements CompleteVersion {
     }
 
     public boolean appliesToCurrentEnvironment() {
-        if (this.compatibilityRules == null) {
-            return true;
-        } else {
-            CompatibilityRule.Action lastAction = CompatibilityRule.Action.DISALLOW;
-            Iterator i$ = this.compatibilityRules.iterator();
-
-            while (i$.hasNext()) {
-                CompatibilityRule compatibilityRule = (CompatibilityRule) i$.next();
-                CompatibilityRule.Action action = compatibilityRule.getAppliedAction();
-                if (action != null) {
-                    lastAction = action;
-                }
-            }
-
-            return lastAction == CompatibilityRule.Action.ALLOW;
+        Boolean result = this.appliesToCurrentEnvironment;
+        if (result == null) {
+            result = Boolean.valueOf(CompatibilityRule.isAllowed(this.compatibilityRules, Platform.current()));
+            this.appliesToCurrentEnvironment = result;
         }
+
+        return result.booleanValue();
+    }
+
+    public boolean appliesTo(Platform platform) {
+        return CompatibilityRule.isAllowed(this.compatibilityRules, platform);
     }
 
     public String getIncompatibilityReason() {
@@ -247,79 +252,55 @@ public class CompleteMinecraftVersion implements CompleteVersion {
     }
 
     public CompleteMinecraftVersion resolve(MinecraftVersionManager versionManager) throws IOException {
-        return this.resolve(versionManager, (Set) Sets.newHashSet());
+        return versionManager.getVersionResolver().resolve(this);
     }
 
-    protected CompleteMinecraftVersion resolve(MinecraftVersionManager versionManager, Set<String> resolvedSoFar) throws IOException {
-        if (this.inheritsFrom == null) {
-            return this;
-        } else if (!resolvedSoFar.add(this.id)) {
-            throw new IllegalStateException("Circular dependency detected");
-        } else {
-            VersionSyncInfo parentSync = versionManager.getVersionSyncInfo(this.inheritsFrom);
-            CompleteMinecraftVersion parent = versionManager.getLatestCompleteVersion(parentSync).resolve(versionManager, resolvedSoFar);
-            CompleteMinecraftVersion result = new CompleteMinecraftVersion(parent);
-            if (!parentSync.isInstalled() || !parentSync.isUpToDate() || parentSync.getLatestSource() != VersionSyncInfo.VersionSource.LOCAL) {
-                versionManager.installVersion(parent);
-            }
-
-            result.savableVersion = this;
-            result.inheritsFrom = null;
-            result.id = this.id;
-            result.time = this.time;
-            result.releaseTime = this.releaseTime;
-            result.type = this.type;
-            if (this.minecraftArguments != null) {
-                result.minecraftArguments = this.minecraftArguments;
-            }
-
-            if (this.mainClass != null) {
-                result.mainClass = this.mainClass;
-            }
-
-            if (this.incompatibilityReason != null) {
-                result.incompatibilityReason = this.incompatibilityReason;
-            }
-
-            if (this.assets != null) {
-                result.assets = this.assets;
-            }
-
-            if (this.jar != null) {
-                result.jar = this.jar;
-            }
+    CompleteMinecraftVersion inheritFrom(CompleteMinecraftVersion parent) {
+        CompleteMinecraftVersion result = new CompleteMinecraftVersion(parent);
+        result.savableVersion = this;
+        result.inheritsFrom = null;
+        result.id = this.id;
+        result.time = this.time;
+        result.releaseTime = this.releaseTime;
+        result.type = this.type;
+        if (this.minecraftArguments != null) {
+            result.minecraftArguments = this.minecraftArguments;
+        }
 
-            if (this.libraries != null) {
-                ArrayList i$ = Lists.newArrayList();
-                Iterator compatibilityRule = this.libraries.iterator();
+        if (this.mainClass != null) {
+            result.mainClass = this.mainClass;
+        }
 
-                Library library;
-                while (compatibilityRule.hasNext()) {
-                    library = (Library) compatibilityRule.next();
-                    i$.add(new Library(library));
-                }
+        if (this.incompatibilityReason != null) {
+            result.incompatibilityReason = this.incompatibilityReason;
+        }
 
-                compatibilityRule = result.libraries.iterator();
+        if (this.assets != null) {
+            result.assets = this.assets;
+        }
 
-                while (compatibilityRule.hasNext()) {
-                    library = (Library) compatibilityRule.next();
-                    i$.add(library);
-                }
+        if (this.jar != null) {
+            result.jar = this.jar;
+        }
 
-                result.libraries = i$;
+        if (this.libraries != null) {
+            ArrayList libraries = Lists.newArrayList((Iterable) this.libraries);
+            if (result.libraries != null) {
+                libraries.addAll(result.libraries);
             }
 
-            if (this.compatibilityRules != null) {
-                Iterator i$1 = this.compatibilityRules.iterator();
+            result.libraries = libraries;
+        }
 
-                while (i$1.hasNext()) {
-                    CompatibilityRule compatibilityRule1 = (CompatibilityRule) i$1.next();
-                    result.compatibilityRules.add(new CompatibilityRule(compatibilityRule1));
-                }
+        if (this.compatibilityRules != null) {
+            if (result.compatibilityRules == null) {
+                result.compatibilityRules = Lists.newArrayList();
             }
 
-            return result;
+            result.compatibilityRules.addAll(this.compatibilityRules);
         }
+
+        return result;
     }
 
     public CompleteMinecraftVersion getSavableVersion() {
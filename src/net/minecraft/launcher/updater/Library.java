@@ -1,31 +1,30 @@
 package net.minecraft.launcher.updater;
 
+import com.google.common.base.Objects;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.mojang.launcher.OperatingSystem;
+import com.mojang.launcher.Platform;
 import com.mojang.launcher.versions.CompatibilityRule;
 import com.mojang.launcher.versions.ExtractRules;
 import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.text.StrSubstitutor;
 
 public class Library {
 
-    private static final StrSubstitutor SUBSTITUTOR = new StrSubstitutor(new HashMap() {
-        {
-            this.put("arch", System.getProperty("os.arch").contains("64") ? "64" : "32");
-        }
-    });
+    private static final Interner<Library> INTERNER = Interners.newWeakInterner();
     private String name;
     private List<CompatibilityRule> rules;
     private Map<OperatingSystem, String> natives;
     private ExtractRules extract;
     private String url;
+    private transient LibraryArtifact artifact;
+    private transient volatile Boolean appliesToCurrentEnvironment;
 
     public Library() {
     }
@@ -94,22 +93,17 @@ public class Library {
     }
 
     public boolean appliesToCurrentEnvironment() {
-        if (this.rules == null) {
-            return true;
-        } else {
-            CompatibilityRule.Action lastAction = CompatibilityRule.Action.DISALLOW;
-            Iterator i$ = this.rules.iterator();
+        Boolean result = this.appliesToCurrentEnvironment;
+        if (result == null) {
+            result = Boolean.valueOf(CompatibilityRule.isAllowed(this.rules, Platform.current()));
+            this.appliesToCurrentEnvironment = result;
+        }
 
-            while (i$.hasNext()) {
-                CompatibilityRule compatibilityRule = (CompatibilityRule) i$.next();
-                CompatibilityRule.Action action = compatibilityRule.getAppliedAction();
-                if (action != null) {
-                    lastAction = action;
-                }
-            }
+        return result.booleanValue();
+    }
 
-            return lastAction == CompatibilityRule.Action.ALLOW;
-        }
+    public boolean appliesTo(Platform platform) {
+        return CompatibilityRule.isAllowed(this.rules, platform);
     }
 
     public Map<OperatingSystem, String> getNatives() {
@@ -125,12 +119,21 @@ public class Library {
         return this;
     }
 
+    public LibraryArtifact getArtifact() {
+        LibraryArtifact result = this.artifact;
+        if (result == null) {
+            result = LibraryArtifact.forName(this.name);
+            this.artifact = result;
+        }
+
+        return result;
+    }
+
     public String getArtifactBaseDir() {
         if (this.name == null) {
             throw new IllegalStateException("Cannot get artifact dir of empty/blank artifact");
         } else {
-            String[] parts = this.name.split(":", 3);
-            return String.format("%s/%s/%s", new Object[]{parts[0].replaceAll("\\.", "/"), parts[1], parts[2]});
+            return this.getArtifact().getBaseDir();
         }
     }
 
@@ -142,7 +145,7 @@ public class Library {
         if (this.name == null) {
             throw new IllegalStateException("Cannot get artifact path of empty/blank artifact");
         } else {
-            return String.format("%s/%s", new Object[]{this.getArtifactBaseDir(), this.getArtifactFilename(classifier)});
+            return this.getArtifact().getPath(classifier);
         }
     }
 
@@ -150,12 +153,29 @@ public class Library {
         if (this.name == null) {
             throw new IllegalStateException("Cannot get artifact filename of empty/blank artifact");
         } else {
-            String[] parts = this.name.split(":", 3);
-            String result = String.format("%s-%s%s.jar", new Object[]{parts[1], parts[2], StringUtils.isEmpty(classifier) ? "" : "-" + classifier});
-            return SUBSTITUTOR.replace(result);
+            return this.getArtifact().getFilename(classifier);
         }
     }
 
+    public static Library intern(Library library) {
+        return (Library) INTERNER.intern(library);
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o != null && this.getClass() == o.getClass()) {
+            Library that = (Library) o;
+            return Objects.equal(this.name, that.name) && Objects.equal(this.url, that.url) && Objects.equal(this.rules, that.rules) && Objects.equal(this.natives, that.natives) && Objects.equal(this.extract, that.extract);
+        } else {
+            return false;
+        }
+    }
+
+    public int hashCode() {
+        return Objects.hashCode(new Object[]{this.name, this.url, this.rules, this.natives, this.extract});
+    }
+
     public String toString() {
         return "Library{name=\'" + this.name + '\'' + ", rules=" + this.rules + ", natives=" + this.natives + ", extract=" + this.extract + '}';
     }
@@ -0,0 +1,94 @@
+package net.minecraft.launcher.updater;
+
+import com.google.common.collect.MapMaker;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.lang3.text.StrSubstitutor;
+
+public final class LibraryArtifact {
+
+    private static final StrSubstitutor SUBSTITUTOR = new StrSubstitutor(new HashMap() {
+        {
+            this.put("arch", System.getProperty("os.arch").contains("64") ? "64" : "32");
+        }
+    });
+    private static final ConcurrentMap<String, LibraryArtifact> ARTIFACTS = new MapMaker().weakValues().makeMap();
+    private static final String NO_CLASSIFIER = "";
+    private final String name;
+    private final String baseDir;
+    private final String artifactId;
+    private final String version;
+    private final ConcurrentMap<String, String> filenames = new ConcurrentHashMap();
+    private final ConcurrentMap<String, String> paths = new ConcurrentHashMap();
+
+    private LibraryArtifact(String name) {
+        String[] parts = name.split(":", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid library name \'" + name + "\'; expected group:artifact:version");
+        } else {
+            this.name = name;
+            this.artifactId = parts[1];
+            this.version = parts[2];
+            this.baseDir = parts[0].replace('.', '/') + "/" + parts[1] + "/" + parts[2];
+        }
+    }
+
+    public static LibraryArtifact forName(String name) {
+        if (name != null && name.length() != 0) {
+            LibraryArtifact artifact = (LibraryArtifact) ARTIFACTS.get(name);
+            if (artifact == null) {
+                artifact = new LibraryArtifact(name);
+                LibraryArtifact existing = (LibraryArtifact) ARTIFACTS.putIfAbsent(name, artifact);
+                if (existing != null) {
+                    artifact = existing;
+                }
+            }
+
+            return artifact;
+        } else {
+            throw new IllegalStateException("Cannot get artifact of empty/blank library name");
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getBaseDir() {
+        return this.baseDir;
+    }
+
+    public String getFilename(String classifier) {
+        String key = classifier == null ? NO_CLASSIFIER : classifier;
+        String filename = (String) this.filenames.get(key);
+        if (filename == null) {
+            StringBuilder builder = new StringBuilder(this.artifactId.length() + this.version.length() + key.length() + 6);
+            builder.append(this.artifactId).append('-').append(this.version);
+            if (key.length() != 0) {
+                builder.append('-').append(key);
+            }
+
+            builder.append(".jar");
+            filename = builder.indexOf("${") >= 0 ? SUBSTITUTOR.replace(builder.toString()) : builder.toString();
+            this.filenames.putIfAbsent(key, filename);
+        }
+
+        return filename;
+    }
+
+    public String getPath(String classifier) {
+        String key = classifier == null ? NO_CLASSIFIER : classifier;
+        String path = (String) this.paths.get(key);
+        if (path == null) {
+            path = this.baseDir + "/" + this.getFilename(classifier);
+            this.paths.putIfAbsent(key, path);
+        }
+
+        return path;
+    }
+
+    public String toString() {
+        return "LibraryArtifact{name=\'" + this.name + '\'' + '}';
+    }
+}
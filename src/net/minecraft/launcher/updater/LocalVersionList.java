@@ -1,5 +1,6 @@
 package net.minecraft.launcher.updater;
 
+import com.google.common.collect.Maps;
 import com.mojang.launcher.OperatingSystem;
 import com.mojang.launcher.versions.CompleteVersion;
 import com.mojang.launcher.versions.Version;
@@ -9,6 +10,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import net.minecraft.launcher.game.MinecraftReleaseType;
@@ -40,29 +44,27 @@ public class LocalVersionList extends FileBasedVersionList {
     }
 
     public void refreshVersions() throws IOException {
-        this.clearCache();
         File[] files = this.baseVersionsDir.listFiles();
         if (files != null) {
-            File[] i$ = files;
-            int version = files.length;
+            ArrayList versions = new ArrayList();
+            HashSet ids = new HashSet();
+            File[] arr$ = files;
+            int len$ = files.length;
 
-            for (int type = 0; type < version; ++type) {
-                File directory = i$[type];
+            for (int i$ = 0; i$ < len$; ++i$) {
+                File directory = arr$[i$];
                 String id = directory.getName();
                 File jsonFile = new File(directory, id + ".json");
                 if (directory.isDirectory() && jsonFile.exists()) {
                     try {
-                        String ex = "versions/" + id + "/" + id + ".json";
-                        CompleteVersion version1 = (CompleteVersion) this.gson.fromJson(this.getContent(ex), CompleteMinecraftVersion.class);
-                        if (version1.getType() == null) {
-                            LOGGER.warn("Ignoring: " + ex + "; it has an invalid version specified");
-                            return;
-                        }
-
-                        if (version1.getId().equals(id)) {
-                            this.addVersion(version1);
-                        } else {
-                            LOGGER.warn("Ignoring: " + ex + "; it contains id: \'" + version1.getId() + "\' expected \'" + id + "\'");
+                        String path = "versions/" + id + "/" + id + ".json";
+                        CompleteVersion version = this.parseCompleteVersion(this.getContent(path));
+                        if (version.getType() == null) {
+                            LOGGER.warn("Ignoring: " + path + "; it has an invalid version specified");
+                        } else if (!version.getId().equals(id)) {
+                            LOGGER.warn("Ignoring: " + path + "; it contains id: \'" + version.getId() + "\' expected \'" + id + "\'");
+                        } else if (ids.add(id)) {
+                            versions.add(version);
                         }
                     } catch (RuntimeException var10) {
                         LOGGER.error("Couldn\'t load local version " + jsonFile.getAbsolutePath(), (Throwable) var10);
@@ -70,16 +72,21 @@ public class LocalVersionList extends FileBasedVersionList {
                 }
             }
 
-            Iterator var11 = this.getVersions().iterator();
+            EnumMap latest = Maps.newEnumMap(MinecraftReleaseType.class);
+            Iterator i$1 = versions.iterator();
 
-            while (var11.hasNext()) {
-                Version var12 = (Version) var11.next();
-                MinecraftReleaseType var13 = (MinecraftReleaseType) var12.getType();
-                if (this.getLatestVersion(var13) == null || this.getLatestVersion(var13).getUpdatedTime().before(var12.getUpdatedTime())) {
-                    this.setLatestVersion(var12);
+            while (i$1.hasNext()) {
+                Version version1 = (Version) i$1.next();
+                MinecraftReleaseType type = (MinecraftReleaseType) version1.getType();
+                Version current = (Version) latest.get(type);
+                if (current == null || current.getUpdatedTime().before(version1.getUpdatedTime())) {
+                    latest.put(type, version1);
                 }
             }
 
+            this.replaceVersions(versions, latest);
+        } else {
+            this.clearCache();
         }
     }
 
@@ -2,9 +2,14 @@ package net.minecraft.launcher.updater;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 import com.mojang.launcher.OperatingSystem;
 import com.mojang.launcher.events.RefreshedVersionsListener;
+import com.mojang.launcher.metrics.Counter;
+import com.mojang.launcher.metrics.Histogram;
+import com.mojang.launcher.metrics.MetricRegistry;
 import com.mojang.launcher.updater.ExceptionalThreadPoolExecutor;
 import com.mojang.launcher.updater.VersionFilter;
 import com.mojang.launcher.updater.VersionManager;
@@ -17,9 +22,11 @@ import com.mojang.launcher.updater.download.assets.AssetIndex;
 import com.mojang.launcher.versions.CompleteVersion;
 import com.mojang.launcher.versions.ReleaseType;
 import com.mojang.launcher.versions.Version;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.Proxy;
 import java.net.URL;
 import java.util.ArrayList;
@@ -28,65 +35,70 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import net.minecraft.launcher.game.MinecraftReleaseType;
+import org.apache.commons.io.Charsets;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public class MinecraftVersionManager implements VersionManager {
 
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final Histogram REFRESH_DURATION = MetricRegistry.getDefault().histogram("launcher_version_refresh_duration_milliseconds", "Time taken to refresh the local and remote version lists", 600000L, new String[0]);
+    private static final Counter REFRESH_FAILURES = MetricRegistry.getDefault().counter("launcher_version_refresh_failures_total", "Version list refreshes that threw an exception", new String[0]);
+    private static final Histogram ASSET_INDEX_DURATION = MetricRegistry.getDefault().histogram("launcher_asset_index_duration_milliseconds", "Time taken to read an asset index and queue its missing objects", 600000L, new String[0]);
+    private static final Counter QUEUED_ASSETS = MetricRegistry.getDefault().counter("launcher_assets_queued_total", "Asset objects queued for download because they were missing or the wrong size", new String[0]);
+    private static final Counter PRESENT_ASSETS = MetricRegistry.getDefault().counter("launcher_assets_present_total", "Asset objects already present when their index was read", new String[0]);
     private final VersionList localVersionList;
     private final VersionList remoteVersionList;
     private final ThreadPoolExecutor executorService;
     private final List<RefreshedVersionsListener> refreshedVersionsListeners;
     private final Object refreshLock;
-    private boolean isRefreshing;
     private final Gson gson;
+    private final VersionResolver versionResolver;
 
     public MinecraftVersionManager(VersionList localVersionList, VersionList remoteVersionList) {
         this.executorService = new ExceptionalThreadPoolExecutor(4, 8, 30L, TimeUnit.SECONDS);
+        MetricRegistry.getDefault().monitorExecutor("versions", this.executorService);
         this.refreshedVersionsListeners = Collections.synchronizedList(new ArrayList());
         this.refreshLock = new Object();
         this.gson = new Gson();
+        this.versionResolver = new VersionResolver(this);
         this.localVersionList = localVersionList;
         this.remoteVersionList = remoteVersionList;
     }
 
     public void refreshVersions() throws IOException {
-        Object i$ = this.refreshLock;
+        long start = System.nanoTime();
+        Object var3 = this.refreshLock;
         synchronized (this.refreshLock) {
-            this.isRefreshing = true;
-        }
-
-        try {
-            LOGGER.info("Refreshing local version list...");
-            this.localVersionList.refreshVersions();
-            LOGGER.info("Refreshing remote version list...");
-            this.remoteVersionList.refreshVersions();
-        } catch (IOException var7) {
-            Object listener = this.refreshLock;
-            synchronized (this.refreshLock) {
-                this.isRefreshing = false;
+            try {
+                LOGGER.info("Refreshing local version list...");
+                this.localVersionList.refreshVersions();
+                LOGGER.info("Refreshing remote version list...");
+                this.remoteVersionList.refreshVersions();
+                this.versionResolver.invalidateAll();
+            } catch (IOException var8) {
+                REFRESH_FAILURES.increment();
+                throw var8;
+            } catch (RuntimeException var9) {
+                REFRESH_FAILURES.increment();
+                throw var9;
+            } finally {
+                REFRESH_DURATION.recordSince(start);
             }
-
-            throw var7;
         }
 
         LOGGER.info("Refresh complete.");
-        i$ = this.refreshLock;
-        synchronized (this.refreshLock) {
-            this.isRefreshing = false;
-        }
-
         Iterator i$1 = Lists.newArrayList((Iterable) this.refreshedVersionsListeners).iterator();
 
         while (i$1.hasNext()) {
@@ -101,13 +113,6 @@ public class MinecraftVersionManager implements VersionManager {
     }
 
     public List<VersionSyncInfo> getVersions(VersionFilter<? extends ReleaseType> filter) {
-        Object result = this.refreshLock;
-        synchronized (this.refreshLock) {
-            if (this.isRefreshing) {
-                return new ArrayList();
-            }
-        }
-
         ArrayList var10 = new ArrayList();
         HashMap lookup = new HashMap();
         EnumMap counts = Maps.newEnumMap(MinecraftReleaseType.class);
@@ -119,7 +124,8 @@ public class MinecraftVersionManager implements VersionManager {
             counts.put(syncInfo1, Integer.valueOf(0));
         }
 
-        Iterator var11 = Lists.newArrayList((Iterable) this.localVersionList.getVersions()).iterator();
+        this.versionResolver.prefetchParents(this.localVersionList.getVersions());
+        Iterator var11 = this.localVersionList.getVersions().iterator();
 
         Version var12;
         MinecraftReleaseType var13;
@@ -215,6 +221,7 @@ public class MinecraftVersionManager implements VersionManager {
 
     public List<VersionSyncInfo> getInstalledVersions() {
         ArrayList result = new ArrayList();
+        this.versionResolver.prefetchParents(this.localVersionList.getVersions());
         Iterator i$ = this.localVersionList.getVersions().iterator();
 
         while (i$.hasNext()) {
@@ -228,6 +235,10 @@ public class MinecraftVersionManager implements VersionManager {
         return result;
     }
 
+    public VersionResolver getVersionResolver() {
+        return this.versionResolver;
+    }
+
     public VersionList getRemoteVersionList() {
         return this.remoteVersionList;
     }
@@ -237,6 +248,15 @@ public class MinecraftVersionManager implements VersionManager {
     }
 
     public CompleteMinecraftVersion getLatestCompleteVersion(VersionSyncInfo syncInfo) throws IOException {
+        CompleteMinecraftVersion result = this.fetchLatestCompleteVersion(syncInfo);
+        if (result.getInheritsFrom() != null) {
+            this.versionResolver.prefetchParents(Collections.singletonList((Version) result));
+        }
+
+        return result;
+    }
+
+    private CompleteMinecraftVersion fetchLatestCompleteVersion(VersionSyncInfo syncInfo) throws IOException {
         if (syncInfo.getLatestSource() == VersionSyncInfo.VersionSource.REMOTE) {
             CompleteMinecraftVersion result = null;
             IOException exception = null;
@@ -279,14 +299,32 @@ public class MinecraftVersionManager implements VersionManager {
         }
     }
 
-    public DownloadJob downloadResources(DownloadJob job, CompleteVersion version) throws IOException {
-        File baseDirectory = ((LocalVersionList) this.localVersionList).getBaseDirectory();
-        job.addDownloadables((Collection) this.getResourceFiles(((RemoteVersionList) this.remoteVersionList).getProxy(), baseDirectory, (CompleteMinecraftVersion) version));
+    public DownloadJob downloadResources(final DownloadJob job, CompleteVersion version) throws IOException {
+        final File baseDirectory = ((LocalVersionList) this.localVersionList).getBaseDirectory();
+        final Proxy proxy = ((RemoteVersionList) this.remoteVersionList).getProxy();
+        final CompleteMinecraftVersion minecraftVersion = (CompleteMinecraftVersion) version;
+        job.beginStreaming();
+
+        try {
+            this.executorService.execute(new Runnable() {
+                public void run() {
+                    try {
+                        MinecraftVersionManager.this.streamResourceFiles(proxy, baseDirectory, minecraftVersion, job);
+                    } finally {
+                        job.finishStreaming();
+                    }
+
+                }
+            });
+        } catch (RejectedExecutionException var7) {
+            job.finishStreaming();
+            throw new IOException("Couldn\'t schedule resource index download", var7);
+        }
+
         return job;
     }
 
-    private Set<Downloadable> getResourceFiles(Proxy proxy, File baseDirectory, CompleteMinecraftVersion version) {
-        HashSet result = new HashSet();
+    private void streamResourceFiles(Proxy proxy, File baseDirectory, CompleteMinecraftVersion version, DownloadJob job) {
         InputStream inputStream = null;
         File assets = new File(baseDirectory, "assets");
         File objectsFolder = new File(assets, "objects");
@@ -301,34 +339,67 @@ public class MinecraftVersionManager implements VersionManager {
 
         try {
             URL ex = this.remoteVersionList.getUrl("indexes/" + indexName + ".json");
-            inputStream = ex.openConnection(proxy).getInputStream();
-            String json = IOUtils.toString(inputStream);
-            FileUtils.writeStringToFile(indexFile, json);
-            AssetIndex index = (AssetIndex) this.gson.fromJson(json, AssetIndex.class);
-            Iterator end = index.getUniqueObjects().entrySet().iterator();
-
-            while (end.hasNext()) {
-                Entry entry = (Entry) end.next();
-                AssetIndex.AssetObject delta = (AssetIndex.AssetObject) entry.getKey();
-                String filename = delta.getHash().substring(0, 2) + "/" + delta.getHash();
-                File file = new File(objectsFolder, filename);
-                if (!file.isFile() || FileUtils.sizeOf(file) != delta.getSize()) {
-                    AssetDownloadable downloadable = new AssetDownloadable(proxy, (String) entry.getValue(), delta, "http://resources.download.minecraft.net/", objectsFolder);
-                    downloadable.setExpectedSize(delta.getSize());
-                    result.add(downloadable);
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            inputStream = new TeeInputStream(ex.openConnection(proxy).getInputStream(), json);
+            JsonReader reader = new JsonReader(new InputStreamReader(inputStream, Charsets.UTF_8));
+            Set<String> seen = Sets.newHashSet();
+            List<Downloadable> batch = Lists.newArrayList();
+            int queued = 0;
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if (!"objects".equals(reader.nextName())) {
+                    reader.skipValue();
+                } else {
+                    reader.beginObject();
+
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        AssetIndex.AssetObject object = (AssetIndex.AssetObject) this.gson.fromJson(reader, AssetIndex.AssetObject.class);
+                        if (seen.add(object.getHash())) {
+                            File file = new File(objectsFolder, object.getHash().substring(0, 2) + "/" + object.getHash());
+                            if (!file.isFile() || FileUtils.sizeOf(file) != object.getSize()) {
+                                AssetDownloadable downloadable = new AssetDownloadable(proxy, name, object, "http://resources.download.minecraft.net/", objectsFolder);
+                                downloadable.setExpectedSize(object.getSize());
+                                batch.add(downloadable);
+                                if (batch.size() >= 64) {
+                                    job.addDownloadables((Collection) batch);
+                                    queued += batch.size();
+                                    batch.clear();
+                                }
+                            }
+                        }
+                    }
+
+                    reader.endObject();
                 }
             }
 
-            long end1 = System.nanoTime();
-            long delta1 = end1 - start;
-            LOGGER.debug("Delta time to compare resources: " + delta1 / 1000000L + " ms ");
+            reader.endObject();
+            job.addDownloadables((Collection) batch);
+            queued += batch.size();
+            IOUtils.copy(inputStream, NullOutputStream.NULL_OUTPUT_STREAM);
+            File temporary = new File(indexesFolder, indexName + ".json." + Thread.currentThread().getId() + ".tmp");
+            FileUtils.writeByteArrayToFile(temporary, json.toByteArray());
+            if (!temporary.renameTo(indexFile)) {
+                FileUtils.copyFile(temporary, indexFile);
+                FileUtils.deleteQuietly(temporary);
+            }
+
+            long end = System.nanoTime();
+            long delta = end - start;
+            LOGGER.debug("Delta time to compare resources: " + delta / 1000000L + " ms ");
+            ASSET_INDEX_DURATION.record(delta / 1000000L);
+            QUEUED_ASSETS.add((long) queued);
+            PRESENT_ASSETS.add((long) (seen.size() - queued));
+            LOGGER.info("Queued " + queued + " of " + seen.size() + " objects from asset index " + indexName);
         } catch (Exception var25) {
             LOGGER.error("Couldn\'t download resources", (Throwable) var25);
+            job.setStreamingError(var25);
         } finally {
             IOUtils.closeQuietly(inputStream);
         }
 
-        return result;
     }
 
     public ThreadPoolExecutor getExecutorService() {
@@ -347,6 +418,7 @@ public class MinecraftVersionManager implements VersionManager {
         CompleteMinecraftVersion remoteVersion = this.getRemoteVersionList().getCompleteVersion(syncInfo.getRemoteVersion());
         this.getLocalVersionList().removeVersion(syncInfo.getLocalVersion());
         this.getLocalVersionList().addVersion(remoteVersion);
+        this.versionResolver.invalidate(remoteVersion.getId());
         ((LocalVersionList) this.getLocalVersionList()).saveVersion(((CompleteMinecraftVersion) remoteVersion).getSavableVersion());
         return this.getVersionSyncInfo((Version) remoteVersion);
     }
@@ -362,6 +434,7 @@ public class MinecraftVersionManager implements VersionManager {
         }
 
         localVersionList.addVersion((CompleteVersion) version);
+        this.versionResolver.invalidate(((CompleteVersion) version).getId());
         if (localVersionList instanceof LocalVersionList) {
             ((LocalVersionList) localVersionList).saveVersion((CompleteVersion) version);
         }
@@ -373,6 +446,7 @@ public class MinecraftVersionManager implements VersionManager {
         VersionList localVersionList = this.getLocalVersionList();
         if (localVersionList instanceof LocalVersionList) {
             localVersionList.uninstallVersion(version);
+            this.versionResolver.invalidate(version.getId());
             LOGGER.info("Uninstalled " + version);
         }
 
@@ -17,19 +17,21 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicReference;
 import net.minecraft.launcher.game.MinecraftReleaseType;
 import net.minecraft.launcher.game.MinecraftReleaseTypeFactory;
 
 public abstract class VersionList {
 
     protected final Gson gson;
-    private final Map<String, Version> versionsByName = new HashMap();
-    private final List<Version> versions = new ArrayList();
-    private final Map<MinecraftReleaseType, Version> latestVersions = Maps.newEnumMap(MinecraftReleaseType.class);
+    private final AtomicReference<VersionList.Snapshot> snapshot = new AtomicReference(VersionList.Snapshot.EMPTY);
+    private final Object writeLock = new Object();
 
     public VersionList() {
         GsonBuilder builder = new GsonBuilder();
@@ -42,20 +44,20 @@ public abstract class VersionList {
     }
 
     public Collection<Version> getVersions() {
-        return this.versions;
+        return ((VersionList.Snapshot) this.snapshot.get()).versions;
     }
 
     public Version getLatestVersion(MinecraftReleaseType type) {
         if (type == null) {
             throw new IllegalArgumentException("Type cannot be null");
         } else {
-            return (Version) this.latestVersions.get(type);
+            return (Version) ((VersionList.Snapshot) this.snapshot.get()).latestVersions.get(type);
         }
     }
 
     public Version getVersion(String name) {
         if (name != null && name.length() != 0) {
-            return (Version) this.versionsByName.get(name);
+            return (Version) ((VersionList.Snapshot) this.snapshot.get()).versionsByName.get(name);
         } else {
             throw new IllegalArgumentException("Name cannot be null or empty");
         }
@@ -80,54 +82,84 @@ public abstract class VersionList {
         } else if (version == null) {
             throw new IllegalArgumentException("Version cannot be null");
         } else {
-            CompleteMinecraftVersion complete = (CompleteMinecraftVersion) this.gson.fromJson(this.getContent("versions/" + version.getId() + "/" + version.getId() + ".json"), CompleteMinecraftVersion.class);
-            MinecraftReleaseType type = (MinecraftReleaseType) version.getType();
-            Collections.replaceAll(this.versions, version, complete);
-            this.versionsByName.put(version.getId(), complete);
-            if (this.latestVersions.get(type) == version) {
-                this.latestVersions.put(type, complete);
+            Version cached = this.getVersion(version.getId());
+            if (cached instanceof CompleteVersion) {
+                return (CompleteMinecraftVersion) cached;
+            }
+
+            CompleteMinecraftVersion complete = this.parseCompleteVersion(this.getContent("versions/" + version.getId() + "/" + version.getId() + ".json"));
+            Object var3 = this.writeLock;
+            synchronized (this.writeLock) {
+                VersionList.Snapshot current = (VersionList.Snapshot) this.snapshot.get();
+                if (current.versionsByName.get(version.getId()) == version) {
+                    this.snapshot.set(current.replace(version, complete));
+                }
             }
 
             return complete;
         }
     }
 
+    protected CompleteMinecraftVersion parseCompleteVersion(String json) {
+        CompleteMinecraftVersion version = (CompleteMinecraftVersion) this.gson.fromJson(json, CompleteMinecraftVersion.class);
+        if (version != null) {
+            version.internLibraries();
+        }
+
+        return version;
+    }
+
     protected void clearCache() {
-        this.versionsByName.clear();
-        this.versions.clear();
-        this.latestVersions.clear();
+        this.snapshot.set(VersionList.Snapshot.EMPTY);
+    }
+
+    protected void replaceVersions(Collection<? extends Version> versions, Map<MinecraftReleaseType, ? extends Version> latestVersions) {
+        VersionList.Snapshot replacement = new VersionList.Snapshot(versions, latestVersions);
+        Object var4 = this.writeLock;
+        synchronized (this.writeLock) {
+            this.snapshot.set(replacement);
+        }
     }
 
     public void refreshVersions() throws IOException {
-        this.clearCache();
         VersionList.RawVersionList versionList = (VersionList.RawVersionList) this.gson.fromJson(this.getContent("versions/versions.json"), VersionList.RawVersionList.class);
-        Iterator arr$ = versionList.getVersions().iterator();
+        HashMap versionsByName = new HashMap();
+        Iterator i$ = versionList.getVersions().iterator();
 
-        while (arr$.hasNext()) {
-            Version len$ = (Version) arr$.next();
-            this.versions.add(len$);
-            this.versionsByName.put(len$.getId(), len$);
+        while (i$.hasNext()) {
+            Version version = (Version) i$.next();
+            versionsByName.put(version.getId(), version);
         }
 
-        MinecraftReleaseType[] var6 = MinecraftReleaseType.values();
-        int var7 = var6.length;
+        EnumMap latest = Maps.newEnumMap(MinecraftReleaseType.class);
+        MinecraftReleaseType[] arr$ = MinecraftReleaseType.values();
+        int len$ = arr$.length;
 
-        for (int i$ = 0; i$ < var7; ++i$) {
-            MinecraftReleaseType type = var6[i$];
-            this.latestVersions.put(type, this.versionsByName.get(versionList.getLatestVersions().get(type)));
+        for (int i = 0; i < len$; ++i) {
+            MinecraftReleaseType type = arr$[i];
+            Version version = (Version) versionsByName.get(versionList.getLatestVersions().get(type));
+            if (version != null) {
+                latest.put(type, version);
+            }
         }
 
+        this.replaceVersions(versionList.getVersions(), latest);
     }
 
     public CompleteVersion addVersion(CompleteVersion version) {
         if (version.getId() == null) {
             throw new IllegalArgumentException("Cannot add blank version");
-        } else if (this.getVersion(version.getId()) != null) {
-            throw new IllegalArgumentException("Version \'" + version.getId() + "\' is already tracked");
         } else {
-            this.versions.add(version);
-            this.versionsByName.put(version.getId(), version);
-            return version;
+            Object var2 = this.writeLock;
+            synchronized (this.writeLock) {
+                VersionList.Snapshot current = (VersionList.Snapshot) this.snapshot.get();
+                if (current.versionsByName.containsKey(version.getId())) {
+                    throw new IllegalArgumentException("Version \'" + version.getId() + "\' is already tracked");
+                }
+
+                this.snapshot.set(current.add(version));
+                return version;
+            }
         }
     }
 
@@ -148,18 +180,10 @@ public abstract class VersionList {
         if (version == null) {
             throw new IllegalArgumentException("Cannot remove null version");
         } else {
-            this.versions.remove(version);
-            this.versionsByName.remove(version.getId());
-            MinecraftReleaseType[] arr$ = MinecraftReleaseType.values();
-            int len$ = arr$.length;
-
-            for (int i$ = 0; i$ < len$; ++i$) {
-                MinecraftReleaseType type = arr$[i$];
-                if (this.getLatestVersion(type) == version) {
-                    this.latestVersions.remove(type);
-                }
+            Object var2 = this.writeLock;
+            synchronized (this.writeLock) {
+                this.snapshot.set(((VersionList.Snapshot) this.snapshot.get()).remove(version));
             }
-
         }
     }
 
@@ -167,7 +191,10 @@ public abstract class VersionList {
         if (version == null) {
             throw new IllegalArgumentException("Cannot set latest version to null");
         } else {
-            this.latestVersions.put((MinecraftReleaseType) version.getType(), version);
+            Object var2 = this.writeLock;
+            synchronized (this.writeLock) {
+                this.snapshot.set(((VersionList.Snapshot) this.snapshot.get()).withLatest((MinecraftReleaseType) version.getType(), version));
+            }
         }
     }
 
@@ -229,6 +256,74 @@ public abstract class VersionList {
         this.removeVersion(version);
     }
 
+    private static final class Snapshot {
+
+        private static final VersionList.Snapshot EMPTY = new VersionList.Snapshot(Collections.<Version>emptyList(), Collections.<MinecraftReleaseType, Version>emptyMap());
+        private final List<Version> versions;
+        private final Map<String, Version> versionsByName;
+        private final Map<MinecraftReleaseType, Version> latestVersions;
+
+        private Snapshot(Collection<? extends Version> versions, Map<MinecraftReleaseType, ? extends Version> latestVersions) {
+            ArrayList list = new ArrayList(versions);
+            HashMap byName = new HashMap();
+            Iterator i$ = list.iterator();
+
+            while (i$.hasNext()) {
+                Version version = (Version) i$.next();
+                byName.put(version.getId(), version);
+            }
+
+            EnumMap latest = Maps.newEnumMap(MinecraftReleaseType.class);
+            latest.putAll(latestVersions);
+            this.versions = Collections.unmodifiableList(list);
+            this.versionsByName = Collections.unmodifiableMap(byName);
+            this.latestVersions = Collections.unmodifiableMap(latest);
+        }
+
+        private VersionList.Snapshot add(Version version) {
+            ArrayList list = new ArrayList(this.versions);
+            list.add(version);
+            return new VersionList.Snapshot(list, this.latestVersions);
+        }
+
+        private VersionList.Snapshot remove(Version version) {
+            ArrayList list = new ArrayList(this.versions);
+            list.remove(version);
+            EnumMap latest = Maps.newEnumMap(MinecraftReleaseType.class);
+            Iterator i$ = this.latestVersions.entrySet().iterator();
+
+            while (i$.hasNext()) {
+                Entry entry = (Entry) i$.next();
+                if (entry.getValue() != version) {
+                    latest.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            return new VersionList.Snapshot(list, latest);
+        }
+
+        private VersionList.Snapshot replace(Version original, Version replacement) {
+            ArrayList list = new ArrayList(this.versions);
+            Collections.replaceAll(list, original, replacement);
+            EnumMap latest = Maps.newEnumMap(MinecraftReleaseType.class);
+            Iterator i$ = this.latestVersions.entrySet().iterator();
+
+            while (i$.hasNext()) {
+                Entry entry = (Entry) i$.next();
+                latest.put(entry.getKey(), entry.getValue() == original ? replacement : entry.getValue());
+            }
+
+            return new VersionList.Snapshot(list, latest);
+        }
+
+        private VersionList.Snapshot withLatest(MinecraftReleaseType type, Version version) {
+            EnumMap latest = Maps.newEnumMap(MinecraftReleaseType.class);
+            latest.putAll(this.latestVersions);
+            latest.put(type, version);
+            return new VersionList.Snapshot(this.versions, latest);
+        }
+    }
+
     // $FF: synthetic class
     static class NamelessClass425749475 {
     }
@@ -0,0 +1,223 @@
+package net.minecraft.launcher.updater;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.mojang.launcher.OperatingSystem;
+import com.mojang.launcher.updater.VersionSyncInfo;
+import com.mojang.launcher.versions.Version;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class VersionResolver {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final MinecraftVersionManager versionManager;
+    private static final long MAX_RESOLVED_VERSIONS = 64L;
+    private final ConcurrentMap<String, CompleteMinecraftVersion> resolvedVersions = CacheBuilder.newBuilder().maximumSize(MAX_RESOLVED_VERSIONS).<String, CompleteMinecraftVersion>build().asMap();
+    private final ConcurrentMap<String, VersionResolver.ParentFetch> parentFetches = new ConcurrentHashMap();
+
+    public VersionResolver(MinecraftVersionManager versionManager) {
+        this.versionManager = versionManager;
+    }
+
+    public CompleteMinecraftVersion resolve(CompleteMinecraftVersion version) throws IOException {
+        if (version.getInheritsFrom() == null) {
+            return version;
+        } else {
+            List<CompleteMinecraftVersion> chain = Lists.newArrayList();
+            List<VersionSyncInfo> syncInfos = Lists.newArrayList();
+            Set<String> resolvedSoFar = Sets.newHashSet();
+            CompleteMinecraftVersion current = version;
+            VersionSyncInfo currentSyncInfo = null;
+
+            while (true) {
+                if (!resolvedSoFar.add(current.getId())) {
+                    throw new IllegalStateException("Circular dependency detected");
+                }
+
+                chain.add(current);
+                syncInfos.add(currentSyncInfo);
+                if (current.getInheritsFrom() == null) {
+                    break;
+                }
+
+                VersionResolver.Parent parent = this.getParent(current.getInheritsFrom());
+                current = parent.version;
+                currentSyncInfo = parent.syncInfo;
+            }
+
+            CompleteMinecraftVersion result = (CompleteMinecraftVersion) chain.get(chain.size() - 1);
+            String key = getChainKey(result);
+
+            for (int i = chain.size() - 2; i >= 0; --i) {
+                this.installParentIfNeeded((CompleteMinecraftVersion) chain.get(i + 1), (VersionSyncInfo) syncInfos.get(i + 1), result);
+                CompleteMinecraftVersion child = (CompleteMinecraftVersion) chain.get(i);
+                key = getChainKey(child) + ">" + key;
+                CompleteMinecraftVersion cached = (CompleteMinecraftVersion) this.resolvedVersions.get(key);
+                if (cached == null) {
+                    cached = child.inheritFrom(result);
+                    CompleteMinecraftVersion existing = (CompleteMinecraftVersion) this.resolvedVersions.putIfAbsent(key, cached);
+                    if (existing != null) {
+                        cached = existing;
+                    }
+                }
+
+                result = cached;
+            }
+
+            return result;
+        }
+    }
+
+    public void prefetchParents(Collection<Version> versions) {
+        Iterator i$ = versions.iterator();
+
+        while (i$.hasNext()) {
+            Version version = (Version) i$.next();
+            if (version instanceof CompleteMinecraftVersion) {
+                String parent = ((CompleteMinecraftVersion) version).getInheritsFrom();
+                if (parent != null) {
+                    this.prefetchParent(parent);
+                }
+            }
+        }
+
+    }
+
+    public void invalidate(String id) {
+        VersionResolver.ParentFetch task = (VersionResolver.ParentFetch) this.parentFetches.get(id);
+        if (task != null) {
+            task.invalidated = true;
+            if (task.isDone()) {
+                this.parentFetches.remove(id, task);
+            }
+        }
+
+    }
+
+    public void invalidateAll() {
+        this.parentFetches.clear();
+        this.resolvedVersions.clear();
+    }
+
+    private void prefetchParent(String id) {
+        FutureTask task = this.getParentTask(id);
+        if (!task.isDone()) {
+            try {
+                this.versionManager.getExecutorService().execute(task);
+            } catch (RejectedExecutionException var4) {
+                ;
+            }
+        }
+
+    }
+
+    private VersionResolver.ParentFetch getParentTask(String id) {
+        VersionResolver.ParentFetch task = (VersionResolver.ParentFetch) this.parentFetches.get(id);
+        if (task == null) {
+            VersionResolver.ParentFetch created = new VersionResolver.ParentFetch(id);
+            task = (VersionResolver.ParentFetch) this.parentFetches.putIfAbsent(id, created);
+            if (task == null) {
+                task = created;
+            }
+        }
+
+        return task;
+    }
+
+    private VersionResolver.Parent getParent(String id) throws IOException {
+        VersionResolver.ParentFetch task = this.getParentTask(id);
+        task.run();
+
+        try {
+            return (VersionResolver.Parent) task.get();
+        } catch (InterruptedException var5) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted whilst resolving parent version " + id, var5);
+        } catch (ExecutionException var6) {
+            this.parentFetches.remove(id, task);
+            Throwable cause = var6.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IOException("Couldn\'t resolve parent version " + id, cause);
+            }
+        }
+    }
+
+    private VersionResolver.Parent fetchParent(String id) throws IOException {
+        Version localVersion = this.versionManager.getLocalVersionList().getVersion(id);
+        Version remoteVersion = this.versionManager.getRemoteVersionList().getVersion(id);
+        boolean upToDate = localVersion != null && (remoteVersion == null || !remoteVersion.getUpdatedTime().after(localVersion.getUpdatedTime()));
+        VersionSyncInfo syncInfo = new VersionSyncInfo(localVersion, remoteVersion, localVersion != null, upToDate);
+        if (syncInfo.getLatestVersion() == null) {
+            throw new IOException("Unknown parent version " + id);
+        } else {
+            CompleteMinecraftVersion parent = this.versionManager.getLatestCompleteVersion(syncInfo);
+            if (parent.getInheritsFrom() != null) {
+                this.prefetchParent(parent.getInheritsFrom());
+            }
+
+            return new VersionResolver.Parent(parent, syncInfo);
+        }
+    }
+
+    private void installParentIfNeeded(CompleteMinecraftVersion parent, VersionSyncInfo syncInfo, CompleteMinecraftVersion resolvedParent) throws IOException {
+        if (!syncInfo.isInstalled() || !syncInfo.isUpToDate() || syncInfo.getLatestSource() != VersionSyncInfo.VersionSource.LOCAL || !this.versionManager.getLocalVersionList().hasAllFiles(resolvedParent, OperatingSystem.getCurrentPlatform())) {
+            LOGGER.info("Installing parent version " + parent.getId());
+            this.versionManager.installVersion(parent);
+        }
+
+    }
+
+    private static String getChainKey(CompleteMinecraftVersion version) {
+        return version.getId() + "@" + (version.getUpdatedTime() == null ? 0L : version.getUpdatedTime().getTime());
+    }
+
+    static class Parent {
+
+        private final CompleteMinecraftVersion version;
+        private final VersionSyncInfo syncInfo;
+
+        private Parent(CompleteMinecraftVersion version, VersionSyncInfo syncInfo) {
+            this.version = version;
+            this.syncInfo = syncInfo;
+        }
+    }
+
+    class ParentFetch extends FutureTask<VersionResolver.Parent> {
+
+        private final String id;
+        private volatile boolean invalidated;
+
+        private ParentFetch(final String id) {
+            super(new Callable() {
+                public VersionResolver.Parent call() throws IOException {
+                    return VersionResolver.this.fetchParent(id);
+                }
+            });
+            this.id = id;
+        }
+
+        protected void done() {
+            if (this.invalidated) {
+                VersionResolver.this.parentFetches.remove(this.id, this);
+            }
+
+        }
+    }
+}